@@ -0,0 +1,195 @@
+/**
+ * AnalysisBenchmark.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import actroid.mtp.check.CountCheckUtil;
+import actroid.mtp.check.HandState;
+import actroid.mtp.check.TenpaiAnalyzer;
+import wiz.project.jan.JanPai;
+import wiz.project.jan.util.HandCheckUtil;
+import wiz.project.jan.util.JanPaiUtil;
+
+
+
+/**
+ * 解析処理のベンチマーク
+ * 
+ *  ※手牌の種類 (HandCorpus) 毎に、解析処理 (actroid.mtp.check) と元のライブラリ (HandCheckUtil) を計測する。
+ *  ※1回の呼び出しで手牌集の全ての手牌を処理し、1手牌を1操作として数える (ops/s は手牌/秒)。
+ *  ※入力は全て事前に作成し、計測中の割り当ては計測対象の処理によるもののみとする。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisBenchmark {
+    
+    /**
+     * 聴牌パターン解析 (捨て牌候補毎の並列解析)
+     * 
+     * @param blackhole 結果の消費先。
+     * @throws InterruptedException 割り込まれた。
+     */
+    @Benchmark
+    @OperationsPerInvocation(HAND_COUNT)
+    public void analyzerTenpaiPatternList(final Blackhole blackhole) throws InterruptedException {
+        for (int i = 0; i < HAND_COUNT; i++) {
+            blackhole.consume(TenpaiAnalyzer.getTenpaiPatternList(_stateArray[i], _entryArray[i].getVisible()));
+        }
+    }
+    
+    /**
+     * 聴牌パターン解析 (ライブラリ)
+     * 
+     * @param blackhole 結果の消費先。
+     */
+    @Benchmark
+    @OperationsPerInvocation(HAND_COUNT)
+    public void libraryTenpaiPatternList(final Blackhole blackhole) {
+        for (int i = 0; i < HAND_COUNT; i++) {
+            blackhole.consume(HandCheckUtil.getTenpaiPatternList(_entryArray[i].getHand()));
+        }
+    }
+    
+    /**
+     * 和了判定
+     * 
+     * @param blackhole 結果の消費先。
+     */
+    @Benchmark
+    @OperationsPerInvocation(HAND_COUNT)
+    public void analyzerIsComplete(final Blackhole blackhole) {
+        for (int i = 0; i < HAND_COUNT; i++) {
+            blackhole.consume(CountCheckUtil.isComplete(_entryArray[i].getCount()));
+        }
+    }
+    
+    /**
+     * 和了判定 (ライブラリ)
+     * 
+     * @param blackhole 結果の消費先。
+     */
+    @Benchmark
+    @OperationsPerInvocation(HAND_COUNT)
+    public void libraryIsComplete(final Blackhole blackhole) {
+        for (int i = 0; i < HAND_COUNT; i++) {
+            blackhole.consume(HandCheckUtil.isComplete(_menZenMapArray[i]));
+        }
+    }
+    
+    /**
+     * 待ち牌判定
+     * 
+     * @param blackhole 結果の消費先。
+     */
+    @Benchmark
+    @OperationsPerInvocation(HAND_COUNT)
+    public void analyzerCompletable(final Blackhole blackhole) {
+        for (int i = 0; i < HAND_COUNT; i++) {
+            blackhole.consume(CountCheckUtil.getCompletableMask(_entryArray[i].getWaitCount()));
+        }
+    }
+    
+    /**
+     * 待ち牌判定 (ライブラリ)
+     * 
+     * @param blackhole 結果の消費先。
+     */
+    @Benchmark
+    @OperationsPerInvocation(HAND_COUNT)
+    public void libraryCompletable(final Blackhole blackhole) {
+        for (int i = 0; i < HAND_COUNT; i++) {
+            blackhole.consume(HandCheckUtil.getCompletableJanPaiList(_waitMapArray[i]));
+        }
+    }
+    
+    /**
+     * 初期化
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<HandCorpus.Entry> entryList = HandCorpus.valueOf(_handClass).getEntryList();
+        if (entryList.size() != HAND_COUNT) {
+            throw new IllegalStateException("Corpus size must be " + HAND_COUNT + " - " + _handClass);
+        }
+        
+        for (int i = 0; i < HAND_COUNT; i++) {
+            final HandCorpus.Entry entry = entryList.get(i);
+            _entryArray[i] = entry;
+            _stateArray[i] = new HandState(entry.getCount());
+            _stateArray[i].refresh();
+            
+            // ライブラリは所持数0の牌を含むマップを扱えないため、事前に除去しておく
+            _menZenMapArray[i] = entry.getHand().getMenZenMap();
+            JanPaiUtil.cleanJanPaiMap(_menZenMapArray[i]);
+            _waitMapArray[i] = entry.getWaitHand().getMenZenMap();
+            JanPaiUtil.cleanJanPaiMap(_waitMapArray[i]);
+        }
+    }
+    
+    
+    
+    /**
+     * 手牌の種類毎の手牌数
+     */
+    static final int HAND_COUNT = 4;
+    
+    
+    
+    /**
+     * 手牌の種類
+     */
+    @Param({ "CHIN_ITSU", "CHI_TOI", "KOKUSHI", "OPEN_FOUR_MELDS", "MIXED" })
+    public String _handClass;
+    
+    
+    
+    /**
+     * 手牌
+     */
+    private final HandCorpus.Entry[] _entryArray = new HandCorpus.Entry[HAND_COUNT];
+    
+    /**
+     * 面前手牌の状態 (3n+2 枚)
+     */
+    private final HandState[] _stateArray = new HandState[HAND_COUNT];
+    
+    /**
+     * 面前手牌マップ (3n+2 枚)
+     */
+    @SuppressWarnings("unchecked")
+    private final Map<JanPai, Integer>[] _menZenMapArray = new Map[HAND_COUNT];
+    
+    /**
+     * 待ち判定用の面前手牌マップ (3n+1 枚)
+     */
+    @SuppressWarnings("unchecked")
+    private final Map<JanPai, Integer>[] _waitMapArray = new Map[HAND_COUNT];
+    
+}
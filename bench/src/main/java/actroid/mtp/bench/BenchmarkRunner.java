@@ -0,0 +1,56 @@
+/**
+ * BenchmarkRunner.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+
+/**
+ * ベンチマーク実行
+ * 
+ *  ※JMH の引数 (例 : -p _handClass=KOKUSHI) をそのまま受け付ける。
+ *  ※GC プロファイラを常に有効にし、手牌あたりの割り当て量 (gc.alloc.rate.norm) を出力する。
+ */
+public final class BenchmarkRunner {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private BenchmarkRunner() {
+    }
+    
+    
+    
+    /**
+     * エントリポイント
+     * 
+     * @param args JMH の引数。
+     * @throws CommandLineOptionException 引数が不正。
+     * @throws RunnerException 実行に失敗した。
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(AnalysisBenchmark.class.getSimpleName());
+        }
+        builder.addProfiler(GCProfiler.class);
+        
+        final Options options = builder.build();
+        new Runner(options).run();
+    }
+    
+}
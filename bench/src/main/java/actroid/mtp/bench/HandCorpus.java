@@ -0,0 +1,251 @@
+/**
+ * HandCorpus.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import actroid.mtp.check.CountCheckUtil;
+import actroid.mtp.check.HandNotation;
+import wiz.project.jan.Hand;
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * ベンチマーク用の手牌集
+ * 
+ *  ※手牌の種類毎に、固定の代表的な手牌 (14枚相当) を持つ。結果を比較できるよう、内容を変更しないこと。
+ *  ※手牌は HandNotation の表記で記述する (副露手は確定面子を括弧で付ける)。
+ */
+public enum HandCorpus {
+    
+    /**
+     * 清一色
+     */
+    CHIN_ITSU(new String[] {
+        "11122345678999m",
+        "11123455678999m",
+        "22334455667788m",
+        "23456677788899p",
+    }),
+    
+    /**
+     * 七対子
+     */
+    CHI_TOI(new String[] {
+        "1133m5577p22s1144z",
+        "2244m3366p1188s77z",
+        "1199m1199p11s2233z",
+        "3355m2288p4466s55z",
+    }),
+    
+    /**
+     * 国士無双
+     */
+    KOKUSHI(new String[] {
+        "19m19p19s12345677z",
+        "119m19p19s1234567z",
+        "19m199p19s1234567z",
+        "19m19p19s11234567z",
+    }),
+    
+    /**
+     * 4副露
+     */
+    OPEN_FOUR_MELDS(new String[] {
+        "55m [123p] [555s] [777z] [678m]",
+        "34m [234p] [666p] [111z] [789s]",
+        "19s [111m] [999p] [222z] [555z]",
+        "46p [345m] [567s] [888s] [123m]",
+    }),
+    
+    /**
+     * 混合 (門前の一般手)
+     */
+    MIXED(new String[] {
+        "23445m567p345678s",
+        "1234567m34566p55s",
+        "123m456p789s11223z",
+        "2356m4678p11344s7z",
+    });
+    
+    
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param sourceList 手牌の表記リスト。
+     */
+    private HandCorpus(final String[] sourceList) {
+        final List<Entry> entryList = new ArrayList<Entry>(sourceList.length);
+        for (final String source : sourceList) {
+            entryList.add(new Entry(source));
+        }
+        _entryList = Collections.unmodifiableList(entryList);
+    }
+    
+    
+    
+    /**
+     * 手牌リストを取得
+     * 
+     * @return 手牌リスト。
+     */
+    public List<Entry> getEntryList() {
+        return _entryList;
+    }
+    
+    
+    
+    /**
+     * 手牌リスト
+     */
+    private final List<Entry> _entryList;
+    
+    
+    
+    /**
+     * 手牌1つ分
+     * 
+     *  ※ベンチマーク中に生成しないよう、解析処理・ライブラリそれぞれの入力形式を事前に作成する。
+     */
+    public static final class Entry {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param source 手牌の表記。
+         */
+        public Entry(final String source) {
+            _notation = source;
+            _hand = HandNotation.parseHand(source);
+            _count = CountCheckUtil.convertJanPaiMap(_hand.getMenZenMap());
+            _visible = CountCheckUtil.convertJanPaiMap(_hand.getAllJanPaiMap());
+            
+            // 待ち判定用に、最も大きい牌を1枚除いた手牌を用意する
+            _waitCount = _count.clone();
+            for (int i = CountCheckUtil.JAN_PAI_KIND - 1; i >= 0; i--) {
+                if (_waitCount[i] > 0) {
+                    _waitCount[i]--;
+                    break;
+                }
+            }
+            _waitHand = new Hand(toJanPaiList(_waitCount), _hand.getFixedMenTsuList());
+        }
+        
+        
+        
+        /**
+         * 面前手牌の所持数配列を取得
+         * 
+         * @return 面前手牌の所持数配列 (3n+2 枚)。
+         */
+        public int[] getCount() {
+            return _count;
+        }
+        
+        /**
+         * 手牌を取得
+         * 
+         * @return 手牌 (3n+2 枚)。
+         */
+        public Hand getHand() {
+            return _hand;
+        }
+        
+        /**
+         * 見えている牌の所持数配列を取得
+         * 
+         * @return 見えている牌の所持数配列 (確定面子を含む)。
+         */
+        public int[] getVisible() {
+            return _visible;
+        }
+        
+        /**
+         * 待ち判定用の所持数配列を取得
+         * 
+         * @return 面前手牌の所持数配列 (3n+1 枚)。
+         */
+        public int[] getWaitCount() {
+            return _waitCount;
+        }
+        
+        /**
+         * 待ち判定用の手牌を取得
+         * 
+         * @return 手牌 (3n+1 枚)。
+         */
+        public Hand getWaitHand() {
+            return _waitHand;
+        }
+        
+        /**
+         * 文字列に変換
+         * 
+         * @return 変換結果。
+         */
+        @Override
+        public String toString() {
+            return _notation;
+        }
+        
+        
+        
+        /**
+         * 所持数配列を雀牌リストに変換
+         * 
+         * @param count 所持数配列。
+         * @return 雀牌リスト。
+         */
+        private static List<JanPai> toJanPaiList(final int[] count) {
+            final List<JanPai> resultList = new ArrayList<JanPai>();
+            for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+                for (int j = 0; j < count[i]; j++) {
+                    resultList.add(CountCheckUtil.getJanPai(i));
+                }
+            }
+            return resultList;
+        }
+        
+        
+        
+        /**
+         * 表記
+         */
+        private final String _notation;
+        
+        /**
+         * 面前手牌の所持数配列
+         */
+        private final int[] _count;
+        
+        /**
+         * 手牌
+         */
+        private final Hand _hand;
+        
+        /**
+         * 見えている牌の所持数配列
+         */
+        private final int[] _visible;
+        
+        /**
+         * 待ち判定用の所持数配列
+         */
+        private final int[] _waitCount;
+        
+        /**
+         * 待ち判定用の手牌
+         */
+        private final Hand _waitHand;
+    }
+    
+}
@@ -0,0 +1,166 @@
+/**
+ * AnalysisExecutor.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp;
+
+import android.os.Process;
+
+
+
+/**
+ * 解析用実行スレッド
+ * 
+ *  ※常駐する1本のスレッドで解析要求を順に実行する (手牌の更新毎にスレッドを生成しない)。
+ *  ※待機できる要求は最新の1件のみとし、新しい要求が来た時点で古い要求は開始前に破棄し、実行中ならば取り消す。
+ *  ※UI スレッドと競合しないよう、バックグラウンド優先度で実行する。
+ */
+public final class AnalysisExecutor {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private AnalysisExecutor() {
+        _thread = new Thread(new ExecuteLoop(), "AnalysisExecutor");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+    
+    
+    
+    /**
+     * インスタンスを取得
+     * 
+     * @return インスタンス。
+     */
+    public static AnalysisExecutor getInstance() {
+        return INSTANCE;
+    }
+    
+    
+    
+    /**
+     * 解析要求を投入
+     * 
+     *  ※待機中・実行中の要求は取り消す。
+     * 
+     * @param request 解析要求。
+     */
+    public void submit(final AnalysisRequest request) {
+        if (request == null) {
+            throw new NullPointerException("Analysis request is null.");
+        }
+        
+        synchronized (_EXECUTOR_LOCK) {
+            if (_pending != null) {
+                _pending.cancel();
+            }
+            if (_running != null) {
+                _running.cancel();
+            }
+            _pending = request;
+            _EXECUTOR_LOCK.notifyAll();
+        }
+    }
+    
+    
+    
+    /**
+     * 実行中ならば割り込む
+     * 
+     * @param request 解析要求。
+     */
+    void interruptIfRunning(final AnalysisRequest request) {
+        synchronized (_EXECUTOR_LOCK) {
+            if (_running == request) {
+                _thread.interrupt();
+            }
+        }
+    }
+    
+    
+    
+    /**
+     * 次の解析要求を取得 (投入まで待機)
+     * 
+     * @return 解析要求。
+     */
+    private AnalysisRequest take() {
+        synchronized (_EXECUTOR_LOCK) {
+            _running = null;
+            while (_pending == null) {
+                try {
+                    _EXECUTOR_LOCK.wait();
+                }
+                catch (final InterruptedException e) {
+                    // 完了直後の要求を取り消した場合の割り込みは無視する
+                }
+            }
+            _running = _pending;
+            _pending = null;
+            
+            // 前の要求への割り込みを持ち越さない
+            Thread.interrupted();
+            return _running;
+        }
+    }
+    
+    
+    
+    /**
+     * 自分自身のインスタンス
+     */
+    private static final AnalysisExecutor INSTANCE = new AnalysisExecutor();
+    
+    
+    
+    /**
+     * ロックオブジェクト
+     */
+    private final Object _EXECUTOR_LOCK = new Object();
+    
+    
+    
+    /**
+     * 実行スレッド
+     */
+    private final Thread _thread;
+    
+    /**
+     * 待機中の解析要求
+     */
+    private AnalysisRequest _pending = null;
+    
+    /**
+     * 実行中の解析要求
+     */
+    private AnalysisRequest _running = null;
+    
+    
+    
+    /**
+     * 実行ループ
+     */
+    private final class ExecuteLoop implements Runnable {
+        
+        /**
+         * コンストラクタ
+         */
+        public ExecuteLoop() {
+        }
+        
+        /**
+         * 処理を実行
+         */
+        public void run() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            while (true) {
+                take().run();
+            }
+        }
+    }
+    
+}
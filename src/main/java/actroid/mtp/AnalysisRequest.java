@@ -0,0 +1,457 @@
+/**
+ * AnalysisRequest.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+package actroid.mtp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import actroid.mtp.check.AnalysisCache;
+import actroid.mtp.check.AnalysisResult;
+import actroid.mtp.check.AnalysisWorkerPool;
+import actroid.mtp.check.CanonicalHand;
+import actroid.mtp.check.CountCheckUtil;
+import actroid.mtp.check.HandCanonicalizer;
+import actroid.mtp.check.HandState;
+import actroid.mtp.check.ScoreUtil;
+import actroid.mtp.check.ShantenAnalyzer;
+import actroid.mtp.check.ShantenPattern;
+import actroid.mtp.check.TenpaiAnalyzer;
+import actroid.mtp.check.TenpaiPatternListener;
+import actroid.mtp.check.VisibleTileTracker;
+import actroid.mtp.check.WaitPattern;
+import wiz.project.jan.Field;
+import wiz.project.jan.Hand;
+import wiz.project.jan.JanPai;
+import wiz.project.jan.MenTsu;
+import wiz.project.jan.TenpaiPattern;
+import wiz.project.jan.Wind;
+
+
+
+
+/**
+ * 聴牌パターン解析要求
+ * 
+ *  ※解析用実行スレッド (AnalysisExecutor) で実行し、完了は Future と同様に待ち合わせる。
+ *  ※高速化のため、手牌は種類毎の分解結果を保持する状態 (HandState) で扱い、
+ *    捨て牌候補毎に複写して増減する (捨て牌の種類のみ再計算)。
+ *  ※捨て牌候補は解析用ワーカープールで並列に処理し、結果は捨て牌の順に並べる。
+ *    先行解析の要求は、通常の解析と競合しないよう先行解析用のワーカープール (最低優先度) で処理する。
+ *  ※聴牌した捨て牌は、和了牌毎の待ちの形 (和了形の分解) も同じ解析で求める。
+ *  ※聴牌しない捨て牌も含め、全ての捨て牌候補について向聴数と有効牌を求める。
+ *  ※取り消された場合は未完了の候補を取り消して終了する。
+ *  ※解析済みの手牌 (面前手牌と確定面子が同じ) は、解析結果キャッシュから結果を取得する。
+ *    キャッシュは正規化した手牌で引き、結果は元の手牌の牌に置換して使う。
+ *    先行解析の要求はキャッシュを参照・登録しない (ヒット率の統計にも含めない)。
+ *  ※聴牌パターンは求まった時点で配信 (AnalysisStream) し、全候補の完了を待たずに表示できるようにする。
+ *  ※和了牌毎の得点は、待ちの形と同じ分解から求める (ワーカー上で配信前に計算)。
+ *    得点は字牌の入れ替えで変わるため、キャッシュには保持せず元の手牌で計算する。
+ *  ※場風は場の風 (Field) を用いる。自風は入力手段が無いため子 (MTPConst.PLAYER_WIND) とし、結果画面にも表示する。
+ *  ※期待枚数には、手牌に加えて要求生成時点で見えている牌 (VisibleTileTracker) を含める。
+ *    見えている牌は正規化で入れ替えられないため、解析・キャッシュは手牌のみで期待枚数を求め、
+ *    見えている牌は配信・結果の反映時に期待枚数から除く (待ちが枯れた捨て牌は除く)。
+ */
+public final class AnalysisRequest implements Runnable {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param hand 手牌。
+     */
+    public AnalysisRequest(final Hand hand) {
+        this(hand, false);
+    }
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param hand 手牌。
+     * @param speculative 先行解析か (先行解析用ワーカープールで実行し、キャッシュを使わない)。
+     */
+    public AnalysisRequest(final Hand hand, final boolean speculative) {
+        this(hand, new HandState(CountCheckUtil.convertJanPaiMap(hand.getMenZenMap())), speculative);
+    }
+    
+    /**
+     * コンストラクタ
+     * 
+     *  ※直前の手牌から差分更新した状態を渡すことで、変化していない種類の分解結果を使い回す。
+     * 
+     * @param hand 手牌。
+     * @param state 面前手牌の状態 (参照のみ行い、変更しない)。
+     */
+    public AnalysisRequest(final Hand hand, final HandState state) {
+        this(hand, state, false);
+    }
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param hand 手牌。
+     * @param state 面前手牌の状態 (参照のみ行い、変更しない)。
+     * @param speculative 先行解析か (先行解析用ワーカープールで実行し、キャッシュを使わない)。
+     */
+    private AnalysisRequest(final Hand hand, final HandState state, final boolean speculative) {
+        if (hand == null) {
+            throw new NullPointerException("Hand is null.");
+        }
+        if (state == null) {
+            throw new NullPointerException("Hand state is null.");
+        }
+        _hand = hand;
+        _state = state;
+        _completed = new HandState(state).isComplete();
+        _fieldWind = Field.getInstance().getWind();
+        _visibleCount = VisibleTileTracker.getInstance().getCountArray();
+        _speculative = speculative;
+        _pool = speculative ? AnalysisWorkerPool.getIdleInstance() : AnalysisWorkerPool.getInstance();
+    }
+    
+    
+    
+    /**
+     * 取り消し
+     * 
+     *  ※開始前ならば実行されず、実行中ならば未完了の候補を取り消して終了する。
+     * 
+     * @return 取り消したか (完了済みならばfalse)。
+     */
+    public boolean cancel() {
+        synchronized (_DONE_LOCK) {
+            if (_result != null) {
+                return false;
+            }
+            _cancelled = true;
+            _DONE_LOCK.notifyAll();
+        }
+        AnalysisExecutor.getInstance().interruptIfRunning(this);
+        return true;
+    }
+    
+    /**
+     * 解析結果を取得 (完了まで待機)
+     * 
+     * @return 解析結果。
+     * @throws InterruptedException 待機中に割り込まれた。
+     * @throws CancellationException 取り消された。
+     */
+    public AnalysisResult get() throws InterruptedException {
+        synchronized (_DONE_LOCK) {
+            while (!isDone()) {
+                _DONE_LOCK.wait();
+            }
+            return getDoneResult();
+        }
+    }
+    
+    /**
+     * 解析結果を取得 (完了まで待機)
+     * 
+     * @param timeout 待機時間。
+     * @param unit 待機時間の単位。
+     * @return 解析結果。
+     * @throws InterruptedException 待機中に割り込まれた。
+     * @throws TimeoutException 待機時間内に完了しなかった。
+     * @throws CancellationException 取り消された。
+     */
+    public AnalysisResult get(final long timeout, final TimeUnit unit) throws InterruptedException, TimeoutException {
+        final long limit = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (_DONE_LOCK) {
+            while (!isDone()) {
+                final long rest = limit - System.nanoTime();
+                if (rest <= 0) {
+                    throw new TimeoutException("Analysis is not finished.");
+                }
+                TimeUnit.NANOSECONDS.timedWait(_DONE_LOCK, rest);
+            }
+            return getDoneResult();
+        }
+    }
+    
+    /**
+     * 解析結果を取得 (待機しない)
+     * 
+     * @return 解析結果。未完了または取り消された場合はnull。
+     */
+    public AnalysisResult getResult() {
+        return _result;
+    }
+    
+    /**
+     * 解析結果の配信を取得
+     * 
+     * @return 解析結果の配信。
+     */
+    public AnalysisStream getStream() {
+        return _stream;
+    }
+    
+    /**
+     * 取り消されたか
+     * 
+     * @return 判定結果。
+     */
+    public boolean isCancelled() {
+        return _cancelled;
+    }
+    
+    /**
+     * 和了済みか
+     * 
+     * @return 判定結果。
+     */
+    public boolean isCompleted() {
+        return _completed;
+    }
+    
+    /**
+     * 完了したか (取り消された場合を含む)
+     * 
+     * @return 判定結果。
+     */
+    public boolean isDone() {
+        return _result != null || _cancelled;
+    }
+    
+    /**
+     * 処理を実行
+     */
+    public void run() {
+        if (isDone()) {
+            return;
+        }
+        
+        // 同じ手牌 (数牌の種類・字牌を入れ替えたものを含む) を解析済みならば結果を使い回す
+        // キャッシュは手牌のみで期待枚数を求めた結果とし、手牌以外の見えている牌は取得後に除く
+        // 先行解析は仮定の手牌のため、実際に判定した手牌の結果を追い出さないようキャッシュを使わない
+        final CanonicalHand canonical =
+            HandCanonicalizer.canonicalize(CountCheckUtil.convertJanPaiMap(_hand.getMenZenMap()), _hand.getFixedMenTsuList());
+        final AnalysisResult cached = _speculative ? null : AnalysisCache.getInstance().get(canonical.getKey());
+        if (cached != null) {
+            final AnalysisResult original = canonical.toOriginal(cached).excludeVisible(_visibleCount);
+            final List<WaitPattern> waitPatternList = new ArrayList<WaitPattern>();
+            for (final TenpaiPattern pattern : original.getTenpaiPatternList()) {
+                final List<WaitPattern> scoredList = score(original.getWaitPatternList(pattern.getDiscard()));
+                waitPatternList.addAll(scoredList);
+                _stream.onTenpaiPattern(pattern, Collections.unmodifiableList(scoredList));
+            }
+            setResult(new AnalysisResult(original.getTenpaiPatternList(),
+                                         waitPatternList,
+                                         original.getShantenPatternList(),
+                                         original.isCompleted()));
+            return;
+        }
+        
+        final HandState state = new HandState(_state);
+        final int[] visible = CountCheckUtil.convertJanPaiMap(_hand.getAllJanPaiMap());
+        final int fixedMenTsuCount = _hand.getFixedMenTsuCount();
+        
+        // 中断可能にしておく
+        if (_cancelled) {
+            return;
+        }
+        
+        // ワーカーが複写する前に、全種類の分解結果を揃えておく
+        state.refresh();
+        final AnalysisResult result;
+        try {
+            final ScoringListener listener = new ScoringListener();
+            final List<TenpaiPattern> patternList = TenpaiAnalyzer.getTenpaiPatternList(state, visible, listener, null, _pool);
+            final List<ShantenPattern> shantenPatternList = ShantenAnalyzer.getShantenPatternList(state, visible, fixedMenTsuCount, _pool);
+            result = new AnalysisResult(patternList, listener.getWaitPatternList(patternList), shantenPatternList, _completed);
+        }
+        catch (final InterruptedException e) {
+            // 取り消された
+            return;
+        }
+        if (!_speculative) {
+            AnalysisCache.getInstance().put(canonical.getKey(), canonical.toCanonical(result));
+        }
+        setResult(result.excludeVisible(_visibleCount));
+    }
+    
+    
+    
+    /**
+     * 完了済みの解析結果を取得
+     * 
+     * @return 解析結果。
+     * @throws CancellationException 取り消された。
+     */
+    private AnalysisResult getDoneResult() {
+        if (_result == null) {
+            throw new CancellationException("Analysis is cancelled.");
+        }
+        return _result;
+    }
+    
+    /**
+     * 待ちパターンに得点を設定
+     * 
+     * @param waitPatternList 1つの捨て牌に対する待ちパターンリスト。
+     * @return 得点を設定した待ちパターンリスト。
+     */
+    private List<WaitPattern> score(final List<WaitPattern> waitPatternList) {
+        final List<WaitPattern> resultList = new ArrayList<WaitPattern>(waitPatternList.size());
+        if (waitPatternList.isEmpty()) {
+            return resultList;
+        }
+        final int[] count = CountCheckUtil.convertJanPaiMap(_hand.getMenZenMap());
+        count[waitPatternList.get(0).getDiscard().ordinal()]--;
+        final List<MenTsu> fixedMenTsuList = _hand.getFixedMenTsuList();
+        for (final WaitPattern pattern : waitPatternList) {
+            resultList.add(ScoreUtil.getScoredWaitPattern(pattern, count, fixedMenTsuList, _fieldWind, MTPConst.PLAYER_WIND));
+        }
+        return resultList;
+    }
+    
+    /**
+     * 解析結果を反映
+     * 
+     * @param result 解析結果。
+     */
+    private void setResult(final AnalysisResult result) {
+        synchronized (_DONE_LOCK) {
+            if (_cancelled) {
+                return;
+            }
+            _result = result;
+            _DONE_LOCK.notifyAll();
+        }
+        _stream.finish(result);
+    }
+    
+    
+    
+    /**
+     * ロックオブジェクト (完了通知)
+     */
+    private final Object _DONE_LOCK = new Object();
+    
+    
+    
+    /**
+     * 手牌
+     */
+    private final Hand _hand;
+    
+    /**
+     * 面前手牌の状態
+     */
+    private final HandState _state;
+    
+    /**
+     * 解析結果の配信
+     */
+    private final AnalysisStream _stream = new AnalysisStream();
+    
+    /**
+     * 和了済みか
+     */
+    private final boolean _completed;
+    
+    /**
+     * 場風
+     */
+    private final Wind _fieldWind;
+    
+    /**
+     * 手牌以外で見えている牌の所持数配列
+     */
+    private final int[] _visibleCount;
+    
+    /**
+     * 先行解析か
+     */
+    private final boolean _speculative;
+    
+    /**
+     * 捨て牌候補を処理するワーカープール
+     */
+    private final AnalysisWorkerPool _pool;
+    
+    /**
+     * 取り消されたか
+     */
+    private volatile boolean _cancelled = false;
+    
+    /**
+     * 解析結果 (未完了ならばnull)
+     */
+    private volatile AnalysisResult _result = null;
+    
+    
+    
+    
+    /**
+     * 得点計算リスナー
+     * 
+     *  ※ワーカーから呼ばれ、待ちパターンに得点を設定してから配信する。
+     *  ※配信する聴牌パターンは見えている牌を除いたものとし、待ちが枯れていれば配信しない。
+     *    得点を設定した待ちパターンは、キャッシュに保持する結果のため配信しない場合も保持する。
+     */
+    private final class ScoringListener implements TenpaiPatternListener {
+        
+        /**
+         * 得点を設定した待ちパターンリストを取得
+         * 
+         * @param patternList 聴牌パターンリスト (捨て牌の順)。
+         * @return 得点を設定した待ちパターンリスト (捨て牌の順)。
+         */
+        public List<WaitPattern> getWaitPatternList(final List<TenpaiPattern> patternList) {
+            final List<WaitPattern> resultList = new ArrayList<WaitPattern>();
+            synchronized (_SCORED_LOCK) {
+                for (final TenpaiPattern pattern : patternList) {
+                    final List<WaitPattern> scoredList = _scoredMap.get(pattern.getDiscard());
+                    if (scoredList != null) {
+                        resultList.addAll(scoredList);
+                    }
+                }
+            }
+            return resultList;
+        }
+        
+        /**
+         * 聴牌パターンを受信
+         * 
+         * @param pattern 聴牌パターン。
+         * @param waitPatternList 待ちパターンリスト。
+         */
+        public void onTenpaiPattern(final TenpaiPattern pattern, final List<WaitPattern> waitPatternList) {
+            final List<WaitPattern> scoredList = score(waitPatternList);
+            synchronized (_SCORED_LOCK) {
+                _scoredMap.put(pattern.getDiscard(), scoredList);
+            }
+            final TenpaiPattern live = AnalysisResult.excludeVisible(pattern, _visibleCount);
+            if (live != null) {
+                _stream.onTenpaiPattern(live, Collections.unmodifiableList(scoredList));
+            }
+        }
+        
+        
+        
+        /**
+         * ロックオブジェクト (得点計算結果)
+         */
+        private final Object _SCORED_LOCK = new Object();
+        
+        
+        
+        /**
+         * 捨て牌毎の得点を設定した待ちパターンリスト
+         */
+        private final Map<JanPai, List<WaitPattern>> _scoredMap = new EnumMap<JanPai, List<WaitPattern>>(JanPai.class);
+        
+    }
+    
+}
@@ -0,0 +1,205 @@
+/**
+ * AnalysisStream.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import actroid.mtp.check.AnalysisResult;
+import actroid.mtp.check.TenpaiPatternListener;
+import actroid.mtp.check.WaitPattern;
+import wiz.project.jan.TenpaiPattern;
+
+
+
+/**
+ * 解析結果の逐次配信
+ * 
+ *  ※解析スレッドは聴牌パターンが求まる毎に配信し、最後に解析結果全体を配信する。
+ *  ※購読開始時には配信済みの内容を先に受け取るため、購読の時期によらず取りこぼさない。
+ *  ※通知は配信元のスレッドで行う。画面の更新は購読側で UI スレッドに移すこと。
+ */
+public final class AnalysisStream implements TenpaiPatternListener {
+    
+    /**
+     * コンストラクタ
+     */
+    public AnalysisStream() {
+    }
+    
+    
+    
+    /**
+     * 現在の配信を取得
+     * 
+     * @return 現在の配信。未設定ならばnull。
+     */
+    public static AnalysisStream getCurrent() {
+        synchronized (_CURRENT_LOCK) {
+            return _current;
+        }
+    }
+    
+    /**
+     * 現在の配信を設定
+     * 
+     * @param stream 現在の配信。
+     */
+    public static void setCurrent(final AnalysisStream stream) {
+        synchronized (_CURRENT_LOCK) {
+            _current = stream;
+        }
+    }
+    
+    
+    
+    /**
+     * 購読を開始
+     * 
+     * @param listener 購読者。
+     */
+    public void addListener(final Listener listener) {
+        if (listener == null) {
+            throw new NullPointerException("Listener is null.");
+        }
+        
+        synchronized (_STREAM_LOCK) {
+            for (int i = 0; i < _patternList.size(); i++) {
+                listener.onTenpaiPattern(_patternList.get(i), _waitPatternListList.get(i));
+            }
+            if (_result != null) {
+                listener.onFinished(_result);
+                return;
+            }
+            _listenerList.add(listener);
+        }
+    }
+    
+    /**
+     * 解析結果全体を配信して終了
+     * 
+     * @param result 解析結果。
+     */
+    public void finish(final AnalysisResult result) {
+        if (result == null) {
+            throw new NullPointerException("Analysis result is null.");
+        }
+        
+        synchronized (_STREAM_LOCK) {
+            if (_result != null) {
+                return;
+            }
+            _result = result;
+            for (final Listener listener : _listenerList) {
+                listener.onFinished(result);
+            }
+            _listenerList.clear();
+        }
+    }
+    
+    /**
+     * 聴牌パターンを配信
+     * 
+     * @param pattern 聴牌パターン。
+     * @param waitPatternList 待ちパターンリスト。
+     */
+    public void onTenpaiPattern(final TenpaiPattern pattern, final List<WaitPattern> waitPatternList) {
+        if (pattern == null) {
+            throw new NullPointerException("Tenpai pattern is null.");
+        }
+        if (waitPatternList == null) {
+            throw new NullPointerException("Wait pattern list is null.");
+        }
+        
+        synchronized (_STREAM_LOCK) {
+            if (_result != null) {
+                return;
+            }
+            _patternList.add(pattern);
+            _waitPatternListList.add(waitPatternList);
+            for (final Listener listener : _listenerList) {
+                listener.onTenpaiPattern(pattern, waitPatternList);
+            }
+        }
+    }
+    
+    /**
+     * 購読を終了
+     * 
+     * @param listener 購読者。
+     */
+    public void removeListener(final Listener listener) {
+        synchronized (_STREAM_LOCK) {
+            _listenerList.remove(listener);
+        }
+    }
+    
+    
+    
+    /**
+     * ロックオブジェクト (現在の配信)
+     */
+    private static final Object _CURRENT_LOCK = new Object();
+    
+    /**
+     * 現在の配信
+     */
+    private static AnalysisStream _current = null;
+    
+    
+    
+    /**
+     * ロックオブジェクト (配信内容)
+     */
+    private final Object _STREAM_LOCK = new Object();
+    
+    /**
+     * 配信済みの聴牌パターンリスト
+     */
+    private final List<TenpaiPattern> _patternList = new ArrayList<TenpaiPattern>();
+    
+    /**
+     * 配信済みの待ちパターンリスト (聴牌パターン毎)
+     */
+    private final List<List<WaitPattern>> _waitPatternListList = new ArrayList<List<WaitPattern>>();
+    
+    /**
+     * 購読者リスト
+     */
+    private final List<Listener> _listenerList = new ArrayList<Listener>();
+    
+    /**
+     * 解析結果 (終了前はnull)
+     */
+    private AnalysisResult _result = null;
+    
+    
+    
+    /**
+     * 購読者
+     */
+    public interface Listener {
+        
+        /**
+         * 聴牌パターンを受け取った時の処理
+         * 
+         * @param pattern 聴牌パターン。
+         * @param waitPatternList 待ちパターンリスト (和了牌の順)。
+         */
+        public void onTenpaiPattern(final TenpaiPattern pattern, final List<WaitPattern> waitPatternList);
+        
+        /**
+         * 解析が終了した時の処理
+         * 
+         * @param result 解析結果。
+         */
+        public void onFinished(final AnalysisResult result);
+        
+    }
+    
+}
@@ -8,19 +8,12 @@
 package actroid.mtp;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
-import java.util.TreeMap;
 
 import android.app.Activity;
 import android.graphics.Bitmap;
-import android.view.View;
-import android.view.ViewGroup.LayoutParams;
-import android.widget.ImageView;
-import android.widget.LinearLayout;
-import android.widget.RelativeLayout;
 import wiz.project.jan.Hand;
 import wiz.project.jan.JanPai;
 import wiz.project.jan.MenTsu;
@@ -124,6 +117,17 @@ public final class HandManager extends Observable {
         }
     }
     
+    /**
+     * 手牌を取得
+     * 
+     * @return 手牌 (複製)。
+     */
+    public Hand getHand() {
+        synchronized (_HAND_LOCK) {
+            return _hand.clone();
+        }
+    }
+    
     /**
      * 指定牌の所持数を取得
      * 
@@ -172,11 +176,11 @@ public final class HandManager extends Observable {
     /**
      * 牌裏か
      * 
-     * @param viewID ビューID。
+     * @param index 手牌ビューの枠の位置。
      * @return 判定結果。
      */
-    public boolean isBlankJanPai(final int viewID) {
-        return !_handViewIDMap.containsKey(viewID);
+    public boolean isBlankJanPai(final int index) {
+        return index < 0 || _handSlotList.size() <= index || _handSlotList.get(index) == null;
     }
     
     /**
@@ -202,17 +206,17 @@ public final class HandManager extends Observable {
     }
     
     /**
-     * 指定ビューの牌を削除
+     * 手牌ビューの指定枠の牌を削除
      * 
-     * @param viewID ビューID。
+     * @param index 手牌ビューの枠の位置。
      */
-    public void removeJanPai(final int viewID) {
-        if (!_handViewIDMap.containsKey(viewID)) {
-            throw new IllegalArgumentException("Invalid view ID - " + viewID);
+    public void removeJanPai(final int index) {
+        if (isBlankJanPai(index)) {
+            throw new IllegalArgumentException("Invalid hand index - " + index);
         }
         
         synchronized (_HAND_LOCK) {
-            _hand.removeJanPai(_handViewIDMap.get(viewID));
+            _hand.removeJanPai(_handSlotList.get(index));
         }
     }
     
@@ -222,12 +226,12 @@ public final class HandManager extends Observable {
     public void updateView() {
         synchronized (_HAND_LOCK) {
             synchronized (_PARENT_LOCK) {
-                final RelativeLayout handView =
-                    (RelativeLayout)_parent.findViewById(R.id.main_hand_layout);
+                final HandStripView handView =
+                    (HandStripView)_parent.findViewById(R.id.main_hand_layout);
                 updateHandView(handView);
                 
-                final RelativeLayout fixedMenTsuView =
-                    (RelativeLayout)_parent.findViewById(R.id.main_fixed_layout);
+                final HandStripView fixedMenTsuView =
+                    (HandStripView)_parent.findViewById(R.id.main_fixed_layout);
                 updateFixedMenTsuView(fixedMenTsuView);
             }
             
@@ -237,6 +241,23 @@ public final class HandManager extends Observable {
         clearChanged();
     }
     
+    /**
+     * 手牌を設定
+     * 
+     *  ※面前手牌と確定面子をまとめて置き換える。ビューの更新は呼び出し側で1度だけ行うこと。
+     * 
+     * @param hand 手牌。
+     */
+    public void setHand(final Hand hand) {
+        if (hand == null) {
+            throw new NullPointerException("Hand is null.");
+        }
+        
+        synchronized (_HAND_LOCK) {
+            _hand = hand.clone();
+        }
+    }
+    
     /**
      * 親画面を設定
      * 
@@ -254,42 +275,6 @@ public final class HandManager extends Observable {
     
     
     
-    /**
-     * 確定面子ビューのパラメータを生成
-     * 
-     * @param baseID 起点ID。
-     * @return 確定面子ビューのパラメータ。
-     */
-    private RelativeLayout.LayoutParams createFixedMenTsuViewParam(final int baseID) {
-        final RelativeLayout.LayoutParams param =
-            new RelativeLayout.LayoutParams(LayoutParams.WRAP_CONTENT,
-                                            LayoutParams.WRAP_CONTENT);
-        param.addRule(RelativeLayout.LEFT_OF, baseID);
-        param.addRule(RelativeLayout.ALIGN_BOTTOM, baseID);
-        return param;
-    }
-    
-    /**
-     * 手牌ビューのパラメータを生成
-     * 
-     * @param handID 手牌ID。
-     * @return 手牌ビューのパラメータ。
-     */
-    private RelativeLayout.LayoutParams createHandViewParam(final int handID) {
-        final int index = handID - MTPConst.HAND_VIEW_MAIN_BASE_ID;
-        if (index < 0) {
-            throw new IllegalArgumentException("Invalid hand ID - " + handID);
-        }
-        
-        final RelativeLayout.LayoutParams param =
-            new RelativeLayout.LayoutParams(LayoutParams.WRAP_CONTENT,
-                                            LayoutParams.WRAP_CONTENT);
-        if (index != 0) {
-            param.addRule(RelativeLayout.RIGHT_OF, handID - 1);
-        }
-        return param;
-    }
-    
     /**
      * 雀牌ビュー生成オブジェクトを生成
      * 
@@ -300,86 +285,95 @@ public final class HandManager extends Observable {
     }
     
     /**
-     * 面子ビューの基点を生成
+     * 手牌の枠の画像を取得
      * 
-     * @return 面子ビューの基点。
+     * @param pai 雀牌。空き枠ならばnull。
+     * @return 手牌画像。空き枠ならば牌裏画像。
      */
-    private LinearLayout createMenTsuViewBase() {
-        final JanPaiViewFactory factory = createJanPaiViewFactory();
-        final RelativeLayout.LayoutParams layoutParam =
-            new RelativeLayout.LayoutParams(LayoutParams.WRAP_CONTENT,
-                                            LayoutParams.WRAP_CONTENT);
-        layoutParam.addRule(RelativeLayout.ALIGN_PARENT_RIGHT, RelativeLayout.TRUE);
-        final int viewID = MTPConst.FIXED_VIEW_MAIN_BASE_ID - 1;
-        return factory.createMenTsuMinHeightDummyView(viewID, layoutParam);
+    private Bitmap getHandImage(final JanPai pai) {
+        if (pai == null) {
+            return ImageResourceManager.getInstance().getBlankImage();
+        }
+        return ImageResourceManager.getInstance().getImage(pai);
     }
     
     /**
      * 確定面子ビュー更新の中核処理
      * 
+     *  ※前回表示した確定面子リストと比較し、最初に異なる面子以降の項目のみを差し替える。
+     *  ※画面が再生成された場合は全て作り直す。
+     * 
      * @param fixedMenTsuView 確定面子ビュー。
      */
-    private void updateFixedMenTsuView(final RelativeLayout fixedMenTsuView) {
-        fixedMenTsuView.removeAllViews();
-        
-        final JanPaiViewFactory factory = createJanPaiViewFactory();
-        final List<LinearLayout> viewList = new ArrayList<LinearLayout>();
-        
-        // 常にカン牌と同じ高さのビュー領域を確保するためのダミー
-        final LinearLayout baseView = createMenTsuViewBase();
-        viewList.add(baseView);
+    private void updateFixedMenTsuView(final HandStripView fixedMenTsuView) {
+        if (fixedMenTsuView != _fixedMenTsuView) {
+            fixedMenTsuView.clearItem();
+            _fixedMenTsuView = fixedMenTsuView;
+            _fixedMenTsuList.clear();
+            
+            // 常にカン牌と同じ高さのビュー領域を確保し、先頭の面子を右端に置く
+            fixedMenTsuView.setMinimumHeight(ImageResourceManager.getInstance().getStackImageHeightDummy().getHeight());
+            fixedMenTsuView.setItemSpacing(FIXED_MEN_TSU_SPACING);
+            fixedMenTsuView.setRightAlign(true);
+            fixedMenTsuView.setOnItemClickListener(_fixedMenTsuButtonListener);
+        }
         
-        int count = 0;
-        for (final MenTsu menTsu : _hand.getFixedMenTsuList()) {
-            final int menTsuID = MTPConst.FIXED_VIEW_MAIN_BASE_ID + count;
-            final int baseID = (count == 0) ? baseView.getId() : (menTsuID - 1);
-            final RelativeLayout.LayoutParams layoutParam = createFixedMenTsuViewParam(baseID);
-            final LinearLayout view = factory.createMenTsuView(menTsu, menTsuID, layoutParam);
-            view.setPadding(10, 0, 0, 0);
-            view.setClickable(true);
-            view.setOnClickListener(new FixedMenTsuButtonListener());
-            viewList.add(view);
-            count++;
+        final List<MenTsu> menTsuList = _hand.getFixedMenTsuList();
+        final int oldSize = _fixedMenTsuList.size();
+        final int newSize = menTsuList.size();
+        int sameCount = 0;
+        while (sameCount < oldSize && sameCount < newSize && _fixedMenTsuList.get(sameCount).equals(menTsuList.get(sameCount))) {
+            sameCount++;
         }
+        if (sameCount == oldSize && sameCount == newSize) {
+            return;
+        }
+        
+        fixedMenTsuView.removeItemFrom(sameCount);
+        _fixedMenTsuList.subList(sameCount, oldSize).clear();
         
-        for (final LinearLayout view : viewList) {
-            fixedMenTsuView.addView(view);
+        final JanPaiViewFactory factory = createJanPaiViewFactory();
+        for (int count = sameCount; count < newSize; count++) {
+            final MenTsu menTsu = menTsuList.get(count);
+            fixedMenTsuView.addItem(factory.getMenTsuImageList(menTsu));
+            _fixedMenTsuList.add(menTsu);
         }
     }
     
     /**
      * 手牌ビュー更新の中核処理
      * 
+     *  ※前回表示した枠毎の牌と比較し、変化した枠の画像のみを差し替える (大きさが変わらなければ再描画のみ)。
+     *  ※上限枚数の変化 (副露・副露の取り消し) に合わせて、末尾の枠のみを追加・削除する。
+     *  ※画面が再生成された場合は全て作り直す。
+     * 
      * @param handView 手牌ビュー。
      */
-    private void updateHandView(final RelativeLayout handView) {
-        handView.removeAllViews();
-        
-        final JanPaiViewFactory factory = createJanPaiViewFactory();
-        final List<ImageView> viewList = new ArrayList<ImageView>();
-        int count = 0;
-        for (final JanPai pai : _hand.getMenZenList()) {
-            final int handID = MTPConst.HAND_VIEW_MAIN_BASE_ID + count;
-            final RelativeLayout.LayoutParams layoutParam = createHandViewParam(handID);
-            final Bitmap image = ImageResourceManager.getInstance().getImage(pai);
-            final ImageView view = factory.createJanPaiView(handID, image, layoutParam);
-            view.setClickable(true);
-            view.setOnClickListener(new HandButtonListener());
-            viewList.add(view);
-            _handViewIDMap.put(view.getId(), pai);
-            count++;
+    private void updateHandView(final HandStripView handView) {
+        if (handView != _handView) {
+            handView.clearItem();
+            _handView = handView;
+            _handSlotList.clear();
+            handView.setOnItemClickListener(_handButtonListener);
         }
         
+        final List<JanPai> menZenList = _hand.getMenZenList();
         final int limitSize = _hand.getLimitSize();
-        for (; count < limitSize; count++) {
-            final int handID = MTPConst.HAND_VIEW_MAIN_BASE_ID + count;
-            final RelativeLayout.LayoutParams layoutParam = createHandViewParam(handID);
-            final ImageView view = factory.createBlankJanPaiView(handID, layoutParam);
-            viewList.add(view);
+        if (_handSlotList.size() > limitSize) {
+            handView.removeItemFrom(limitSize);
+            _handSlotList.subList(limitSize, _handSlotList.size()).clear();
         }
         
-        for (final ImageView view : viewList) {
-            handView.addView(view);
+        for (int count = 0; count < limitSize; count++) {
+            final JanPai pai = (count < menZenList.size()) ? menZenList.get(count) : null;
+            if (count >= _handSlotList.size()) {
+                handView.addItem(getHandImage(pai));
+                _handSlotList.add(pai);
+            }
+            else if (_handSlotList.get(count) != pai) {
+                handView.setItem(count, getHandImage(pai));
+                _handSlotList.set(count, pai);
+            }
         }
     }
     
@@ -390,6 +384,11 @@ public final class HandManager extends Observable {
      */
     private static final HandManager INSTANCE = new HandManager();
     
+    /**
+     * 確定面子の間隔 (ピクセル)
+     */
+    private static final int FIXED_MEN_TSU_SPACING = 10;
+    
     
     
     /**
@@ -415,17 +414,41 @@ public final class HandManager extends Observable {
     private Hand _hand = new Hand();
     
     /**
-     * 手牌ビューIDマップ
+     * 前回更新した手牌ビュー (未更新ならばnull)
+     */
+    private HandStripView _handView = null;
+    
+    /**
+     * 手牌ビューの枠毎に表示中の牌 (空き枠はnull)
+     */
+    private final List<JanPai> _handSlotList = new ArrayList<JanPai>();
+    
+    /**
+     * 前回更新した確定面子ビュー (未更新ならばnull)
+     */
+    private HandStripView _fixedMenTsuView = null;
+    
+    /**
+     * 確定面子ビューに表示中の確定面子リスト
+     */
+    private final List<MenTsu> _fixedMenTsuList = new ArrayList<MenTsu>();
+    
+    /**
+     * 手牌ボタンリスナー
+     */
+    private final HandStripView.OnItemClickListener _handButtonListener = new HandButtonListener();
+    
+    /**
+     * 確定面子ボタンリスナー
      */
-    private Map<Integer, JanPai> _handViewIDMap =
-        Collections.synchronizedSortedMap(new TreeMap<Integer, JanPai>());
+    private final HandStripView.OnItemClickListener _fixedMenTsuButtonListener = new FixedMenTsuButtonListener();
     
     
     
     /**
      * 手牌ボタンリスナー
      */
-    private final class HandButtonListener implements View.OnClickListener {
+    private final class HandButtonListener implements HandStripView.OnItemClickListener {
         
         /**
          * コンストラクタ
@@ -436,12 +459,11 @@ public final class HandManager extends Observable {
         /**
          * クリック時の処理
          */
-        public void onClick(final View view) {
-            final int viewID = view.getId();
-            if (HandManager.getInstance().isBlankJanPai(viewID)) {
+        public void onItemClick(final HandStripView view, final int index) {
+            if (HandManager.getInstance().isBlankJanPai(index)) {
                 return;
             }
-            HandManager.getInstance().removeJanPai(viewID);
+            HandManager.getInstance().removeJanPai(index);
             HandManager.getInstance().updateView();
         }
     }
@@ -449,7 +471,7 @@ public final class HandManager extends Observable {
     /**
      * 確定面子ボタンリスナー
      */
-    private final class FixedMenTsuButtonListener implements View.OnClickListener {
+    private final class FixedMenTsuButtonListener implements HandStripView.OnItemClickListener {
         
         /**
          * コンストラクタ
@@ -460,9 +482,7 @@ public final class HandManager extends Observable {
         /**
          * クリック時の処理
          */
-        public void onClick(final View view) {
-            final int viewID = view.getId();
-            final int index = viewID - MTPConst.FIXED_VIEW_MAIN_BASE_ID;
+        public void onItemClick(final HandStripView view, final int index) {
             HandManager.getInstance().removeFixedMenTsu(index);
             HandManager.getInstance().updateView();
         }
@@ -0,0 +1,359 @@
+/**
+ * HandStripView.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+
+
+/**
+ * 牌列ビュー
+ * 
+ *  ※牌1枚、または面子1つを1項目とし、全項目の画像を1つの Canvas に横一列で描画する (項目毎のビューを持たない)。
+ *  ※各項目は下端を揃えて描画し、項目の左側に項目間隔を空ける。
+ *  ※右詰めの場合は、先頭の項目を右端に置き、以降の項目を左へ並べる (確定面子の並び)。
+ *  ※クリックされた項目は x 座標から求めて通知する。
+ *  ※項目の差し替えで全体の大きさが変わらない場合は、再レイアウトせず再描画のみ行う。
+ */
+public final class HandStripView extends View {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param context コンテキスト。
+     */
+    public HandStripView(final Context context) {
+        super(context);
+    }
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param context コンテキスト。
+     * @param attrs 属性。
+     */
+    public HandStripView(final Context context, final AttributeSet attrs) {
+        super(context, attrs);
+    }
+    
+    
+    
+    /**
+     * 項目を追加
+     * 
+     * @param imageList 項目を構成する画像 (左から順)。
+     */
+    public void addItem(final Bitmap... imageList) {
+        checkItem(imageList);
+        _itemList.add(imageList.clone());
+        requestLayout();
+        invalidate();
+    }
+    
+    /**
+     * 全項目を削除
+     */
+    public void clearItem() {
+        if (_itemList.isEmpty()) {
+            return;
+        }
+        _itemList.clear();
+        requestLayout();
+        invalidate();
+    }
+    
+    /**
+     * 項目数を取得
+     * 
+     * @return 項目数。
+     */
+    public int getItemCount() {
+        return _itemList.size();
+    }
+    
+    /**
+     * 指定位置以降の項目を削除
+     * 
+     * @param start 削除する先頭の位置。
+     */
+    public void removeItemFrom(final int start) {
+        if (start < 0 || _itemList.size() < start) {
+            throw new IndexOutOfBoundsException("Invalid item index - " + start);
+        }
+        if (start == _itemList.size()) {
+            return;
+        }
+        _itemList.subList(start, _itemList.size()).clear();
+        requestLayout();
+        invalidate();
+    }
+    
+    /**
+     * 項目を差し替え
+     * 
+     * @param index 位置。
+     * @param imageList 項目を構成する画像 (左から順)。
+     */
+    public void setItem(final int index, final Bitmap... imageList) {
+        checkItem(imageList);
+        final Bitmap[] oldImageList = _itemList.set(index, imageList.clone());
+        if (getItemWidth(oldImageList) != getItemWidth(imageList) || getItemHeight(oldImageList) != getItemHeight(imageList)) {
+            requestLayout();
+        }
+        invalidate();
+    }
+    
+    /**
+     * 項目間隔を設定
+     * 
+     * @param spacing 項目間隔 (ピクセル)。
+     */
+    public void setItemSpacing(final int spacing) {
+        if (spacing < 0) {
+            throw new IllegalArgumentException("Invalid item spacing - " + spacing);
+        }
+        _itemSpacing = spacing;
+        requestLayout();
+        invalidate();
+    }
+    
+    /**
+     * 項目クリックリスナーを設定
+     * 
+     * @param listener 項目クリックリスナー。nullを許可する。
+     */
+    public void setOnItemClickListener(final OnItemClickListener listener) {
+        _listener = listener;
+    }
+    
+    /**
+     * 右詰めとするか設定
+     * 
+     * @param rightAlign 右詰めとするか。
+     */
+    public void setRightAlign(final boolean rightAlign) {
+        _rightAlign = rightAlign;
+        invalidate();
+    }
+    
+    
+    
+    /**
+     * 描画時の処理
+     */
+    @Override
+    protected void onDraw(final Canvas canvas) {
+        super.onDraw(canvas);
+        
+        final int bottom = getHeight() - getPaddingBottom();
+        final int itemCount = _itemList.size();
+        for (int i = 0; i < itemCount; i++) {
+            int x = getItemLeft(i) + _itemSpacing;
+            for (final Bitmap image : _itemList.get(i)) {
+                canvas.drawBitmap(image, x, bottom - image.getHeight(), null);
+                x += image.getWidth();
+            }
+        }
+    }
+    
+    /**
+     * サイズ計測時の処理
+     */
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        int height = 0;
+        for (final Bitmap[] imageList : _itemList) {
+            height = Math.max(height, getItemHeight(imageList));
+        }
+        final int width = getTotalWidth() + getPaddingLeft() + getPaddingRight();
+        height = Math.max(height + getPaddingTop() + getPaddingBottom(), getSuggestedMinimumHeight());
+        setMeasuredDimension(resolveSize(Math.max(width, getSuggestedMinimumWidth()), widthMeasureSpec),
+                             resolveSize(height, heightMeasureSpec));
+    }
+    
+    /**
+     * タッチ時の処理
+     * 
+     *  ※押した項目と離した項目が同じ場合のみクリックとして通知する。
+     */
+    @Override
+    public boolean onTouchEvent(final MotionEvent event) {
+        if (_listener == null) {
+            return super.onTouchEvent(event);
+        }
+        
+        switch (event.getAction()) {
+        case MotionEvent.ACTION_DOWN:
+            _pressedIndex = getItemIndex(event.getX());
+            return _pressedIndex >= 0;
+        case MotionEvent.ACTION_UP:
+            final int index = getItemIndex(event.getX());
+            final boolean clicked = (index >= 0 && index == _pressedIndex);
+            _pressedIndex = -1;
+            if (clicked) {
+                _listener.onItemClick(this, index);
+            }
+            return clicked;
+        case MotionEvent.ACTION_CANCEL:
+            _pressedIndex = -1;
+            return false;
+        default:
+            return _pressedIndex >= 0;
+        }
+    }
+    
+    
+    
+    /**
+     * 項目を確認
+     * 
+     * @param imageList 項目を構成する画像。
+     */
+    private void checkItem(final Bitmap[] imageList) {
+        if (imageList == null) {
+            throw new NullPointerException("Image list is null.");
+        }
+        if (imageList.length == 0) {
+            throw new IllegalArgumentException("Image list is empty.");
+        }
+        for (final Bitmap image : imageList) {
+            if (image == null) {
+                throw new NullPointerException("Source image is null.");
+            }
+        }
+    }
+    
+    /**
+     * 項目の高さを取得
+     * 
+     * @param imageList 項目を構成する画像。
+     * @return 項目の高さ。
+     */
+    private int getItemHeight(final Bitmap[] imageList) {
+        int height = 0;
+        for (final Bitmap image : imageList) {
+            height = Math.max(height, image.getHeight());
+        }
+        return height;
+    }
+    
+    /**
+     * x 座標の項目の位置を取得
+     * 
+     * @param x x 座標。
+     * @return 項目の位置。該当する項目が無ければ-1。
+     */
+    private int getItemIndex(final float x) {
+        final int itemCount = _itemList.size();
+        for (int i = 0; i < itemCount; i++) {
+            final int left = getItemLeft(i);
+            if (left <= x && x < left + _itemSpacing + getItemWidth(_itemList.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 指定位置の項目の左端 (項目間隔を含む) を取得
+     * 
+     * @param index 項目の位置。
+     * @return 左端の x 座標。
+     */
+    private int getItemLeft(final int index) {
+        int offset = 0;
+        for (int i = 0; i < index; i++) {
+            offset += _itemSpacing + getItemWidth(_itemList.get(i));
+        }
+        if (!_rightAlign) {
+            return getPaddingLeft() + offset;
+        }
+        final int right = getWidth() - getPaddingRight();
+        return right - offset - _itemSpacing - getItemWidth(_itemList.get(index));
+    }
+    
+    /**
+     * 項目の幅 (項目間隔を除く) を取得
+     * 
+     * @param imageList 項目を構成する画像。
+     * @return 項目の幅。
+     */
+    private int getItemWidth(final Bitmap[] imageList) {
+        int width = 0;
+        for (final Bitmap image : imageList) {
+            width += image.getWidth();
+        }
+        return width;
+    }
+    
+    /**
+     * 全項目の幅 (項目間隔を含む) を取得
+     * 
+     * @return 全項目の幅。
+     */
+    private int getTotalWidth() {
+        int width = 0;
+        for (final Bitmap[] imageList : _itemList) {
+            width += _itemSpacing + getItemWidth(imageList);
+        }
+        return width;
+    }
+    
+    
+    
+    /**
+     * 項目リスト
+     */
+    private final List<Bitmap[]> _itemList = new ArrayList<Bitmap[]>();
+    
+    /**
+     * 項目間隔 (ピクセル)
+     */
+    private int _itemSpacing = 0;
+    
+    /**
+     * 右詰めとするか
+     */
+    private boolean _rightAlign = false;
+    
+    /**
+     * 押下中の項目の位置 (押下していなければ-1)
+     */
+    private int _pressedIndex = -1;
+    
+    /**
+     * 項目クリックリスナー
+     */
+    private OnItemClickListener _listener = null;
+    
+    
+    
+    /**
+     * 項目クリックリスナー
+     */
+    public interface OnItemClickListener {
+        
+        /**
+         * 項目クリック時の処理
+         * 
+         * @param view 牌列ビュー。
+         * @param index クリックされた項目の位置。
+         */
+        public void onItemClick(final HandStripView view, final int index);
+        
+    }
+    
+}
@@ -16,6 +16,7 @@ import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
 import android.view.Display;
 import android.view.WindowManager;
 
@@ -23,6 +24,10 @@ import android.view.WindowManager;
 
 /**
  * 画像リソース管理
+ * 
+ *  ※牌画像は種類 (通常・オープン・横方向・カン表示用積み牌) 毎に1枚のアトラスにまとめてあり、
+ *    初期化時に種類毎に1度だけ読み込み、区画を切り出して画面に合わせた大きさに変換する。
+ *  ※アトラスは 9列×4行 の区画に JanPai の定義順で並べ、最後の区画を牌裏とする (tools/AtlasGenerator で生成)。
  */
 public final class ImageResourceManager {
     
@@ -30,7 +35,6 @@ public final class ImageResourceManager {
      * コンストラクタを自分自身に限定許可
      */
     private ImageResourceManager() {
-        initializeResourceID();
     }
     
     
@@ -184,47 +188,21 @@ public final class ImageResourceManager {
                 return;
             }
             
-            initializeResourceID();
-            initializeOpenResourceID();
-            initializeRotateResourceID();
-            initializeStackResourceID();
-            
             final Resources core = activity.getResources();
             final double targetWidth = getDisplayShortEdge(activity) / 15.0;
             final double scale = targetWidth / JAN_PAI_WIDTH;
             
-            for (final Map.Entry<JanPai, Integer> entry : _resourceIDMap.entrySet()) {
-                final int resourceID = entry.getValue();
-                final Bitmap resource = readImage(core, resourceID, scale, false);
-                _resourceMap.put(entry.getKey(), resource);
-            }
-            for (final Map.Entry<JanPai, Integer> entry : _openIDMap.entrySet()) {
-                final int resourceID = entry.getValue();
-                final Bitmap resource = readImage(core, resourceID, scale, false);
-                _openMap.put(entry.getKey(), resource);
-            }
-            for (final Map.Entry<JanPai, Integer> entry : _rotateIDMap.entrySet()) {
-                final int resourceID = entry.getValue();
-                final Bitmap resource = readImage(core, resourceID, scale, true);
-                _rotateMap.put(entry.getKey(), resource);
-            }
-            for (final Map.Entry<JanPai, Integer> entry : _stackIDMap.entrySet()) {
-                final int resourceID = entry.getValue();
-                final Bitmap resource = readImage(core, resourceID, scale, true);
-                _stackMap.put(entry.getKey(), resource);
-            }
-            
             synchronized (_BLANK_RESOURCE_LOCK) {
-                _blankResource = readImage(core, R.drawable.ura, scale, false);
+                _blankResource = readAtlas(core, R.drawable.atlas, scale, false, _resourceMap);
             }
             synchronized (_BLANK_OPEN_RESOURCE_LOCK) {
-                _blankOpenResource = readImage(core, R.drawable.ura_open, scale, false);
+                _blankOpenResource = readAtlas(core, R.drawable.atlas_open, scale, false, _openMap);
             }
             synchronized (_BLANK_ROTATE_RESOURCE_LOCK) {
-                _blankRotateResource = readImage(core, R.drawable.ura_yoko, scale, true);
+                _blankRotateResource = readAtlas(core, R.drawable.atlas_yoko, scale, true, _rotateMap);
             }
             synchronized (_BLANK_STACK_RESOURCE_LOCK) {
-                _blankStackResource = readImage(core, R.drawable.ura_kan, scale, true);
+                _blankStackResource = readAtlas(core, R.drawable.atlas_kan, scale, true, _stackMap);
                 final int height = _blankStackResource.getHeight();
                 _stackHeightDummy =
                     Bitmap.createScaledBitmap(_blankStackResource, 1, height, true);
@@ -252,179 +230,52 @@ public final class ImageResourceManager {
     }
     
     /**
-     * オープンリソースIDマッピングを初期化
-     */
-    private void initializeOpenResourceID() {
-        _openIDMap.put(JanPai.MAN_1, R.drawable.m1_open);
-        _openIDMap.put(JanPai.MAN_2, R.drawable.m2_open);
-        _openIDMap.put(JanPai.MAN_3, R.drawable.m3_open);
-        _openIDMap.put(JanPai.MAN_4, R.drawable.m4_open);
-        _openIDMap.put(JanPai.MAN_5, R.drawable.m5_open);
-        _openIDMap.put(JanPai.MAN_6, R.drawable.m6_open);
-        _openIDMap.put(JanPai.MAN_7, R.drawable.m7_open);
-        _openIDMap.put(JanPai.MAN_8, R.drawable.m8_open);
-        _openIDMap.put(JanPai.MAN_9, R.drawable.m9_open);
-        _openIDMap.put(JanPai.PIN_1, R.drawable.p1_open);
-        _openIDMap.put(JanPai.PIN_2, R.drawable.p2_open);
-        _openIDMap.put(JanPai.PIN_3, R.drawable.p3_open);
-        _openIDMap.put(JanPai.PIN_4, R.drawable.p4_open);
-        _openIDMap.put(JanPai.PIN_5, R.drawable.p5_open);
-        _openIDMap.put(JanPai.PIN_6, R.drawable.p6_open);
-        _openIDMap.put(JanPai.PIN_7, R.drawable.p7_open);
-        _openIDMap.put(JanPai.PIN_8, R.drawable.p8_open);
-        _openIDMap.put(JanPai.PIN_9, R.drawable.p9_open);
-        _openIDMap.put(JanPai.SOU_1, R.drawable.s1_open);
-        _openIDMap.put(JanPai.SOU_2, R.drawable.s2_open);
-        _openIDMap.put(JanPai.SOU_3, R.drawable.s3_open);
-        _openIDMap.put(JanPai.SOU_4, R.drawable.s4_open);
-        _openIDMap.put(JanPai.SOU_5, R.drawable.s5_open);
-        _openIDMap.put(JanPai.SOU_6, R.drawable.s6_open);
-        _openIDMap.put(JanPai.SOU_7, R.drawable.s7_open);
-        _openIDMap.put(JanPai.SOU_8, R.drawable.s8_open);
-        _openIDMap.put(JanPai.SOU_9, R.drawable.s9_open);
-        _openIDMap.put(JanPai.TON,   R.drawable.j1_open);
-        _openIDMap.put(JanPai.NAN,   R.drawable.j2_open);
-        _openIDMap.put(JanPai.SHA,   R.drawable.j3_open);
-        _openIDMap.put(JanPai.PEI,   R.drawable.j4_open);
-        _openIDMap.put(JanPai.HAKU,  R.drawable.j5_open);
-        _openIDMap.put(JanPai.HATU,  R.drawable.j6_open);
-        _openIDMap.put(JanPai.CHUN,  R.drawable.j7_open);
-    }
-    
-    /**
-     * リソースIDマッピングを初期化
-     */
-    private void initializeResourceID() {
-        _resourceIDMap.put(JanPai.MAN_1, R.drawable.m1);
-        _resourceIDMap.put(JanPai.MAN_2, R.drawable.m2);
-        _resourceIDMap.put(JanPai.MAN_3, R.drawable.m3);
-        _resourceIDMap.put(JanPai.MAN_4, R.drawable.m4);
-        _resourceIDMap.put(JanPai.MAN_5, R.drawable.m5);
-        _resourceIDMap.put(JanPai.MAN_6, R.drawable.m6);
-        _resourceIDMap.put(JanPai.MAN_7, R.drawable.m7);
-        _resourceIDMap.put(JanPai.MAN_8, R.drawable.m8);
-        _resourceIDMap.put(JanPai.MAN_9, R.drawable.m9);
-        _resourceIDMap.put(JanPai.PIN_1, R.drawable.p1);
-        _resourceIDMap.put(JanPai.PIN_2, R.drawable.p2);
-        _resourceIDMap.put(JanPai.PIN_3, R.drawable.p3);
-        _resourceIDMap.put(JanPai.PIN_4, R.drawable.p4);
-        _resourceIDMap.put(JanPai.PIN_5, R.drawable.p5);
-        _resourceIDMap.put(JanPai.PIN_6, R.drawable.p6);
-        _resourceIDMap.put(JanPai.PIN_7, R.drawable.p7);
-        _resourceIDMap.put(JanPai.PIN_8, R.drawable.p8);
-        _resourceIDMap.put(JanPai.PIN_9, R.drawable.p9);
-        _resourceIDMap.put(JanPai.SOU_1, R.drawable.s1);
-        _resourceIDMap.put(JanPai.SOU_2, R.drawable.s2);
-        _resourceIDMap.put(JanPai.SOU_3, R.drawable.s3);
-        _resourceIDMap.put(JanPai.SOU_4, R.drawable.s4);
-        _resourceIDMap.put(JanPai.SOU_5, R.drawable.s5);
-        _resourceIDMap.put(JanPai.SOU_6, R.drawable.s6);
-        _resourceIDMap.put(JanPai.SOU_7, R.drawable.s7);
-        _resourceIDMap.put(JanPai.SOU_8, R.drawable.s8);
-        _resourceIDMap.put(JanPai.SOU_9, R.drawable.s9);
-        _resourceIDMap.put(JanPai.TON,   R.drawable.j1);
-        _resourceIDMap.put(JanPai.NAN,   R.drawable.j2);
-        _resourceIDMap.put(JanPai.SHA,   R.drawable.j3);
-        _resourceIDMap.put(JanPai.PEI,   R.drawable.j4);
-        _resourceIDMap.put(JanPai.HAKU,  R.drawable.j5);
-        _resourceIDMap.put(JanPai.HATU,  R.drawable.j6);
-        _resourceIDMap.put(JanPai.CHUN,  R.drawable.j7);
-    }
-    
-    /**
-     * 横方向リソースIDマッピングを初期化
-     */
-    private void initializeRotateResourceID() {
-        _rotateIDMap.put(JanPai.MAN_1, R.drawable.m1_yoko);
-        _rotateIDMap.put(JanPai.MAN_2, R.drawable.m2_yoko);
-        _rotateIDMap.put(JanPai.MAN_3, R.drawable.m3_yoko);
-        _rotateIDMap.put(JanPai.MAN_4, R.drawable.m4_yoko);
-        _rotateIDMap.put(JanPai.MAN_5, R.drawable.m5_yoko);
-        _rotateIDMap.put(JanPai.MAN_6, R.drawable.m6_yoko);
-        _rotateIDMap.put(JanPai.MAN_7, R.drawable.m7_yoko);
-        _rotateIDMap.put(JanPai.MAN_8, R.drawable.m8_yoko);
-        _rotateIDMap.put(JanPai.MAN_9, R.drawable.m9_yoko);
-        _rotateIDMap.put(JanPai.PIN_1, R.drawable.p1_yoko);
-        _rotateIDMap.put(JanPai.PIN_2, R.drawable.p2_yoko);
-        _rotateIDMap.put(JanPai.PIN_3, R.drawable.p3_yoko);
-        _rotateIDMap.put(JanPai.PIN_4, R.drawable.p4_yoko);
-        _rotateIDMap.put(JanPai.PIN_5, R.drawable.p5_yoko);
-        _rotateIDMap.put(JanPai.PIN_6, R.drawable.p6_yoko);
-        _rotateIDMap.put(JanPai.PIN_7, R.drawable.p7_yoko);
-        _rotateIDMap.put(JanPai.PIN_8, R.drawable.p8_yoko);
-        _rotateIDMap.put(JanPai.PIN_9, R.drawable.p9_yoko);
-        _rotateIDMap.put(JanPai.SOU_1, R.drawable.s1_yoko);
-        _rotateIDMap.put(JanPai.SOU_2, R.drawable.s2_yoko);
-        _rotateIDMap.put(JanPai.SOU_3, R.drawable.s3_yoko);
-        _rotateIDMap.put(JanPai.SOU_4, R.drawable.s4_yoko);
-        _rotateIDMap.put(JanPai.SOU_5, R.drawable.s5_yoko);
-        _rotateIDMap.put(JanPai.SOU_6, R.drawable.s6_yoko);
-        _rotateIDMap.put(JanPai.SOU_7, R.drawable.s7_yoko);
-        _rotateIDMap.put(JanPai.SOU_8, R.drawable.s8_yoko);
-        _rotateIDMap.put(JanPai.SOU_9, R.drawable.s9_yoko);
-        _rotateIDMap.put(JanPai.TON,   R.drawable.j1_yoko);
-        _rotateIDMap.put(JanPai.NAN,   R.drawable.j2_yoko);
-        _rotateIDMap.put(JanPai.SHA,   R.drawable.j3_yoko);
-        _rotateIDMap.put(JanPai.PEI,   R.drawable.j4_yoko);
-        _rotateIDMap.put(JanPai.HAKU,  R.drawable.j5_yoko);
-        _rotateIDMap.put(JanPai.HATU,  R.drawable.j6_yoko);
-        _rotateIDMap.put(JanPai.CHUN,  R.drawable.j7_yoko);
-    }
-    
-    /**
-     * カン表示用積み牌リソースIDマッピングを初期化
-     */
-    private void initializeStackResourceID() {
-        _stackIDMap.put(JanPai.MAN_1, R.drawable.m1_kan);
-        _stackIDMap.put(JanPai.MAN_2, R.drawable.m2_kan);
-        _stackIDMap.put(JanPai.MAN_3, R.drawable.m3_kan);
-        _stackIDMap.put(JanPai.MAN_4, R.drawable.m4_kan);
-        _stackIDMap.put(JanPai.MAN_5, R.drawable.m5_kan);
-        _stackIDMap.put(JanPai.MAN_6, R.drawable.m6_kan);
-        _stackIDMap.put(JanPai.MAN_7, R.drawable.m7_kan);
-        _stackIDMap.put(JanPai.MAN_8, R.drawable.m8_kan);
-        _stackIDMap.put(JanPai.MAN_9, R.drawable.m9_kan);
-        _stackIDMap.put(JanPai.PIN_1, R.drawable.p1_kan);
-        _stackIDMap.put(JanPai.PIN_2, R.drawable.p2_kan);
-        _stackIDMap.put(JanPai.PIN_3, R.drawable.p3_kan);
-        _stackIDMap.put(JanPai.PIN_4, R.drawable.p4_kan);
-        _stackIDMap.put(JanPai.PIN_5, R.drawable.p5_kan);
-        _stackIDMap.put(JanPai.PIN_6, R.drawable.p6_kan);
-        _stackIDMap.put(JanPai.PIN_7, R.drawable.p7_kan);
-        _stackIDMap.put(JanPai.PIN_8, R.drawable.p8_kan);
-        _stackIDMap.put(JanPai.PIN_9, R.drawable.p9_kan);
-        _stackIDMap.put(JanPai.SOU_1, R.drawable.s1_kan);
-        _stackIDMap.put(JanPai.SOU_2, R.drawable.s2_kan);
-        _stackIDMap.put(JanPai.SOU_3, R.drawable.s3_kan);
-        _stackIDMap.put(JanPai.SOU_4, R.drawable.s4_kan);
-        _stackIDMap.put(JanPai.SOU_5, R.drawable.s5_kan);
-        _stackIDMap.put(JanPai.SOU_6, R.drawable.s6_kan);
-        _stackIDMap.put(JanPai.SOU_7, R.drawable.s7_kan);
-        _stackIDMap.put(JanPai.SOU_8, R.drawable.s8_kan);
-        _stackIDMap.put(JanPai.SOU_9, R.drawable.s9_kan);
-        _stackIDMap.put(JanPai.TON,   R.drawable.j1_kan);
-        _stackIDMap.put(JanPai.NAN,   R.drawable.j2_kan);
-        _stackIDMap.put(JanPai.SHA,   R.drawable.j3_kan);
-        _stackIDMap.put(JanPai.PEI,   R.drawable.j4_kan);
-        _stackIDMap.put(JanPai.HAKU,  R.drawable.j5_kan);
-        _stackIDMap.put(JanPai.HATU,  R.drawable.j6_kan);
-        _stackIDMap.put(JanPai.CHUN,  R.drawable.j7_kan);
+     * アトラスを読み込む
+     * 
+     *  ※アトラスの読み込みは1度のみとし、区画毎に切り出した画像を牌画像マップに登録する。
+     * 
+     * @param core リソースコア。
+     * @param resourceID アトラスのリソースID。
+     * @param scale サイズ変更倍率。
+     * @param rotated 横回転しているか。
+     * @param imageMap 牌画像の登録先。
+     * @return 牌裏画像。
+     */
+    private Bitmap readAtlas(final Resources core,
+                             final int resourceID,
+                             final double scale,
+                             final boolean rotated,
+                             final Map<JanPai, Bitmap> imageMap) {
+        final Bitmap atlas = BitmapFactory.decodeResource(core, resourceID);
+        final int cellWidth = atlas.getWidth() / ATLAS_COLUMN_COUNT;
+        final int cellHeight = atlas.getHeight() / ATLAS_ROW_COUNT;
+        for (final JanPai pai : JanPai.values()) {
+            imageMap.put(pai, readImage(atlas, pai.ordinal(), cellWidth, cellHeight, scale, rotated));
+        }
+        final Bitmap blank = readImage(atlas, ATLAS_BLANK_INDEX, cellWidth, cellHeight, scale, rotated);
+        atlas.recycle();
+        return blank;
     }
     
     /**
-     * 画像を読み込む
+     * アトラスの区画から画像を読み込む
      * 
-     * @param core リソースコア。
-     * @param resourceID リソースID。
+     * @param atlas アトラス。
+     * @param index 区画の位置。
+     * @param cellWidth 区画の幅。
+     * @param cellHeight 区画の高さ。
      * @param scale サイズ変更倍率。
      * @param rotated 横回転しているか。
      * @return 画像オブジェクト。
      */
-    private Bitmap readImage(final Resources core,
-                              final int resourceID,
-                              final double scale,
-                              final boolean rotated) {
-        final Bitmap image = BitmapFactory.decodeResource(core, resourceID);
+    private Bitmap readImage(final Bitmap atlas,
+                             final int index,
+                             final int cellWidth,
+                             final int cellHeight,
+                             final double scale,
+                             final boolean rotated) {
+        final int x = (index % ATLAS_COLUMN_COUNT) * cellWidth;
+        final int y = (index / ATLAS_COLUMN_COUNT) * cellHeight;
         final boolean bigger = Double.compare(scale, 1.0) >= 0;
         double trimmedScale = bigger ? 1.0 : scale;
         if (rotated) {
@@ -433,16 +284,17 @@ public final class ImageResourceManager {
         else {
             if (bigger) {
                 // 回転無し＆縮小不要
-                return image;
+                return Bitmap.createBitmap(atlas, x, y, cellWidth, cellHeight);
             }
         }
         
         // inSampleSizeで縮小するとブレが大きく、目的のサイズよりかなり小さくなるので採用しない
-        final double targetWidth = image.getWidth() * trimmedScale;
-        final double targetHeight = image.getHeight() * trimmedScale;
-        final Bitmap result = Bitmap.createScaledBitmap(image, (int)targetWidth, (int)targetHeight, true);
-        image.recycle();
-        return result;
+        // 切り出しと縮小を1度に行う (倍率は切り捨てた目的のサイズから求め直す)
+        final int targetWidth = (int)(cellWidth * trimmedScale);
+        final int targetHeight = (int)(cellHeight * trimmedScale);
+        final Matrix matrix = new Matrix();
+        matrix.setScale((float)targetWidth / cellWidth, (float)targetHeight / cellHeight);
+        return Bitmap.createBitmap(atlas, x, y, cellWidth, cellHeight, matrix, true);
     }
     
     
@@ -457,6 +309,21 @@ public final class ImageResourceManager {
      */
     private static final int JAN_PAI_WIDTH = 48;
     
+    /**
+     * アトラスの区画の列数
+     */
+    private static final int ATLAS_COLUMN_COUNT = 9;
+    
+    /**
+     * アトラスの区画の行数
+     */
+    private static final int ATLAS_ROW_COUNT = 4;
+    
+    /**
+     * アトラスの牌裏の区画の位置
+     */
+    private static final int ATLAS_BLANK_INDEX = 34;
+    
     
     
     /**
@@ -496,41 +363,21 @@ public final class ImageResourceManager {
      */
     private volatile boolean _initialized = false;
     
-    /**
-     * リソースIDマッピング
-     */
-    private final Map<JanPai, Integer> _resourceIDMap = new ConcurrentHashMap<JanPai, Integer>();
-    
     /**
      * リソースマッピング
      */
     private final Map<JanPai, Bitmap> _resourceMap = new ConcurrentHashMap<JanPai, Bitmap>();
     
-    /**
-     * リソースIDマッピング (オープン)
-     */
-    private final Map<JanPai, Integer> _openIDMap = new ConcurrentHashMap<JanPai, Integer>();
-    
     /**
      * リソースマッピング (オープン)
      */
     private final Map<JanPai, Bitmap> _openMap = new ConcurrentHashMap<JanPai, Bitmap>();
     
-    /**
-     * リソースIDマッピング (横方向)
-     */
-    private final Map<JanPai, Integer> _rotateIDMap = new ConcurrentHashMap<JanPai, Integer>();
-    
     /**
      * リソースマッピング (横方向)
      */
     private final Map<JanPai, Bitmap> _rotateMap = new ConcurrentHashMap<JanPai, Bitmap>();
     
-    /**
-     * リソースIDマッピング (カン表示用積み牌)
-     */
-    private final Map<JanPai, Integer> _stackIDMap = new ConcurrentHashMap<JanPai, Integer>();
-    
     /**
      * リソースマッピング (カン表示用積み牌)
      */
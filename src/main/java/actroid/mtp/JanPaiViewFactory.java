@@ -228,36 +228,42 @@ public class JanPaiViewFactory {
         }
     }
     
-    
-    
     /**
-     * 面子ビューを生成 (チー)
+     * 面子を構成する画像を取得
      * 
-     * @param source 面子。
-     * @param menTsuID 面子ID。
-     * @param layoutParam レイアウトパラメータ。nullを許可する。
-     * @return 面子構成牌ビュー。
+     *  ※チー・ポンは鳴いた牌を横向き、カンは中央を重ねた牌とし、暗カンは両端を牌裏とする。
+     * 
+     * @param menTsu 面子。
+     * @return 面子を構成する画像 (左から順)。
      */
-    private LinearLayout createChiView(final List<JanPai> source, final int menTsuID, final RelativeLayout.LayoutParams layoutParam) {
-        final List<ImageView> resultList = new ArrayList<ImageView>();
-        final int sourceSize = source.size();
-        for (int i = 0; i < sourceSize; i++) {
-            final JanPai pai = source.get(i);
-            Bitmap image;
-            switch (i) {
-            case 0:
-                image = ImageResourceManager.getInstance().getRotateImage(pai);
-                break;
-            default:
-                image = ImageResourceManager.getInstance().getOpenImage(pai);
-                break;
+    public Bitmap[] getMenTsuImageList(final MenTsu menTsu) {
+        if (menTsu == null) {
+            throw new NullPointerException("Source men tsu is null.");
+        }
+        
+        final ImageResourceManager manager = ImageResourceManager.getInstance();
+        final List<JanPai> source = menTsu.getSource();
+        final JanPai pai = source.get(0);
+        switch (menTsu.getMenTsuType()) {
+        case CHI:
+            final Bitmap[] chiImageList = new Bitmap[source.size()];
+            for (int i = 0; i < chiImageList.length; i++) {
+                chiImageList[i] = (i == 0) ? manager.getRotateImage(source.get(i)) : manager.getOpenImage(source.get(i));
             }
-            final ImageView view = createImageView(image);
-            resultList.add(view);
+            return chiImageList;
+        case PON:
+            return new Bitmap[] { manager.getRotateImage(pai), manager.getOpenImage(pai), manager.getOpenImage(pai) };
+        case KAN_LIGHT:
+            return new Bitmap[] { manager.getOpenImage(pai), manager.getStackImage(pai), manager.getOpenImage(pai) };
+        case KAN_DARK:
+            return new Bitmap[] { manager.getOpenBlankImage(), manager.getStackImage(pai), manager.getOpenBlankImage() };
+        default:
+            throw new UnsupportedOperationException("Unsupported - Men tsu is not fixed.");
         }
-        return createMenTsuLayout(resultList, menTsuID, layoutParam);
     }
     
+    
+    
     /**
      * イメージビューを生成
      * 
@@ -338,44 +344,6 @@ public class JanPaiViewFactory {
         return view;
     }
     
-    /**
-     * 面子ビューを生成 (暗カン)
-     * 
-     * @param source 面子。
-     * @param menTsuID 面子ID。
-     * @param layoutParam レイアウトパラメータ。nullを許可する。
-     * @return 面子構成牌ビュー。
-     */
-    private LinearLayout createKanDarkView(final List<JanPai> source, final int menTsuID, final RelativeLayout.LayoutParams layoutParam) {
-        final List<ImageView> resultList = new ArrayList<ImageView>();
-        final JanPai pai = source.get(0);
-        final Bitmap blankImage = ImageResourceManager.getInstance().getOpenBlankImage();
-        final Bitmap paiStackImage = ImageResourceManager.getInstance().getStackImage(pai);
-        resultList.add(createImageView(blankImage));
-        resultList.add(createImageView(paiStackImage));
-        resultList.add(createImageView(blankImage));
-        return createMenTsuLayout(resultList, menTsuID, layoutParam);
-    }
-    
-    /**
-     * 面子ビューを生成 (明カン)
-     * 
-     * @param source 面子。
-     * @param menTsuID 面子ID。
-     * @param layoutParam レイアウトパラメータ。nullを許可する。
-     * @return 面子構成牌ビュー。
-     */
-    private LinearLayout createKanLightView(final List<JanPai> source, final int menTsuID, final RelativeLayout.LayoutParams layoutParam) {
-        final List<ImageView> resultList = new ArrayList<ImageView>();
-        final JanPai pai = source.get(0);
-        final Bitmap paiImage = ImageResourceManager.getInstance().getOpenImage(pai);
-        final Bitmap paiStackImage = ImageResourceManager.getInstance().getStackImage(pai);
-        resultList.add(createImageView(paiImage));
-        resultList.add(createImageView(paiStackImage));
-        resultList.add(createImageView(paiImage));
-        return createMenTsuLayout(resultList, menTsuID, layoutParam);
-    }
-    
     /**
      * 面子レイアウトを生成
      * 
@@ -418,37 +386,10 @@ public class JanPaiViewFactory {
      * @return 面子ビュー。
      */
     private LinearLayout createMenTsuViewCore(final MenTsu menTsu, final int menTsuID, final RelativeLayout.LayoutParams layoutParam) {
-        final List<JanPai> source = menTsu.getSource();
-        switch (menTsu.getMenTsuType()) {
-        case CHI:
-            return createChiView(source, menTsuID, layoutParam);
-        case PON:
-            return createPonView(source, menTsuID, layoutParam);
-        case KAN_LIGHT:
-            return createKanLightView(source, menTsuID, layoutParam);
-        case KAN_DARK:
-            return createKanDarkView(source, menTsuID, layoutParam);
-        default:
-            throw new UnsupportedOperationException("Unsupported - Men tsu is not fixed.");
-        }
-    }
-    
-    /**
-     * 面子ビューを生成 (ポン)
-     * 
-     * @param source 面子。
-     * @param menTsuID 面子ID。
-     * @param layoutParam レイアウトパラメータ。nullを許可する。
-     * @return 面子構成牌ビュー。
-     */
-    private LinearLayout createPonView(final List<JanPai> source, final int menTsuID, final RelativeLayout.LayoutParams layoutParam) {
         final List<ImageView> resultList = new ArrayList<ImageView>();
-        final JanPai pai = source.get(0);
-        final Bitmap paiImage = ImageResourceManager.getInstance().getOpenImage(pai);
-        final Bitmap paiRotateImage = ImageResourceManager.getInstance().getRotateImage(pai);
-        resultList.add(createImageView(paiRotateImage));
-        resultList.add(createImageView(paiImage));
-        resultList.add(createImageView(paiImage));
+        for (final Bitmap image : getMenTsuImageList(menTsu)) {
+            resultList.add(createImageView(image));
+        }
         return createMenTsuLayout(resultList, menTsuID, layoutParam);
     }
     
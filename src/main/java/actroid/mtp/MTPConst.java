@@ -12,6 +12,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import wiz.project.jan.JanPai;
+import wiz.project.jan.Wind;
 
 
 
@@ -31,19 +32,16 @@ public final class MTPConst {
     public static final String KEY_HAND = "Hand";
     
     /**
-     * 聴牌パターンのキー
+     * 解析結果の登録IDのキー
      */
-    public static final String KEY_TENPAI_PATTERN = "Pattern";
+    public static final String KEY_RESULT_ID = "ResultID";
     
     /**
-     * 手牌ビューのベースID (手牌入力画面)
+     * 得点計算に用いる自風
+     * 
+     *  ※自風の入力手段が無いため、子 (南家) として計算する。親 (東家) とすると全ての得点が親の点数になる。
      */
-    public static final int HAND_VIEW_MAIN_BASE_ID = 0xFF00;
-    
-    /**
-     * 確定面子ビューのベースID (手牌入力画面)
-     */
-    public static final int FIXED_VIEW_MAIN_BASE_ID = 0xEF00;
+    public static final Wind PLAYER_WIND = Wind.NAN;
     
     /**
      * 手牌ビューのベースID (判定結果画面)
@@ -280,4 +278,49 @@ public final class MTPConst {
         private static final long serialVersionUID = 1L;
     });
     
+    /**
+     * 見え牌選択ボタンIDマップ
+     */
+    public static final Map<JanPai, Integer> VISIBLE_JAN_PAI_BUTTON_ID_MAP =
+    Collections.unmodifiableMap(new LinkedHashMap<JanPai, Integer>() {
+        {
+            put(JanPai.MAN_1, R.id.visible_button_man_1);
+            put(JanPai.MAN_2, R.id.visible_button_man_2);
+            put(JanPai.MAN_3, R.id.visible_button_man_3);
+            put(JanPai.MAN_4, R.id.visible_button_man_4);
+            put(JanPai.MAN_5, R.id.visible_button_man_5);
+            put(JanPai.MAN_6, R.id.visible_button_man_6);
+            put(JanPai.MAN_7, R.id.visible_button_man_7);
+            put(JanPai.MAN_8, R.id.visible_button_man_8);
+            put(JanPai.MAN_9, R.id.visible_button_man_9);
+            put(JanPai.PIN_1, R.id.visible_button_pin_1);
+            put(JanPai.PIN_2, R.id.visible_button_pin_2);
+            put(JanPai.PIN_3, R.id.visible_button_pin_3);
+            put(JanPai.PIN_4, R.id.visible_button_pin_4);
+            put(JanPai.PIN_5, R.id.visible_button_pin_5);
+            put(JanPai.PIN_6, R.id.visible_button_pin_6);
+            put(JanPai.PIN_7, R.id.visible_button_pin_7);
+            put(JanPai.PIN_8, R.id.visible_button_pin_8);
+            put(JanPai.PIN_9, R.id.visible_button_pin_9);
+            put(JanPai.SOU_1, R.id.visible_button_sou_1);
+            put(JanPai.SOU_2, R.id.visible_button_sou_2);
+            put(JanPai.SOU_3, R.id.visible_button_sou_3);
+            put(JanPai.SOU_4, R.id.visible_button_sou_4);
+            put(JanPai.SOU_5, R.id.visible_button_sou_5);
+            put(JanPai.SOU_6, R.id.visible_button_sou_6);
+            put(JanPai.SOU_7, R.id.visible_button_sou_7);
+            put(JanPai.SOU_8, R.id.visible_button_sou_8);
+            put(JanPai.SOU_9, R.id.visible_button_sou_9);
+            put(JanPai.TON,   R.id.visible_button_ton);
+            put(JanPai.NAN,   R.id.visible_button_nan);
+            put(JanPai.SHA,   R.id.visible_button_sha);
+            put(JanPai.PEI,   R.id.visible_button_pei);
+            put(JanPai.HAKU,  R.id.visible_button_haku);
+            put(JanPai.HATU,  R.id.visible_button_hatu);
+            put(JanPai.CHUN,  R.id.visible_button_chun);
+        }
+        
+        private static final long serialVersionUID = 1L;
+    });
+    
 }
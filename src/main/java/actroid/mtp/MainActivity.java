@@ -9,30 +9,32 @@ package actroid.mtp;
 
 
 
-import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 
 import wiz.android.button.ButtonManager;
 import wiz.android.dialog.DialogFactory;
-import wiz.android.dialog.JoinProgressThread;
-import wiz.android.dialog.ProgressThread;
 import wiz.android.util.UncaughtExceptionHandlerFactory;
 import wiz.project.jan.Hand;
 import wiz.project.jan.JanPai;
-import wiz.project.jan.TenpaiPattern;
 import actroid.mtp.call.CallDialogFactory;
+import actroid.mtp.check.AnalysisResult;
+import actroid.mtp.check.CountCheckUtil;
+import actroid.mtp.check.HandNotation;
+import actroid.mtp.check.HandState;
 import android.app.Activity;
 import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.ClipboardManager;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ImageButton;
+import android.widget.Toast;
 
 
 
@@ -70,13 +72,20 @@ public final class MainActivity extends Activity implements Observer {
             updateTenpaiPattern(hand);
             break;
         case 1:
+            // 手牌に空きがあるが、副露不可 (自摸り得る牌を先行して解析しておく)
+            ButtonManager.getInstance().disable(R.id.button_check);
+            ButtonManager.getInstance().disable(R.id.button_call);
+            SpeculativeAnalyzer.getInstance().speculate(hand);
+            break;
         case 2:
             // 手牌に空きがあるが、副露不可
             ButtonManager.getInstance().disable(R.id.button_check);
             ButtonManager.getInstance().disable(R.id.button_call);
+            SpeculativeAnalyzer.getInstance().pause();
             break;
         default:
             // 手牌に空きがあり、副露可能
+            SpeculativeAnalyzer.getInstance().pause();
             ButtonManager.getInstance().disable(R.id.button_check);
             ButtonManager.getInstance().enable(R.id.button_call);
             break;
@@ -91,24 +100,16 @@ public final class MainActivity extends Activity implements Observer {
     void onCheck() {
         boolean changeView = false;
         try {
-            synchronized (_PATTERN_THREAD_LOCK) {
-                if (_tenpaiPatternThread == null) {
-                    // 14牌あるのにスレッドが作動していない
-                    throw new IllegalStateException("Pattern thread is null.");
-                }
-                if (!_tenpaiPatternThread.isFinished()) {
-                    joinWithProgressDialog(_tenpaiPatternThread);
-                }
-                
-                final List<TenpaiPattern> patternList = _tenpaiPatternThread.getPatternList();
-                if (patternList.isEmpty()) {
-                    alert("不聴です");
-                    return;
+            synchronized (_ANALYSIS_REQUEST_LOCK) {
+                if (_analysisRequest == null) {
+                    // 14牌あるのに解析を要求していない
+                    throw new IllegalStateException("Analysis request is null.");
                 }
                 
+                // 解析中ならば完了を待たず、求まった聴牌パターンから順に表示する
                 changeView = true;
-                final CheckOKListener onOK = new CheckOKListener(patternList);
-                if (_tenpaiPatternThread.isCompleted()) {
+                final CheckOKListener onOK = new CheckOKListener(_analysisRequest);
+                if (_analysisRequest.isCompleted()) {
                     final DialogFactory.CancelListener onCancel = new CheckCancelListener();
                     confirm("和了済みです。\n判定しますか？", onOK, onCancel);
                 }
@@ -144,6 +145,7 @@ public final class MainActivity extends Activity implements Observer {
         initializeClearButton();
         initializeCheckButton();
         initializeCallButton();
+        initializeVisibleButton();
         
         initializeHandView();
     }
@@ -174,20 +176,37 @@ public final class MainActivity extends Activity implements Observer {
         HandManager.getInstance().updateView();
     }
     
-    
+    /**
+     * メニュー生成時の処理
+     */
+    @Override
+    public boolean onCreateOptionsMenu(final Menu menu) {
+        getMenuInflater().inflate(R.menu.main, menu);
+        return true;
+    }
     
     /**
-     * 警告ダイアログ
-     * 
-     * @param message 警告メッセージ。
+     * メニュー選択時の処理
      */
-    private void alert(final String message) {
-        final DialogFactory factory = new DialogFactory();
-        final AlertDialog dialog =
-            factory.createSimpleAlert(this, MTPConst.APP_NAME, message);
-        dialog.show();
+    @Override
+    public boolean onOptionsItemSelected(final MenuItem item) {
+        switch (item.getItemId()) {
+        case R.id.menu_paste:
+            pasteHand();
+            return true;
+        case R.id.menu_copy:
+            copyHand();
+            return true;
+        case R.id.menu_share:
+            shareHand();
+            return true;
+        default:
+            return super.onOptionsItemSelected(item);
+        }
     }
     
+    
+    
     /**
      * 確認ダイアログ
      * 
@@ -200,6 +219,16 @@ public final class MainActivity extends Activity implements Observer {
         dialog.show();
     }
     
+    /**
+     * 手牌をクリップボードにコピー
+     */
+    private void copyHand() {
+        final String notation = HandNotation.format(HandManager.getInstance().getHand());
+        final ClipboardManager clipboard = (ClipboardManager)getSystemService(CLIPBOARD_SERVICE);
+        clipboard.setText(notation);
+        Toast.makeText(this, getString(R.string.hand_copied) + "\n" + notation, Toast.LENGTH_SHORT).show();
+    }
+    
     /**
      * 副露ボタンを初期化
      */
@@ -246,6 +275,14 @@ public final class MainActivity extends Activity implements Observer {
         }
     }
     
+    /**
+     * 見え牌ボタンを初期化
+     */
+    private void initializeVisibleButton() {
+        final Button button = (Button)findViewById(R.id.button_visible);
+        button.setOnClickListener(new VisibleButtonListener());
+    }
+    
     /**
      * リソース管理を初期化
      */
@@ -254,43 +291,96 @@ public final class MainActivity extends Activity implements Observer {
     }
     
     /**
-     * 進捗ダイアログを表示しつつ同期
+     * 表記から手牌を読み込む
      * 
-     * @param thread 同期対象スレッド。
+     *  ※面前手牌と確定面子をまとめて置き換え、手牌ビューの更新 (解析要求) は1度だけ行う。
+     * 
+     * @param notation 手牌の表記。
+     * @return 読み込めたか。
      */
-    private void joinWithProgressDialog(final Thread thread) {
-        final ProgressThread progress = new JoinProgressThread(thread);
-        progress.show(this);
+    private boolean loadHand(final CharSequence notation) {
+        final Hand hand;
+        try {
+            hand = HandNotation.parseHand(notation);
+        }
+        catch (final IllegalArgumentException e) {
+            Toast.makeText(this, getString(R.string.hand_invalid) + "\n" + e.getMessage(), Toast.LENGTH_LONG).show();
+            return false;
+        }
+        HandManager.getInstance().setHand(hand);
+        HandManager.getInstance().updateView();
+        return true;
+    }
+    
+    /**
+     * クリップボードの手牌を貼り付け
+     */
+    private void pasteHand() {
+        final ClipboardManager clipboard = (ClipboardManager)getSystemService(CLIPBOARD_SERVICE);
+        final CharSequence text = clipboard.hasText() ? clipboard.getText() : "";
+        if (loadHand(text.toString().trim())) {
+            Toast.makeText(this, R.string.hand_pasted, Toast.LENGTH_SHORT).show();
+        }
+    }
+    
+    /**
+     * 手牌を共有
+     */
+    private void shareHand() {
+        final Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("text/plain");
+        intent.putExtra(Intent.EXTRA_TEXT, HandNotation.format(HandManager.getInstance().getHand()));
+        startActivity(Intent.createChooser(intent, getString(R.string.menu_share)));
     }
     
     /**
      * 聴牌パターンを更新
+     * 
+     *  ※直前の手牌状態から差分更新し、変化した種類のみを再計算させる。
+     *  ※13牌の時点で先行解析済みならば、その要求を用いて解析を省略する。
      */
     private void updateTenpaiPattern(final Hand hand) {
-        synchronized (_PATTERN_THREAD_LOCK) {
-            if (_tenpaiPatternThread != null) {
-                _tenpaiPatternThread.interrupt();
+        synchronized (_ANALYSIS_REQUEST_LOCK) {
+            // 解析中のスレッドが参照している状態は変更せず、複製して更新する
+            final HandState state = new HandState(_handState);
+            state.update(CountCheckUtil.convertJanPaiMap(hand.getMenZenMap()));
+            state.refresh();
+            _handState = state;
+            
+            final AnalysisRequest speculated = SpeculativeAnalyzer.getInstance().take(hand);
+            if (speculated != null) {
+                // 先行解析済み (古い要求は取り消しておく)
+                if (_analysisRequest != null) {
+                    _analysisRequest.cancel();
+                }
+                _analysisRequest = speculated;
+                return;
             }
             
-            // バックグラウンドで処理しておく
-            _tenpaiPatternThread = new TenpaiPatternThread(hand);
-            _tenpaiPatternThread.start();
+            // バックグラウンドで処理しておく (解析中・待機中の古い要求は取り消される)
+            _analysisRequest = new AnalysisRequest(hand, state);
+            AnalysisExecutor.getInstance().submit(_analysisRequest);
         }
     }
     
     
     
     /**
-     * ロックオブジェクト (聴牌パターン取得スレッド)
+     * ロックオブジェクト (聴牌パターン解析要求)
      */
-    private final Object _PATTERN_THREAD_LOCK = new Object();
+    private final Object _ANALYSIS_REQUEST_LOCK = new Object();
     
     
     
     /**
-     * 聴牌パターン取得スレッド
+     * 聴牌パターン解析要求
      */
-    private TenpaiPatternThread _tenpaiPatternThread = null;
+    private AnalysisRequest _analysisRequest = null;
+    
+    /**
+     * 直前に解析した手牌の状態
+     */
+    private HandState _handState = new HandState();
     
     
     
@@ -373,10 +463,10 @@ public final class MainActivity extends Activity implements Observer {
         /**
          * コンストラクタ
          * 
-         * @param patternList 聴牌パターンリスト。
+         * @param request 聴牌パターン解析要求。
          */
-        public CheckOKListener(final List<TenpaiPattern> patternList) {
-            _patternList = new ArrayList<TenpaiPattern>(patternList);
+        public CheckOKListener(final AnalysisRequest request) {
+            _request = request;
         }
         
         /**
@@ -391,14 +481,22 @@ public final class MainActivity extends Activity implements Observer {
          */
         public void showResultPattern() {
             final Intent intent = new Intent(MainActivity.this, ResultActivity.class);
-            intent.putExtra(MTPConst.KEY_TENPAI_PATTERN, (Serializable)_patternList);
+            final AnalysisResult result = _request.getResult();
+            if (result != null) {
+                // 解析結果は直列化せず、登録IDのみを渡す
+                intent.putExtra(MTPConst.KEY_RESULT_ID, ResultRegistry.getInstance().register(result));
+            }
+            else {
+                // 結果画面は解析結果の配信を購読し、求まった順に表示する
+                AnalysisStream.setCurrent(_request.getStream());
+            }
             startActivity(intent);
         }
         
         /**
-         * 聴牌パターンリスト
+         * 聴牌パターン解析要求
          */
-        private final List<TenpaiPattern> _patternList;
+        private final AnalysisRequest _request;
     };
     
     /**
@@ -431,6 +529,25 @@ public final class MainActivity extends Activity implements Observer {
         }
     }
     
+    /**
+     * 見え牌ボタンリスナー
+     */
+    private final class VisibleButtonListener implements View.OnClickListener {
+        
+        /**
+         * コンストラクタ
+         */
+        public VisibleButtonListener() {
+        }
+        
+        /**
+         * クリック時の処理
+         */
+        public void onClick(final View view) {
+            startActivity(new Intent(MainActivity.this, VisibleTileActivity.class));
+        }
+    }
+    
     /**
      * 雀牌ボタンリスナー
      */
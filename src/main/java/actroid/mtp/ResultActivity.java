@@ -8,30 +8,53 @@
 package actroid.mtp;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import wiz.android.button.ButtonManager;
 import wiz.android.util.UncaughtExceptionHandlerFactory;
+import wiz.project.jan.Field;
+import wiz.project.jan.Hand;
 import wiz.project.jan.JanPai;
 import wiz.project.jan.MenTsu;
 import wiz.project.jan.TenpaiPattern;
+import actroid.mtp.check.AnalysisResult;
+import actroid.mtp.check.CountCheckUtil;
+import actroid.mtp.check.DrawProbability;
+import actroid.mtp.check.Score;
+import actroid.mtp.check.ShantenPattern;
+import actroid.mtp.check.VisibleTileTracker;
+import actroid.mtp.check.WaitPattern;
+import actroid.mtp.check.WaitType;
+import actroid.mtp.check.WinSimulator;
 import android.app.Activity;
 import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.view.Gravity;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewGroup.LayoutParams;
+import android.widget.BaseAdapter;
 import android.widget.HorizontalScrollView;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
+import android.widget.ListView;
 import android.widget.RelativeLayout;
+import android.widget.SeekBar;
 import android.widget.TextView;
 
 
 
 /**
  * 結果表示画面
+ * 
+ *  ※解析が完了していない場合は解析結果の配信 (AnalysisStream) を購読し、
+ *    聴牌パターンを求まった順に捨て牌の順の位置へ挿入する。向聴パターンは解析完了時に表示する。
+ *  ※解析完了後、聴牌パターン毎の和了率を模擬試行 (WinSimulator) で求め、試行が進む毎に表示を更新する。
  */
 public final class ResultActivity extends Activity {
     
@@ -57,9 +80,33 @@ public final class ResultActivity extends Activity {
         // 初期化順を変更してはならない
         initializeHandView();
         initializeFixedMenTsuView();
+        initializeWallView();
+        initializeWindView();
+        
+        final ListView patternView = (ListView)findViewById(R.id.result_pattern_list);
+        patternView.setAdapter(_patternAdapter);
+        
+        final Bundle extras = getIntent().getExtras();
+        if (extras != null && extras.containsKey(MTPConst.KEY_RESULT_ID)) {
+            // 解析済み (プロセスの再生成で登録が失われていれば閉じる)
+            final AnalysisResult result = ResultRegistry.getInstance().get(extras.getLong(MTPConst.KEY_RESULT_ID));
+            if (result == null) {
+                finish();
+                return;
+            }
+            initializeTenpaiPatternView(result);
+            return;
+        }
         
-        final List<TenpaiPattern> patternList = getCreateParam(MTPConst.KEY_TENPAI_PATTERN);
-        initializeTenpaiPatternView(patternList);
+        // 解析中
+        _stream = AnalysisStream.getCurrent();
+        if (_stream == null) {
+            finish();
+            return;
+        }
+        final TextView titleView = (TextView)findViewById(R.id.text_result_pattern);
+        titleView.setText(R.string.result_pattern_progress);
+        _stream.addListener(_streamListener);
     }
     
     /**
@@ -68,6 +115,10 @@ public final class ResultActivity extends Activity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (_stream != null) {
+            _stream.removeListener(_streamListener);
+        }
+        stopSimulation();
         
         // メイン画面の確認ボタンをクリック可能にする
         ButtonManager.getInstance().unlock(R.id.button_check);
@@ -78,84 +129,181 @@ public final class ResultActivity extends Activity {
     /**
      * 聴牌パターンを追加
      * 
-     * @param patternView 聴牌パターンビュー。
+     *  ※表示済みの聴牌パターンとの間で、捨て牌の順となる位置に挿入する。表示の更新は呼び出し側で行う。
+     * 
      * @param pattern 聴牌パターン。
+     * @param waitPatternList 待ちパターンリスト。
      */
-    private void addTenpaiPattern(final LinearLayout patternView, final TenpaiPattern pattern) {
+    private void addTenpaiPattern(final TenpaiPattern pattern, final List<WaitPattern> waitPatternList) {
         final JanPai discard = pattern.getDiscard();
-        final List<JanPai> completableList = pattern.getCompletableList();
-        final Map<JanPai, Integer> expectation = pattern.getExpectation();
-        final View discardView = createDiscardView(discard);
-        final View completableView = createCompletableView(completableList, expectation, completableList.contains(discard));
-        final View expectationView = createExpectationView(expectation);
+        final int index = -Collections.binarySearch(_tenpaiDiscardList, discard) - 1;
+        if (index < 0) {
+            // 表示済み
+            return;
+        }
         
-        // 上下に余白を設ける
-        discardView.setPadding(0, 10, 0, 0);
-        expectationView.setPadding(0, 0, 0, 10);
+        final Map<JanPai, WaitPattern> waitPatternMap = new EnumMap<JanPai, WaitPattern>(JanPai.class);
+        for (final WaitPattern waitPattern : waitPatternList) {
+            waitPatternMap.put(waitPattern.getCompletable(), waitPattern);
+        }
         
-        // スクロール可能ならば常にスクロールバーを表示
-        completableView.setScrollbarFadingEnabled(false);
+        final List<JanPai> completableList = pattern.getCompletableList();
+        final Map<JanPai, Integer> expectation = pattern.getExpectation();
+        final PatternRow row = new PatternRow(discard, completableList.contains(discard) ? "待ち [フリテン]" : "待ち", getTotalExpectation(expectation));
+        for (final JanPai pai : completableList) {
+            final int count = expectation.get(pai);
+            if (count != 0) {
+                final WaitPattern waitPattern = waitPatternMap.get(pai);
+                row.addJanPai(pai, count + createWaitTypeText(waitPattern) + createScoreText(waitPattern) + " ");
+            }
+        }
         
-        patternView.addView(discardView);
-        patternView.addView(completableView);
-        patternView.addView(expectationView);
+        _tenpaiDiscardList.add(index, discard);
+        _tenpaiRowList.add(index, row);
     }
     
     /**
-     * 待ち牌ビューを生成
+     * 向聴パターンを追加
      * 
-     * @param completableList 待ち牌リスト。
-     * @param expectation 期待枚数。
-     * @param poor フリテンか。
-     * @return 待ち牌ビュー。
+     *  ※表示の更新は呼び出し側で行う。
+     * 
+     * @param pattern 向聴パターン。
      */
-    private View createCompletableView(final List<JanPai> completableList, final Map<JanPai, Integer> expectation, final boolean poor) {
-        final LinearLayout view = new LinearLayout(this);
-        view.setOrientation(LinearLayout.HORIZONTAL);
-        view.setGravity(Gravity.BOTTOM);
-        for (final JanPai pai : completableList) {
+    private void addShantenPattern(final ShantenPattern pattern) {
+        final Map<JanPai, Integer> expectation = pattern.getExpectation();
+        final PatternRow row = new PatternRow(pattern.getDiscard(), "有効牌", getTotalExpectation(expectation));
+        for (final JanPai pai : pattern.getAcceptableList()) {
             final int count = expectation.get(pai);
             if (count != 0) {
-                view.addView(createJanPaiImageView(pai));
-                view.addView(createTextView(count + " "));
+                row.addJanPai(pai, count + " ");
             }
         }
-        final String text = poor ? "待ち [フリテン]" : "待ち";
-        view.addView(createTextView(text));
         
-        final HorizontalScrollView scroll = new HorizontalScrollView(this);
-        scroll.addView(view);
-        return scroll;
+        // 聴牌だが待ちが全て見えている場合は0となる
+        final int shanten = pattern.getShanten();
+        row.setShantenText((shanten == 0) ? "聴牌 [待ち無し]" : (shanten + "向聴"));
+        _shantenRowList.add(row);
     }
     
     /**
-     * 捨て牌ビューを生成
+     * 牌リストビューを結び付け
+     * 
+     *  ※牌画像と枚数の組のビューは使い回し、不足分のみ生成・余剰分のみ削除する。
      * 
-     * @param pai 捨て牌。
-     * @return 捨て牌ビュー。
+     * @param view 牌リストビュー。
+     * @param row 表示する行。
      */
-    private View createDiscardView(final JanPai pai) {
-        final LinearLayout view = new LinearLayout(this);
-        view.setOrientation(LinearLayout.HORIZONTAL);
-        view.setGravity(Gravity.BOTTOM);
-        view.addView(createJanPaiImageView(pai));
-        view.addView(createTextView("切り"));
-        return view;
+    private void bindJanPaiListView(final LinearLayout view, final PatternRow row) {
+        final List<JanPai> paiList = row.getJanPaiList();
+        final List<String> textList = row.getTextList();
+        final int size = paiList.size();
+        for (int i = 0; i < size; i++) {
+            final ImageView imageView;
+            final TextView textView;
+            if (i * 2 < view.getChildCount()) {
+                imageView = (ImageView)view.getChildAt(i * 2);
+                textView = (TextView)view.getChildAt(i * 2 + 1);
+            }
+            else {
+                imageView = new ImageView(this);
+                textView = new TextView(this);
+                view.addView(imageView);
+                view.addView(textView);
+            }
+            imageView.setImageBitmap(ImageResourceManager.getInstance().getImage(paiList.get(i)));
+            textView.setText(textList.get(i));
+        }
+        if (view.getChildCount() > size * 2) {
+            view.removeViews(size * 2, view.getChildCount() - size * 2);
+        }
     }
     
     /**
-     * 期待枚数ビューを生成
+     * パターン行ビューを結び付け
+     * 
+     * @param holder パターン行ビュー。
+     * @param row 表示する行。
      */
-    private View createExpectationView(final Map<JanPai, Integer> expectation) {
-        final LinearLayout view = new LinearLayout(this);
-        view.setOrientation(LinearLayout.HORIZONTAL);
+    private void bindPatternRowView(final PatternRowHolder holder, final PatternRow row) {
+        holder._row = row;
+        holder._discardImageView.setImageBitmap(ImageResourceManager.getInstance().getImage(row.getDiscard()));
+        bindJanPaiListView(holder._janPaiListView, row);
+        holder._titleView.setText(row.getTitle());
+        holder._expectationView.setText("合計期待枚数 ： " + row.getTotal());
         
-        int total = 0;
-        for (final Map.Entry<JanPai, Integer> entry : expectation.entrySet()) {
-            total += entry.getValue();
+        // 使い回したビューのスクロール位置を戻す
+        holder._scrollView.scrollTo(0, 0);
+        
+        if (holder._shantenView != null) {
+            holder._shantenView.setText(row.getShantenText());
+        }
+        if (holder._winRateView != null) {
+            holder._winRateView.setText(createWinRateText(row.getDiscard()));
+            holder._drawRateView.setText(createDrawRateText(row.getTotal()));
         }
-        view.addView(createTextView("合計期待枚数 ： " + total));
-        return view;
+    }
+    
+    /**
+     * パターン行ビューを生成
+     * 
+     *  ※聴牌パターンは 捨て牌・待ち牌・和了率・期待枚数 (自摸率)、
+     *    向聴パターンは 捨て牌・向聴数・有効牌・期待枚数 の順に並べる。
+     * 
+     * @param tenpai 聴牌パターンの行か。
+     * @return パターン行ビュー (タグにパターン行ビューの保持を設定済み)。
+     */
+    private View createPatternRowView(final boolean tenpai) {
+        final PatternRowHolder holder = new PatternRowHolder();
+        
+        final LinearLayout discardView = new LinearLayout(this);
+        discardView.setOrientation(LinearLayout.HORIZONTAL);
+        discardView.setGravity(Gravity.BOTTOM);
+        holder._discardImageView = new ImageView(this);
+        discardView.addView(holder._discardImageView);
+        discardView.addView(createTextView("切り"));
+        
+        final LinearLayout listView = new LinearLayout(this);
+        listView.setOrientation(LinearLayout.HORIZONTAL);
+        listView.setGravity(Gravity.BOTTOM);
+        holder._janPaiListView = new LinearLayout(this);
+        holder._janPaiListView.setOrientation(LinearLayout.HORIZONTAL);
+        holder._janPaiListView.setGravity(Gravity.BOTTOM);
+        holder._titleView = new TextView(this);
+        listView.addView(holder._janPaiListView);
+        listView.addView(holder._titleView);
+        holder._scrollView = new HorizontalScrollView(this);
+        holder._scrollView.addView(listView);
+        
+        // スクロール可能ならば常にスクロールバーを表示
+        holder._scrollView.setScrollbarFadingEnabled(false);
+        
+        final LinearLayout expectationView = new LinearLayout(this);
+        expectationView.setOrientation(LinearLayout.HORIZONTAL);
+        holder._expectationView = new TextView(this);
+        expectationView.addView(holder._expectationView);
+        
+        // 上下に余白を設ける
+        discardView.setPadding(0, 10, 0, 0);
+        expectationView.setPadding(0, 0, 0, 10);
+        
+        final LinearLayout rowView = new LinearLayout(this);
+        rowView.setOrientation(LinearLayout.VERTICAL);
+        rowView.addView(discardView);
+        if (tenpai) {
+            holder._winRateView = new TextView(this);
+            holder._drawRateView = new TextView(this);
+            expectationView.addView(holder._drawRateView);
+            rowView.addView(holder._scrollView);
+            rowView.addView(holder._winRateView);
+        }
+        else {
+            holder._shantenView = new TextView(this);
+            rowView.addView(holder._shantenView);
+            rowView.addView(holder._scrollView);
+        }
+        rowView.addView(expectationView);
+        rowView.setTag(holder);
+        return rowView;
     }
     
     /**
@@ -194,18 +342,6 @@ public final class ResultActivity extends Activity {
         return param;
     }
     
-    /**
-     * 牌画像ビューを生成
-     * 
-     * @param pai 生成元雀牌。
-     * @return 牌画像ビュー。
-     */
-    private View createJanPaiImageView(final JanPai pai) {
-        final ImageView view = new ImageView(this);
-        view.setImageBitmap(ImageResourceManager.getInstance().getImage(pai));
-        return view;
-    }
-    
     /**
      * 面子ビューの基点を生成
      * 
@@ -221,6 +357,59 @@ public final class ResultActivity extends Activity {
         return factory.createMenTsuMinHeightDummyView(viewID, layoutParam);
     }
     
+    /**
+     * 得点のテキストを生成
+     * 
+     *  ※栄和・自摸の順に並べる (例 : "[ロン3900/ツモ4000]")。役が無い場合は "役無し" とする。
+     * 
+     * @param pattern 待ちパターン (nullまたは得点未設定ならば空文字列)。
+     * @return 得点のテキスト。
+     */
+    private String createScoreText(final WaitPattern pattern) {
+        if (pattern == null || pattern.getRonScore() == null || pattern.getTsumoScore() == null) {
+            return "";
+        }
+        
+        final StringBuilder buf = new StringBuilder("[");
+        buf.append("ロン").append(createPointText(pattern.getRonScore()));
+        buf.append("/");
+        buf.append("ツモ").append(createPointText(pattern.getTsumoScore()));
+        return buf.append("]").toString();
+    }
+    
+    /**
+     * 点数のテキストを生成
+     * 
+     * @param score 得点。
+     * @return 点数のテキスト。
+     */
+    private String createPointText(final Score score) {
+        return score.hasYaku() ? String.valueOf(score.getPoint()) : "役無し";
+    }
+    
+    /**
+     * 待ちの形のテキストを生成
+     * 
+     *  ※待ちの形が複数ある場合は全て並べる (例 : "(両面/単騎)")。
+     * 
+     * @param pattern 待ちパターン (nullならば空文字列)。
+     * @return 待ちの形のテキスト。
+     */
+    private String createWaitTypeText(final WaitPattern pattern) {
+        if (pattern == null || pattern.getWaitTypeSet().isEmpty()) {
+            return "";
+        }
+        
+        final StringBuilder buf = new StringBuilder("(");
+        for (final WaitType waitType : pattern.getWaitTypeSet()) {
+            if (buf.length() > 1) {
+                buf.append("/");
+            }
+            buf.append(waitType);
+        }
+        return buf.append(")").toString();
+    }
+    
     /**
      * テキストビューを生成
      * 
@@ -234,27 +423,51 @@ public final class ResultActivity extends Activity {
     }
     
     /**
-     * ビュー生成オブジェクトを生成
+     * 自摸率の表示文字列を生成
      * 
-     * @return ビュー生成オブジェクト。
+     *  ※残り山の枚数から自家の自摸回数を求め、その間に見えていない牌から和了牌 (期待枚数の合計) を1枚以上引く確率を表示する。
+     * 
+     * @param live 和了牌の残り枚数。
+     * @return 表示文字列。
      */
-    private JanPaiViewFactory createJanPaiViewFactory() {
-        return new JanPaiViewFactory(this);
+    private String createDrawRateText(final int live) {
+        final int drawCount = DrawProbability.getDrawCount(_wallSize);
+        final double rate = DrawProbability.get(live, _unseenCount, drawCount) * 100.0;
+        return String.format("  (自摸率 %.1f%%)", rate);
     }
     
     /**
-     * 画面生成パラメータを取得
+     * 残り山の表示文字列を生成
      * 
-     * @param key パラメータキー。
-     * @return 画面生成パラメータ。
+     * @return 表示文字列。
      */
-    @SuppressWarnings("unchecked")
-    private <T> T getCreateParam(final String key) {
-        final Object source = getIntent().getExtras().getSerializable(key);
-        if (source == null) {
-            throw new NullPointerException("Source object is null.");
+    private String createWallText() {
+        return "残り山 ： " + _wallSize + "枚 (自摸 " + DrawProbability.getDrawCount(_wallSize) + "回)";
+    }
+    
+    /**
+     * 和了率の表示文字列を生成
+     * 
+     * @param discard 捨て牌。
+     * @return 表示文字列。
+     */
+    private String createWinRateText(final JanPai discard) {
+        final String title = "和了率 (" + SIMULATION_DRAW_COUNT + "巡) ： ";
+        final WinSimulator simulator = _simulator;
+        if (simulator == null || simulator.getTrialCount(discard) == 0) {
+            return title + "計算中";
         }
-        return (T)source;
+        final double rate = simulator.getWinRate(discard) * 100.0;
+        return title + String.format("%.1f%% (試行 %d)", rate, simulator.getTrialCount(discard));
+    }
+    
+    /**
+     * ビュー生成オブジェクトを生成
+     * 
+     * @return ビュー生成オブジェクト。
+     */
+    private JanPaiViewFactory createJanPaiViewFactory() {
+        return new JanPaiViewFactory(this);
     }
     
     /**
@@ -285,6 +498,46 @@ public final class ResultActivity extends Activity {
         }
     }
     
+    /**
+     * 残り山ビューを初期化
+     * 
+     *  ※入力した残り山の枚数は画面を閉じても保持し、次回の結果画面の初期値とする。
+     */
+    private void initializeWallView() {
+        _unseenCount = Math.min(DrawProbability.JAN_PAI_TOTAL - CountCheckUtil.getTotalCount(createVisibleCount()),
+                                DrawProbability.UNSEEN_LIMIT);
+        
+        final TextView wallView = (TextView)findViewById(R.id.text_result_wall);
+        wallView.setText(createWallText());
+        
+        final SeekBar seekBar = (SeekBar)findViewById(R.id.seek_result_wall);
+        seekBar.setMax(DrawProbability.WALL_LIMIT);
+        seekBar.setProgress(_wallSize);
+        seekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            public void onProgressChanged(final SeekBar bar, final int progress, final boolean fromUser) {
+                _wallSize = progress;
+                wallView.setText(createWallText());
+                updateDrawRateView();
+            }
+            
+            public void onStartTrackingTouch(final SeekBar bar) {
+            }
+            
+            public void onStopTrackingTouch(final SeekBar bar) {
+            }
+        });
+    }
+    
+    /**
+     * 風ビューを初期化
+     * 
+     *  ※得点計算で仮定した場風・自風を表示する。
+     */
+    private void initializeWindView() {
+        final TextView windView = (TextView)findViewById(R.id.text_result_wind);
+        windView.setText(getString(R.string.result_wind, Field.getInstance().getWind(), MTPConst.PLAYER_WIND));
+    }
+    
     /**
      * 手牌ビューを初期化
      */
@@ -310,13 +563,561 @@ public final class ResultActivity extends Activity {
     /**
      * 聴牌パターンビューを初期化
      * 
-     * @param patternList 聴牌パターン。
+     *  ※聴牌パターンの後に、聴牌しない捨て牌の向聴数と有効牌を、向聴数・有効牌の残り枚数の順で表示する。
+     *  ※配信で表示済みの聴牌パターンは追加しない。
+     * 
+     * @param result 解析結果。
      */
-    private void initializeTenpaiPatternView(final List<TenpaiPattern> patternList) {
-        final LinearLayout patternView = (LinearLayout)findViewById(R.id.result_pattern_layout);
+    private void initializeTenpaiPatternView(final AnalysisResult result) {
+        final List<TenpaiPattern> patternList = result.getTenpaiPatternList();
+        final TextView titleView = (TextView)findViewById(R.id.text_result_pattern);
+        titleView.setText(patternList.isEmpty() ? R.string.result_shanten : R.string.result_pattern);
+        
+        final Set<JanPai> tenpaiDiscardSet = EnumSet.noneOf(JanPai.class);
+        for (final TenpaiPattern pattern : patternList) {
+            addTenpaiPattern(pattern, result.getWaitPatternList(pattern.getDiscard()));
+            tenpaiDiscardSet.add(pattern.getDiscard());
+        }
+        for (final ShantenPattern pattern : result.getShantenPatternList()) {
+            if (!tenpaiDiscardSet.contains(pattern.getDiscard())) {
+                addShantenPattern(pattern);
+            }
+        }
+        _patternAdapter.notifyDataSetChanged();
+        
+        if (!patternList.isEmpty()) {
+            startSimulation(patternList);
+        }
+    }
+    
+    /**
+     * 和了率の模擬試行を開始
+     * 
+     *  ※見えている牌には、手牌・確定面子に加えて見え牌 (VisibleTileTracker) を含める。
+     * 
+     * @param patternList 聴牌パターンリスト。
+     */
+    private void startSimulation(final List<TenpaiPattern> patternList) {
+        if (_simulator != null) {
+            return;
+        }
+        
+        final Hand hand = HandManager.getInstance().getHand();
+        final int[] count = CountCheckUtil.convertJanPaiMap(hand.getMenZenMap());
+        final int[] visible = createVisibleCount();
+        final List<JanPai> discardList = new ArrayList<JanPai>(patternList.size());
         for (final TenpaiPattern pattern : patternList) {
-            addTenpaiPattern(patternView, pattern);
+            discardList.add(pattern.getDiscard());
+        }
+        
+        _simulator = new WinSimulator(count, visible, discardList, SIMULATION_DRAW_COUNT);
+        _simulationThread = new Thread(new SimulationRunner(_simulator, _simulationListener), "WinSimulator");
+        _simulationThread.setDaemon(true);
+        _simulationThread.start();
+    }
+    
+    /**
+     * 見えている牌の所持数配列を生成
+     * 
+     *  ※手牌・確定面子に加えて見え牌 (VisibleTileTracker) を含める。
+     * 
+     * @return 見えている牌の所持数配列。
+     */
+    private int[] createVisibleCount() {
+        final int[] visible = CountCheckUtil.convertJanPaiMap(HandManager.getInstance().getHand().getAllJanPaiMap());
+        final int[] tracked = VisibleTileTracker.getInstance().getCountArray();
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            visible[i] += tracked[i];
+        }
+        return visible;
+    }
+    
+    /**
+     * 和了率の模擬試行を停止
+     */
+    private void stopSimulation() {
+        if (_simulator != null) {
+            _simulator.cancel();
+        }
+        if (_simulationThread != null) {
+            _simulationThread.interrupt();
+        }
+    }
+    
+    /**
+     * 表示中の行の自摸率ビューを更新
+     * 
+     *  ※画面外の行は、表示される時点で結び付け直す。
+     */
+    private void updateDrawRateView() {
+        final ListView patternView = (ListView)findViewById(R.id.result_pattern_list);
+        for (int i = 0; i < patternView.getChildCount(); i++) {
+            final PatternRowHolder holder = (PatternRowHolder)patternView.getChildAt(i).getTag();
+            if (holder._drawRateView != null) {
+                holder._drawRateView.setText(createDrawRateText(holder._row.getTotal()));
+            }
         }
     }
     
+    /**
+     * 表示中の行の和了率ビューを更新
+     * 
+     *  ※画面外の行は、表示される時点で結び付け直す。
+     */
+    private void updateWinRateView() {
+        final ListView patternView = (ListView)findViewById(R.id.result_pattern_list);
+        for (int i = 0; i < patternView.getChildCount(); i++) {
+            final PatternRowHolder holder = (PatternRowHolder)patternView.getChildAt(i).getTag();
+            if (holder._winRateView != null) {
+                holder._winRateView.setText(createWinRateText(holder._row.getDiscard()));
+            }
+        }
+    }
+    
+    
+    
+    
+    /**
+     * 期待枚数の合計を取得
+     * 
+     * @param expectation 期待枚数。
+     * @return 合計。
+     */
+    private static int getTotalExpectation(final Map<JanPai, Integer> expectation) {
+        int total = 0;
+        for (final Map.Entry<JanPai, Integer> entry : expectation.entrySet()) {
+            total += entry.getValue();
+        }
+        return total;
+    }
+    
+    
+    
+    /**
+     * 残り山の枚数の初期値 (配牌直後の山)
+     */
+    private static final int DEFAULT_WALL_SIZE = 70;
+    
+    /**
+     * 和了率の模擬試行の自摸回数
+     */
+    private static final int SIMULATION_DRAW_COUNT = 12;
+    
+    /**
+     * 和了率の模擬試行の制限時間 (ミリ秒)
+     */
+    private static final long SIMULATION_BUDGET = 3000L;
+    
+    
+    
+    /**
+     * 残り山の枚数 (UI スレッドのみから参照)
+     */
+    private static int _wallSize = DEFAULT_WALL_SIZE;
+    
+    
+    
+    /**
+     * 見えていない牌の枚数 (自摸率の母数)
+     */
+    private int _unseenCount = DrawProbability.UNSEEN_LIMIT;
+    
+    /**
+     * 購読中の解析結果の配信 (解析済みならばnull)
+     */
+    private AnalysisStream _stream = null;
+    
+    /**
+     * 和了率の模擬試行 (開始前はnull)
+     */
+    private volatile WinSimulator _simulator = null;
+    
+    /**
+     * 和了率の模擬試行スレッド (開始前はnull)
+     */
+    private Thread _simulationThread = null;
+    
+    /**
+     * 表示済みの聴牌パターンの捨て牌リスト (捨て牌の順)
+     */
+    private final List<JanPai> _tenpaiDiscardList = new ArrayList<JanPai>();
+    
+    /**
+     * 聴牌パターンの行リスト (捨て牌の順)
+     */
+    private final List<PatternRow> _tenpaiRowList = new ArrayList<PatternRow>();
+    
+    /**
+     * 向聴パターンの行リスト (向聴数・有効牌の残り枚数の順)
+     */
+    private final List<PatternRow> _shantenRowList = new ArrayList<PatternRow>();
+    
+    /**
+     * パターン一覧のアダプタ
+     */
+    private final PatternAdapter _patternAdapter = new PatternAdapter();
+    
+    
+    
+    /**
+     * 解析結果の購読者
+     * 
+     *  ※解析用ワーカーのスレッドから呼び出されるため、画面の更新は UI スレッドで行う。
+     */
+    private final AnalysisStream.Listener _streamListener = new AnalysisStream.Listener() {
+        public void onTenpaiPattern(final TenpaiPattern pattern, final List<WaitPattern> waitPatternList) {
+            runOnUiThread(new Runnable() {
+                public void run() {
+                    addTenpaiPattern(pattern, waitPatternList);
+                    _patternAdapter.notifyDataSetChanged();
+                }
+            });
+        }
+        
+        public void onFinished(final AnalysisResult result) {
+            runOnUiThread(new Runnable() {
+                public void run() {
+                    initializeTenpaiPatternView(result);
+                }
+            });
+        }
+    };
+    
+    /**
+     * 和了率の模擬試行の通知先
+     * 
+     *  ※解析用ワーカーのスレッドから呼び出されるため、画面の更新は UI スレッドで行う。
+     */
+    private final WinSimulator.Listener _simulationListener = new WinSimulator.Listener() {
+        public void onProgress(final WinSimulator simulator) {
+            runOnUiThread(new Runnable() {
+                public void run() {
+                    updateWinRateView();
+                }
+            });
+        }
+        
+        public void onFinished(final WinSimulator simulator) {
+            onProgress(simulator);
+        }
+    };
+    
+    
+    
+    /**
+     * パターン一覧のアダプタ
+     * 
+     *  ※聴牌パターン (捨て牌の順)、向聴パターンの順に並べ、画面に表示される行のみビューを結び付ける。
+     *  ※行ビューは聴牌パターン・向聴パターンの別に使い回す。
+     */
+    private final class PatternAdapter extends BaseAdapter {
+        
+        /**
+         * コンストラクタ
+         */
+        public PatternAdapter() {
+        }
+        
+        /**
+         * 全ての行が選択可能か
+         */
+        @Override
+        public boolean areAllItemsEnabled() {
+            return false;
+        }
+        
+        /**
+         * 行数を取得
+         */
+        public int getCount() {
+            return _tenpaiRowList.size() + _shantenRowList.size();
+        }
+        
+        /**
+         * 行を取得
+         */
+        public PatternRow getItem(final int position) {
+            final int tenpaiSize = _tenpaiRowList.size();
+            return (position < tenpaiSize) ? _tenpaiRowList.get(position) : _shantenRowList.get(position - tenpaiSize);
+        }
+        
+        /**
+         * 行IDを取得
+         */
+        public long getItemId(final int position) {
+            return position;
+        }
+        
+        /**
+         * 行ビューの種類を取得
+         */
+        @Override
+        public int getItemViewType(final int position) {
+            return (position < _tenpaiRowList.size()) ? VIEW_TYPE_TENPAI : VIEW_TYPE_SHANTEN;
+        }
+        
+        /**
+         * 行ビューを取得
+         */
+        public View getView(final int position, final View convertView, final ViewGroup parent) {
+            final boolean tenpai = (getItemViewType(position) == VIEW_TYPE_TENPAI);
+            final View view = (convertView != null) ? convertView : createPatternRowView(tenpai);
+            bindPatternRowView((PatternRowHolder)view.getTag(), getItem(position));
+            return view;
+        }
+        
+        /**
+         * 行ビューの種類数を取得
+         */
+        @Override
+        public int getViewTypeCount() {
+            return 2;
+        }
+        
+        /**
+         * 行が選択可能か
+         */
+        @Override
+        public boolean isEnabled(final int position) {
+            return false;
+        }
+        
+        
+        
+        /**
+         * 行ビューの種類 (聴牌パターン)
+         */
+        private static final int VIEW_TYPE_TENPAI = 0;
+        
+        /**
+         * 行ビューの種類 (向聴パターン)
+         */
+        private static final int VIEW_TYPE_SHANTEN = 1;
+    }
+    
+    /**
+     * パターン一覧の行
+     * 
+     *  ※表示する文字列は追加時に1度だけ生成し、結び付けでは参照のみ行う。
+     */
+    private static final class PatternRow {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param discard 捨て牌。
+         * @param title 牌リストの見出し。
+         * @param total 期待枚数の合計。
+         */
+        public PatternRow(final JanPai discard, final String title, final int total) {
+            _discard = discard;
+            _title = title;
+            _total = total;
+        }
+        
+        /**
+         * 牌を追加
+         * 
+         * @param pai 待ち牌または有効牌。
+         * @param text 牌の後に表示する文字列。
+         */
+        public void addJanPai(final JanPai pai, final String text) {
+            _janPaiList.add(pai);
+            _textList.add(text);
+        }
+        
+        /**
+         * 捨て牌を取得
+         * 
+         * @return 捨て牌。
+         */
+        public JanPai getDiscard() {
+            return _discard;
+        }
+        
+        /**
+         * 牌リストを取得
+         * 
+         * @return 待ち牌または有効牌のリスト。
+         */
+        public List<JanPai> getJanPaiList() {
+            return _janPaiList;
+        }
+        
+        /**
+         * 向聴数の文字列を取得
+         * 
+         * @return 向聴数の文字列。聴牌パターンならばnull。
+         */
+        public String getShantenText() {
+            return _shantenText;
+        }
+        
+        /**
+         * 牌毎の文字列リストを取得
+         * 
+         * @return 牌の後に表示する文字列のリスト。
+         */
+        public List<String> getTextList() {
+            return _textList;
+        }
+        
+        /**
+         * 牌リストの見出しを取得
+         * 
+         * @return 見出し。
+         */
+        public String getTitle() {
+            return _title;
+        }
+        
+        /**
+         * 期待枚数の合計を取得
+         * 
+         * @return 期待枚数の合計。
+         */
+        public int getTotal() {
+            return _total;
+        }
+        
+        /**
+         * 向聴数の文字列を設定
+         * 
+         * @param shantenText 向聴数の文字列。
+         */
+        public void setShantenText(final String shantenText) {
+            _shantenText = shantenText;
+        }
+        
+        
+        
+        /**
+         * 捨て牌
+         */
+        private final JanPai _discard;
+        
+        /**
+         * 牌リストの見出し
+         */
+        private final String _title;
+        
+        /**
+         * 期待枚数の合計
+         */
+        private final int _total;
+        
+        /**
+         * 待ち牌または有効牌のリスト
+         */
+        private final List<JanPai> _janPaiList = new ArrayList<JanPai>();
+        
+        /**
+         * 牌の後に表示する文字列のリスト
+         */
+        private final List<String> _textList = new ArrayList<String>();
+        
+        /**
+         * 向聴数の文字列 (聴牌パターンならばnull)
+         */
+        private String _shantenText = null;
+    }
+    
+    /**
+     * パターン行ビューの保持
+     * 
+     *  ※行ビューのタグに設定し、結び付けの度に子ビューを検索しないようにする。
+     */
+    private static final class PatternRowHolder {
+        
+        /**
+         * コンストラクタ
+         */
+        public PatternRowHolder() {
+        }
+        
+        /**
+         * 結び付けている行
+         */
+        private PatternRow _row = null;
+        
+        /**
+         * 捨て牌の画像ビュー
+         */
+        private ImageView _discardImageView = null;
+        
+        /**
+         * 牌リストのスクロールビュー
+         */
+        private HorizontalScrollView _scrollView = null;
+        
+        /**
+         * 牌リストビュー
+         */
+        private LinearLayout _janPaiListView = null;
+        
+        /**
+         * 牌リストの見出しビュー
+         */
+        private TextView _titleView = null;
+        
+        /**
+         * 期待枚数ビュー
+         */
+        private TextView _expectationView = null;
+        
+        /**
+         * 向聴数ビュー (聴牌パターンならばnull)
+         */
+        private TextView _shantenView = null;
+        
+        /**
+         * 和了率ビュー (向聴パターンならばnull)
+         */
+        private TextView _winRateView = null;
+        
+        /**
+         * 自摸率ビュー (向聴パターンならばnull)
+         */
+        private TextView _drawRateView = null;
+    }
+    
+    /**
+     * 和了率の模擬試行の実行処理
+     */
+    private static final class SimulationRunner implements Runnable {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param simulator 和了率の模擬試行。
+         * @param listener 進捗の通知先。
+         */
+        public SimulationRunner(final WinSimulator simulator, final WinSimulator.Listener listener) {
+            _simulator = simulator;
+            _listener = listener;
+        }
+        
+        /**
+         * 処理を実行
+         */
+        public void run() {
+            try {
+                _simulator.run(SIMULATION_BUDGET, _listener);
+            }
+            catch (final InterruptedException e) {
+                // 画面の破棄により取り消された
+            }
+        }
+        
+        /**
+         * 和了率の模擬試行
+         */
+        private final WinSimulator _simulator;
+        
+        /**
+         * 進捗の通知先
+         */
+        private final WinSimulator.Listener _listener;
+    }
+    
 }
@@ -0,0 +1,113 @@
+/**
+ * ResultRegistry.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import actroid.mtp.check.AnalysisResult;
+
+
+
+/**
+ * 結果画面へ渡す解析結果の登録簿
+ * 
+ *  ※解析結果は Intent に直列化して渡さず、ここに登録して ID のみを渡す。結果画面は ID から解析結果を引き当てる。
+ *  ※同一プロセス内でのみ有効。プロセスが再生成された場合は引き当てに失敗するため、結果画面を閉じること。
+ *  ※直近の数件のみ保持し、古いものから破棄する。
+ */
+public final class ResultRegistry {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private ResultRegistry() {
+    }
+    
+    
+    
+    /**
+     * インスタンスを取得
+     * 
+     * @return インスタンス。
+     */
+    public static ResultRegistry getInstance() {
+        return INSTANCE;
+    }
+    
+    
+    
+    /**
+     * 解析結果を取得
+     * 
+     * @param id 登録ID。
+     * @return 解析結果。破棄済み、または未登録ならばnull。
+     */
+    public AnalysisResult get(final long id) {
+        synchronized (_REGISTRY_LOCK) {
+            return _resultMap.get(id);
+        }
+    }
+    
+    /**
+     * 解析結果を登録
+     * 
+     * @param result 解析結果。
+     * @return 登録ID。
+     */
+    public long register(final AnalysisResult result) {
+        if (result == null) {
+            throw new NullPointerException("Analysis result is null.");
+        }
+        
+        synchronized (_REGISTRY_LOCK) {
+            final long id = ++_lastID;
+            _resultMap.put(id, result);
+            return id;
+        }
+    }
+    
+    
+    
+    /**
+     * 自分自身のインスタンス
+     */
+    private static final ResultRegistry INSTANCE = new ResultRegistry();
+    
+    /**
+     * 上限件数
+     */
+    private static final int CAPACITY = 8;
+    
+    
+    
+    /**
+     * ロックオブジェクト
+     */
+    private final Object _REGISTRY_LOCK = new Object();
+    
+    
+    
+    /**
+     * 最後に発行した登録ID
+     */
+    private long _lastID = 0;
+    
+    /**
+     * 解析結果 (登録順)
+     */
+    private final Map<Long, AnalysisResult> _resultMap = new LinkedHashMap<Long, AnalysisResult>(CAPACITY * 2, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, AnalysisResult> eldest) {
+            return size() > CAPACITY;
+        }
+        
+        private static final long serialVersionUID = 1L;
+    };
+    
+}
@@ -0,0 +1,303 @@
+/**
+ * SpeculativeAnalyzer.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import wiz.project.jan.Field;
+import wiz.project.jan.Hand;
+import wiz.project.jan.JanPai;
+import wiz.project.jan.Wind;
+import actroid.mtp.check.VisibleTileTracker;
+import android.os.Process;
+
+
+
+/**
+ * 先行解析用実行スレッド
+ * 
+ *  ※手牌が残り1牌で埋まる (13牌) 間に、自摸り得る全ての牌について14牌の解析要求を先に実行しておく。
+ *    14牌目が入力された時点で解析済みならば、その要求をそのまま判定に用いる。
+ *  ※常駐する1本のスレッドで1牌ずつ順に実行する。UI スレッド・通常の解析と競合しないよう、最低優先度で実行する。
+ *    捨て牌候補の処理も、通常の解析と共有しない先行解析用のワーカープール (ワーカー1本・最低優先度) で行う。
+ *  ※元の手牌 (面前手牌・確定面子・見えている牌・場風のいずれか) が変わった時点で、未完了の解析を取り消し、結果表を破棄する。
+ *  ※14牌目が入力された場合は実行中の解析のみ中断し、同じ手牌に戻れば残りの牌から再開する。
+ */
+public final class SpeculativeAnalyzer {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private SpeculativeAnalyzer() {
+        _thread = new Thread(new SpeculateLoop(), "SpeculativeAnalyzer");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+    
+    
+    
+    /**
+     * インスタンスを取得
+     * 
+     * @return インスタンス。
+     */
+    public static SpeculativeAnalyzer getInstance() {
+        return INSTANCE;
+    }
+    
+    
+    
+    /**
+     * 中断
+     * 
+     *  ※実行中の解析を取り消す。解析済みの結果表と未実行の牌は保持する。
+     */
+    public void pause() {
+        synchronized (_SPECULATE_LOCK) {
+            _active = false;
+            cancelRunning();
+        }
+    }
+    
+    /**
+     * 先行解析を開始
+     * 
+     *  ※元の手牌が前回と同じならば、未実行の牌から再開する。
+     * 
+     * @param hand 残り1牌で埋まる手牌。
+     */
+    public void speculate(final Hand hand) {
+        if (hand == null) {
+            throw new NullPointerException("Hand is null.");
+        }
+        if (hand.getUsableSize() != 1) {
+            throw new IllegalArgumentException("Invalid usable size - " + hand.getUsableSize());
+        }
+        
+        final int[] visible = VisibleTileTracker.getInstance().getCountArray();
+        final Wind wind = Field.getInstance().getWind();
+        synchronized (_SPECULATE_LOCK) {
+            if (!isSameBase(hand, visible, wind)) {
+                // 取り消した要求は未実行に戻さない
+                cancelRunning();
+                _running = null;
+                _base = hand.clone();
+                _baseVisible = visible;
+                _baseWind = wind;
+                _requestMap.clear();
+                _drawList.clear();
+                final Map<JanPai, Integer> allMap = hand.getAllJanPaiMap();
+                for (final JanPai pai : JanPai.values()) {
+                    final Integer count = allMap.get(pai);
+                    if (count == null || count < 4) {
+                        _drawList.add(pai);
+                    }
+                }
+            }
+            _active = true;
+            _SPECULATE_LOCK.notifyAll();
+        }
+    }
+    
+    /**
+     * 解析済みの要求を取得
+     * 
+     *  ※実行中の先行解析は中断する。
+     * 
+     * @param hand 14牌目を入力した手牌。
+     * @return 解析済みの要求。該当する先行解析が無い、または未完了ならばnull。
+     */
+    public AnalysisRequest take(final Hand hand) {
+        if (hand == null) {
+            throw new NullPointerException("Hand is null.");
+        }
+        
+        final int[] visible = VisibleTileTracker.getInstance().getCountArray();
+        final Wind wind = Field.getInstance().getWind();
+        synchronized (_SPECULATE_LOCK) {
+            _active = false;
+            cancelRunning();
+            if (_base == null || !Arrays.equals(_baseVisible, visible) || _baseWind != wind) {
+                return null;
+            }
+            for (final Map.Entry<JanPai, AnalysisRequest> entry : _requestMap.entrySet()) {
+                final Hand drawn = _base.clone();
+                drawn.addJanPai(entry.getKey());
+                if (drawn.equals(hand)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+    }
+    
+    
+    
+    /**
+     * 実行中の解析を取り消す
+     */
+    private void cancelRunning() {
+        if (_running != null) {
+            _running.cancel();
+            _thread.interrupt();
+        }
+    }
+    
+    /**
+     * 元の手牌が同じか
+     * 
+     * @param hand 手牌。
+     * @param visible 手牌以外で見えている牌の所持数配列。
+     * @param wind 場風・自風。
+     * @return 判定結果。
+     */
+    private boolean isSameBase(final Hand hand, final int[] visible, final Wind wind) {
+        return _base != null && _base.equals(hand) && Arrays.equals(_baseVisible, visible) && _baseWind == wind;
+    }
+    
+    /**
+     * 次の解析要求を生成 (実行可能になるまで待機)
+     * 
+     * @return 解析要求。
+     */
+    private AnalysisRequest next() {
+        synchronized (_SPECULATE_LOCK) {
+            _running = null;
+            while (!_active || _drawList.isEmpty()) {
+                try {
+                    _SPECULATE_LOCK.wait();
+                }
+                catch (final InterruptedException e) {
+                    // 完了直後の要求を取り消した場合の割り込みは無視する
+                }
+            }
+            _runningDraw = _drawList.removeFirst();
+            final Hand drawn = _base.clone();
+            drawn.addJanPai(_runningDraw);
+            _running = new AnalysisRequest(drawn, true);
+            
+            // 前の要求への割り込みを持ち越さない
+            Thread.interrupted();
+            return _running;
+        }
+    }
+    
+    /**
+     * 解析結果を反映
+     * 
+     *  ※取り消された要求は、元の手牌が変わっていなければ未実行に戻す。
+     * 
+     * @param request 実行した解析要求。
+     */
+    private void finish(final AnalysisRequest request) {
+        synchronized (_SPECULATE_LOCK) {
+            if (_running != request) {
+                // 元の手牌が変わった
+                return;
+            }
+            if (request.getResult() != null) {
+                _requestMap.put(_runningDraw, request);
+            }
+            else {
+                _drawList.addFirst(_runningDraw);
+            }
+            _running = null;
+        }
+    }
+    
+    
+    
+    /**
+     * 自分自身のインスタンス
+     */
+    private static final SpeculativeAnalyzer INSTANCE = new SpeculativeAnalyzer();
+    
+    
+    
+    /**
+     * ロックオブジェクト
+     */
+    private final Object _SPECULATE_LOCK = new Object();
+    
+    
+    
+    /**
+     * 実行スレッド
+     */
+    private final Thread _thread;
+    
+    /**
+     * 元の手牌 (未開始ならばnull)
+     */
+    private Hand _base = null;
+    
+    /**
+     * 元の手牌以外で見えている牌の所持数配列
+     */
+    private int[] _baseVisible = null;
+    
+    /**
+     * 元の場風・自風
+     */
+    private Wind _baseWind = null;
+    
+    /**
+     * 実行可能か
+     */
+    private boolean _active = false;
+    
+    /**
+     * 未実行の自摸牌リスト
+     */
+    private final LinkedList<JanPai> _drawList = new LinkedList<JanPai>();
+    
+    /**
+     * 自摸牌毎の解析済みの要求 (結果表)
+     */
+    private final Map<JanPai, AnalysisRequest> _requestMap = new EnumMap<JanPai, AnalysisRequest>(JanPai.class);
+    
+    /**
+     * 実行中の解析要求
+     */
+    private AnalysisRequest _running = null;
+    
+    /**
+     * 実行中の自摸牌
+     */
+    private JanPai _runningDraw = null;
+    
+    
+    
+    /**
+     * 実行ループ
+     */
+    private final class SpeculateLoop implements Runnable {
+        
+        /**
+         * コンストラクタ
+         */
+        public SpeculateLoop() {
+        }
+        
+        /**
+         * 処理を実行
+         */
+        public void run() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_LOWEST);
+            while (true) {
+                final AnalysisRequest request = next();
+                request.run();
+                finish(request);
+            }
+        }
+    }
+    
+}
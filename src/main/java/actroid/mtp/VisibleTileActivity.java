@@ -0,0 +1,211 @@
+/**
+ * VisibleTileActivity.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp;
+
+import java.util.Map;
+
+import wiz.android.util.UncaughtExceptionHandlerFactory;
+import wiz.project.jan.JanPai;
+import actroid.mtp.check.VisibleTileTracker;
+import android.app.Activity;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.Button;
+import android.widget.ImageButton;
+import android.widget.TextView;
+
+
+
+/**
+ * 見え牌入力画面
+ * 
+ *  ※河・ドラ表示牌・他家の副露など、手牌以外で見えている牌を入力する。
+ *  ※押下で1枚追加、長押しで1枚削除する。見えている枚数が多いほど牌を薄く表示する。
+ *  ※閉じる際に手牌ビューを更新し、見えている牌を反映した解析を要求させる。
+ */
+public final class VisibleTileActivity extends Activity {
+    
+    /**
+     * コンストラクタ
+     */
+    public VisibleTileActivity() {
+    }
+    
+    
+    
+    /**
+     * 画面生成時の処理
+     */
+    @Override
+    protected void onCreate(final Bundle savedState) {
+        super.onCreate(savedState);
+        setContentView(R.layout.activity_visible);
+        
+        final UncaughtExceptionHandlerFactory factory = new UncaughtExceptionHandlerFactory();
+        Thread.setDefaultUncaughtExceptionHandler(factory.create(this));
+        
+        initializeJanPaiButton();
+        initializeClearButton();
+        initializeOKButton();
+        updateView();
+    }
+    
+    /**
+     * 画面破棄時の処理
+     * 
+     *  ※確定ボタン以外 (戻るボタン) で閉じた場合も、見えている牌を反映させる。
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        HandManager.getInstance().updateView();
+    }
+    
+    
+    
+    /**
+     * リセットボタンを初期化
+     */
+    private void initializeClearButton() {
+        final Button button = (Button)findViewById(R.id.button_visible_clear);
+        button.setOnClickListener(new ClearButtonListener());
+    }
+    
+    /**
+     * 雀牌ボタンを初期化
+     */
+    private void initializeJanPaiButton() {
+        for (final Map.Entry<JanPai, Integer> entry : MTPConst.VISIBLE_JAN_PAI_BUTTON_ID_MAP.entrySet()) {
+            final ImageButton button = (ImageButton)findViewById(entry.getValue());
+            final JanPaiButtonListener listener = new JanPaiButtonListener(entry.getKey());
+            button.setOnClickListener(listener);
+            button.setOnLongClickListener(listener);
+        }
+    }
+    
+    /**
+     * 確定ボタンを初期化
+     */
+    private void initializeOKButton() {
+        final Button button = (Button)findViewById(R.id.button_visible_ok);
+        button.setOnClickListener(new OKButtonListener());
+    }
+    
+    /**
+     * 画面を更新
+     */
+    private void updateView() {
+        final VisibleTileTracker tracker = VisibleTileTracker.getInstance();
+        for (final Map.Entry<JanPai, Integer> entry : MTPConst.VISIBLE_JAN_PAI_BUTTON_ID_MAP.entrySet()) {
+            final ImageButton button = (ImageButton)findViewById(entry.getValue());
+            final int count = tracker.getCount(entry.getKey());
+            button.setAlpha(ALPHA_MAX - count * ALPHA_STEP);
+        }
+        
+        final TextView text = (TextView)findViewById(R.id.visible_count_text);
+        text.setText(getString(R.string.visible_select) + " (" + tracker.getTotalCount() + "枚)");
+    }
+    
+    
+    
+    /**
+     * 透明度の最大値
+     */
+    private static final int ALPHA_MAX = 255;
+    
+    /**
+     * 見えている牌1枚あたりの透明度の減少量
+     */
+    private static final int ALPHA_STEP = 48;
+    
+    
+    
+    /**
+     * 雀牌ボタンリスナー
+     */
+    private final class JanPaiButtonListener implements View.OnClickListener, View.OnLongClickListener {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param pai 雀牌。
+         */
+        public JanPaiButtonListener(final JanPai pai) {
+            _pai = pai;
+        }
+        
+        /**
+         * クリック時の処理
+         */
+        public void onClick(final View view) {
+            // 手牌と合わせて4枚を超えないようにする
+            final int count = HandManager.getInstance().getAllJanPaiMap().get(_pai);
+            if (count + VisibleTileTracker.getInstance().getCount(_pai) >= 4) {
+                return;
+            }
+            if (VisibleTileTracker.getInstance().add(_pai)) {
+                updateView();
+            }
+        }
+        
+        /**
+         * 長押し時の処理
+         */
+        public boolean onLongClick(final View view) {
+            if (VisibleTileTracker.getInstance().remove(_pai)) {
+                updateView();
+            }
+            return true;
+        }
+        
+        /**
+         * 牌の種類
+         */
+        private final JanPai _pai;
+    }
+    
+    /**
+     * 確定ボタンリスナー
+     */
+    private final class OKButtonListener implements View.OnClickListener {
+        
+        /**
+         * コンストラクタ
+         */
+        public OKButtonListener() {
+        }
+        
+        /**
+         * クリック時の処理
+         */
+        public void onClick(final View view) {
+            finish();
+        }
+    }
+    
+    /**
+     * リセットボタンリスナー
+     */
+    private final class ClearButtonListener implements View.OnClickListener {
+        
+        /**
+         * コンストラクタ
+         */
+        public ClearButtonListener() {
+        }
+        
+        /**
+         * クリック時の処理
+         */
+        public void onClick(final View view) {
+            VisibleTileTracker.getInstance().clear();
+            updateView();
+        }
+    }
+    
+}
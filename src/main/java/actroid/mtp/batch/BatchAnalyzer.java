@@ -0,0 +1,429 @@
+/**
+ * BatchAnalyzer.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import actroid.mtp.check.AnalysisWorkerPool;
+import actroid.mtp.check.CountCheckUtil;
+import actroid.mtp.check.HandNotation;
+import actroid.mtp.check.HandState;
+import actroid.mtp.check.TenpaiAnalyzer;
+import wiz.project.jan.Hand;
+import wiz.project.jan.JanPai;
+import wiz.project.jan.TenpaiPattern;
+
+
+
+/**
+ * 聴牌パターン一括解析 (コマンドライン)
+ * 
+ *  ※1行1手牌 (例 : 123m456p789s11z、234m05p [567s] [777z] (1111m)) のテキストを読み、聴牌パターンを TSV または JSON Lines で出力する。
+ *    表記は HandNotation に従い、確定面子の牌は見えている牌として期待枚数に反映する。
+ *  ※Android に依存しない解析処理 (actroid.mtp.check) のみを使い、通常の JVM で実行する。
+ *      java -cp bin/classes:libs/jan.jar actroid.mtp.batch.BatchAnalyzer [-json] [入力ファイル [出力ファイル]]
+ *    ファイルを省略した場合は標準入力・標準出力を用いる。
+ *  ※手牌毎の解析を CPU コア数のスレッドで並列に実行し、結果は入力順に出力する。
+ *    解析中の手牌は一定数までとし、入力の大きさに関わらず使用メモリを一定に保つ。
+ *  ※空行と # で始まる行は読み飛ばす。表記が不正な行はエラーとして出力し、処理を続ける。
+ */
+public final class BatchAnalyzer {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private BatchAnalyzer() {
+    }
+    
+    
+    
+    /**
+     * エントリポイント
+     * 
+     * @param args 引数。
+     * @throws IOException 入出力に失敗した。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        boolean json = false;
+        String inputPath = null;
+        String outputPath = null;
+        for (final String arg : args) {
+            if ("-json".equals(arg)) {
+                json = true;
+            }
+            else if ("-tsv".equals(arg)) {
+                json = false;
+            }
+            else if (arg.startsWith("-")) {
+                System.err.println("Usage: BatchAnalyzer [-tsv|-json] [input [output]]");
+                System.exit(1);
+                return;
+            }
+            else if (inputPath == null) {
+                inputPath = arg;
+            }
+            else {
+                outputPath = arg;
+            }
+        }
+        
+        final InputStream in = (inputPath == null) ? System.in : new FileInputStream(inputPath);
+        final OutputStream out = (outputPath == null) ? System.out : new FileOutputStream(outputPath);
+        final long start = System.nanoTime();
+        final int count;
+        try {
+            final Reader reader = new InputStreamReader(in, CHARSET);
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(out, CHARSET), BUFFER_SIZE);
+            count = analyze(new BufferedReader(reader, BUFFER_SIZE), writer, json);
+            writer.flush();
+        }
+        finally {
+            if (in != System.in) {
+                in.close();
+            }
+            if (out != System.out) {
+                out.close();
+            }
+        }
+        
+        final double elapsed = (System.nanoTime() - start) / 1e9;
+        System.err.println(count + " hands in " + String.format("%.2f", elapsed) + " s (" +
+                           String.format("%.0f", count / Math.max(elapsed, 1e-9)) + " hands/s)");
+    }
+    
+    
+    
+    /**
+     * 一括解析
+     * 
+     * @param reader 入力。
+     * @param writer 出力。
+     * @param json JSON Lines で出力するか (falseならば TSV)。
+     * @return 解析した手牌数。
+     * @throws IOException 入出力に失敗した。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static int analyze(final BufferedReader reader, final Writer writer, final boolean json) throws IOException, InterruptedException {
+        if (reader == null) {
+            throw new NullPointerException("Reader is null.");
+        }
+        if (writer == null) {
+            throw new NullPointerException("Writer is null.");
+        }
+        
+        final int threadCount = AnalysisWorkerPool.getInstance().getWorkerCount();
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, new BatchThreadFactory());
+        final Queue<Future<String>> pendingQueue = new ArrayDeque<Future<String>>();
+        final int window = threadCount * WINDOW_PER_THREAD;
+        int count = 0;
+        try {
+            if (!json) {
+                writer.write(TSV_HEADER);
+            }
+            
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                final String hand = line.trim();
+                if (hand.length() == 0 || hand.charAt(0) == '#') {
+                    continue;
+                }
+                pendingQueue.add(executor.submit(new HandTask(lineNumber, hand, json)));
+                count++;
+                
+                // 解析中の手牌数を制限し、先頭から順に出力する
+                if (pendingQueue.size() >= window) {
+                    writer.write(take(pendingQueue));
+                }
+            }
+            while (!pendingQueue.isEmpty()) {
+                writer.write(take(pendingQueue));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return count;
+    }
+    
+    
+    
+    /**
+     * 先頭の解析結果を取得
+     * 
+     * @param pendingQueue 解析中の結果キュー。
+     * @return 出力テキスト。
+     * @throws InterruptedException 割り込まれた。
+     */
+    private static String take(final Queue<Future<String>> pendingQueue) throws InterruptedException {
+        try {
+            return pendingQueue.remove().get();
+        }
+        catch (final ExecutionException e) {
+            throw new IllegalStateException("Batch analysis failed.", e.getCause());
+        }
+    }
+    
+    /**
+     * JSON 文字列に変換
+     * 
+     * @param source 変換元。
+     * @return JSON 文字列 (引用符を含む)。
+     */
+    private static String quote(final String source) {
+        final StringBuilder buf = new StringBuilder(source.length() + 2).append('"');
+        for (int i = 0; i < source.length(); i++) {
+            final char c = source.charAt(i);
+            switch (c) {
+            case '"':
+            case '\\':
+                buf.append('\\').append(c);
+                break;
+            default:
+                if (c < 0x20) {
+                    buf.append(String.format("\\u%04x", (int)c));
+                }
+                else {
+                    buf.append(c);
+                }
+                break;
+            }
+        }
+        return buf.append('"').toString();
+    }
+    
+    /**
+     * TSV の値に変換
+     * 
+     * @param source 変換元。
+     * @return タブ・改行を空白に置き換えた文字列。
+     */
+    private static String toTsvValue(final String source) {
+        return source.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+    
+    
+    
+    /**
+     * 文字コード
+     */
+    private static final String CHARSET = "UTF-8";
+    
+    /**
+     * 入出力のバッファサイズ
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * スレッドあたりの解析中の手牌数
+     */
+    private static final int WINDOW_PER_THREAD = 16;
+    
+    /**
+     * TSV のヘッダ
+     */
+    private static final String TSV_HEADER = "line\thand\tdiscard\tcompletable\texpectation\n";
+    
+    
+    
+    /**
+     * 手牌1つ分の解析処理
+     */
+    private static final class HandTask implements Callable<String> {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param lineNumber 行番号。
+         * @param hand 手牌の表記。
+         * @param json JSON Lines で出力するか。
+         */
+        public HandTask(final int lineNumber, final String hand, final boolean json) {
+            _lineNumber = lineNumber;
+            _hand = hand;
+            _json = json;
+        }
+        
+        
+        
+        /**
+         * 処理を実行
+         * 
+         * @return 出力テキスト (改行を含む)。
+         * @throws InterruptedException 割り込まれた。
+         */
+        public String call() throws InterruptedException {
+            final List<TenpaiPattern> patternList;
+            try {
+                final Hand hand = HandNotation.parseHand(_hand);
+                final int[] count = CountCheckUtil.convertJanPaiMap(hand.getMenZenMap());
+                final int total = CountCheckUtil.getTotalCount(count);
+                if (total != hand.getLimitSize()) {
+                    throw new IllegalArgumentException("Hand must have " + hand.getLimitSize() + " concealed tiles - " + total);
+                }
+                final HandState state = new HandState(count);
+                state.refresh();
+                patternList = TenpaiAnalyzer.getTenpaiPatternList(state, CountCheckUtil.convertJanPaiMap(hand.getAllJanPaiMap()));
+            }
+            catch (final IllegalArgumentException e) {
+                return _json ? createErrorJson(e.getMessage()) : createErrorTsv(e.getMessage());
+            }
+            return _json ? createJson(patternList) : createTsv(patternList);
+        }
+        
+        
+        
+        /**
+         * エラーの JSON を生成
+         * 
+         * @param message エラーメッセージ。
+         * @return 出力テキスト。
+         */
+        private String createErrorJson(final String message) {
+            return "{\"line\":" + _lineNumber + ",\"hand\":" + quote(_hand) + ",\"error\":" + quote(message) + "}\n";
+        }
+        
+        /**
+         * エラーの TSV を生成
+         * 
+         * @param message エラーメッセージ。
+         * @return 出力テキスト。
+         */
+        private String createErrorTsv(final String message) {
+            return _lineNumber + "\t" + toTsvValue(_hand) + "\tERROR\t" + toTsvValue(message) + "\t\n";
+        }
+        
+        /**
+         * JSON を生成
+         * 
+         *  ※1手牌を1行とし、聴牌パターンを配列で出力する (不聴ならば空配列)。
+         * 
+         * @param patternList 聴牌パターンリスト。
+         * @return 出力テキスト。
+         */
+        private String createJson(final List<TenpaiPattern> patternList) {
+            final StringBuilder buf = new StringBuilder();
+            buf.append("{\"line\":").append(_lineNumber);
+            buf.append(",\"hand\":").append(quote(_hand));
+            buf.append(",\"tenpai\":[");
+            for (int i = 0; i < patternList.size(); i++) {
+                final TenpaiPattern pattern = patternList.get(i);
+                if (i > 0) {
+                    buf.append(',');
+                }
+                buf.append("{\"discard\":\"").append(HandNotation.format(pattern.getDiscard().ordinal())).append('"');
+                buf.append(",\"expectation\":{");
+                boolean first = true;
+                for (final Map.Entry<JanPai, Integer> entry : pattern.getExpectation().entrySet()) {
+                    if (!first) {
+                        buf.append(',');
+                    }
+                    buf.append('"').append(HandNotation.format(entry.getKey().ordinal())).append("\":").append(entry.getValue());
+                    first = false;
+                }
+                buf.append("}}");
+            }
+            return buf.append("]}\n").toString();
+        }
+        
+        /**
+         * TSV を生成
+         * 
+         *  ※聴牌パターン1つを1行とする。不聴ならば捨て牌以降を空欄とした1行を出力する。
+         * 
+         * @param patternList 聴牌パターンリスト。
+         * @return 出力テキスト。
+         */
+        private String createTsv(final List<TenpaiPattern> patternList) {
+            final String prefix = _lineNumber + "\t" + toTsvValue(_hand) + "\t";
+            if (patternList.isEmpty()) {
+                return prefix + "\t\t\n";
+            }
+            
+            final StringBuilder buf = new StringBuilder();
+            for (final TenpaiPattern pattern : patternList) {
+                buf.append(prefix).append(HandNotation.format(pattern.getDiscard().ordinal())).append('\t');
+                int total = 0;
+                boolean first = true;
+                for (final JanPai pai : pattern.getCompletableList()) {
+                    if (!first) {
+                        buf.append(',');
+                    }
+                    buf.append(HandNotation.format(pai.ordinal()));
+                    total += pattern.getExpectation().get(pai);
+                    first = false;
+                }
+                buf.append('\t').append(total).append('\n');
+            }
+            return buf.toString();
+        }
+        
+        
+        
+        /**
+         * 行番号
+         */
+        private final int _lineNumber;
+        
+        /**
+         * 手牌の表記
+         */
+        private final String _hand;
+        
+        /**
+         * JSON Lines で出力するか
+         */
+        private final boolean _json;
+    }
+    
+    /**
+     * 一括解析スレッド生成処理
+     */
+    private static final class BatchThreadFactory implements ThreadFactory {
+        
+        /**
+         * コンストラクタ
+         */
+        public BatchThreadFactory() {
+        }
+        
+        /**
+         * スレッドを生成
+         * 
+         *  ※手牌毎の処理は捨て牌候補をワーカープールに投入して待つため、デーモンスレッドとする。
+         */
+        public Thread newThread(final Runnable task) {
+            final Thread thread = new Thread(task, "BatchAnalyzer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
+}
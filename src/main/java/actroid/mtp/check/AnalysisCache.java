@@ -0,0 +1,167 @@
+/**
+ * AnalysisCache.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+
+/**
+ * 解析結果キャッシュ
+ * 
+ *  ※手牌キー毎に解析結果を保持し、同じ手牌の再判定では解析を省略する。
+ *  ※上限件数を超えた場合は、最も長く参照されていない結果から破棄する (LRU)。
+ */
+public final class AnalysisCache {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private AnalysisCache() {
+    }
+    
+    
+    
+    /**
+     * インスタンスを取得
+     * 
+     * @return インスタンス。
+     */
+    public static AnalysisCache getInstance() {
+        return INSTANCE;
+    }
+    
+    
+    
+    /**
+     * 全消去
+     */
+    public void clear() {
+        synchronized (_CACHE_LOCK) {
+            _cache.clear();
+        }
+    }
+    
+    /**
+     * 解析結果を取得
+     * 
+     * @param key 手牌キー。
+     * @return 解析結果。未登録ならばnull。
+     */
+    public AnalysisResult get(final HandKey key) {
+        if (key == null) {
+            throw new NullPointerException("Hand key is null.");
+        }
+        
+        final AnalysisResult result;
+        synchronized (_CACHE_LOCK) {
+            result = _cache.get(key);
+        }
+        if (result != null) {
+            _hitCount.incrementAndGet();
+        }
+        else {
+            _missCount.incrementAndGet();
+        }
+        return result;
+    }
+    
+    /**
+     * ヒット数を取得
+     * 
+     * @return ヒット数。
+     */
+    public long getHitCount() {
+        return _hitCount.get();
+    }
+    
+    /**
+     * ミス数を取得
+     * 
+     * @return ミス数。
+     */
+    public long getMissCount() {
+        return _missCount.get();
+    }
+    
+    /**
+     * 登録件数を取得
+     * 
+     * @return 登録件数。
+     */
+    public int getSize() {
+        synchronized (_CACHE_LOCK) {
+            return _cache.size();
+        }
+    }
+    
+    /**
+     * 解析結果を登録
+     * 
+     * @param key 手牌キー。
+     * @param result 解析結果。
+     */
+    public void put(final HandKey key, final AnalysisResult result) {
+        if (key == null) {
+            throw new NullPointerException("Hand key is null.");
+        }
+        if (result == null) {
+            throw new NullPointerException("Analysis result is null.");
+        }
+        
+        synchronized (_CACHE_LOCK) {
+            _cache.put(key, result);
+        }
+    }
+    
+    
+    
+    /**
+     * 自分自身のインスタンス
+     */
+    private static final AnalysisCache INSTANCE = new AnalysisCache();
+    
+    /**
+     * 上限件数
+     */
+    private static final int CAPACITY = 128;
+    
+    
+    
+    /**
+     * ロックオブジェクト
+     */
+    private final Object _CACHE_LOCK = new Object();
+    
+    
+    
+    /**
+     * 解析結果 (参照順)
+     */
+    private final Map<HandKey, AnalysisResult> _cache = new LinkedHashMap<HandKey, AnalysisResult>(CAPACITY * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<HandKey, AnalysisResult> eldest) {
+            return size() > CAPACITY;
+        }
+        
+        private static final long serialVersionUID = 1L;
+    };
+    
+    /**
+     * ヒット数
+     */
+    private final AtomicLong _hitCount = new AtomicLong();
+    
+    /**
+     * ミス数
+     */
+    private final AtomicLong _missCount = new AtomicLong();
+    
+}
@@ -0,0 +1,195 @@
+/**
+ * AnalysisResult.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import wiz.project.jan.JanPai;
+import wiz.project.jan.TenpaiPattern;
+import wiz.project.jan.util.JanPaiUtil;
+
+
+
+/**
+ * 手牌の解析結果
+ * 
+ *  ※聴牌パターン・待ちパターン・向聴パターン・和了済みかの組。生成後は変更できない。
+ *  ※待ちパターン (和了形の分解と待ちの形) も結果に含めてキャッシュし、表示時に再探索しない。
+ *  ※キャッシュには手牌のみで期待枚数を求めた結果を保持し、手牌以外で見えている牌は取得時に除く (excludeVisible)。
+ */
+public final class AnalysisResult {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param tenpaiPatternList 聴牌パターンリスト。
+     * @param waitPatternList 待ちパターンリスト。
+     * @param shantenPatternList 向聴パターンリスト。
+     * @param completed 和了済みか。
+     */
+    public AnalysisResult(final List<TenpaiPattern> tenpaiPatternList,
+                          final List<WaitPattern> waitPatternList,
+                          final List<ShantenPattern> shantenPatternList,
+                          final boolean completed) {
+        if (tenpaiPatternList == null) {
+            throw new NullPointerException("Tenpai pattern list is null.");
+        }
+        if (waitPatternList == null) {
+            throw new NullPointerException("Wait pattern list is null.");
+        }
+        if (shantenPatternList == null) {
+            throw new NullPointerException("Shanten pattern list is null.");
+        }
+        _tenpaiPatternList = Collections.unmodifiableList(new ArrayList<TenpaiPattern>(tenpaiPatternList));
+        _waitPatternList = Collections.unmodifiableList(new ArrayList<WaitPattern>(waitPatternList));
+        _shantenPatternList = Collections.unmodifiableList(new ArrayList<ShantenPattern>(shantenPatternList));
+        _completed = completed;
+    }
+    
+    
+    
+    /**
+     * 聴牌パターンから見えている牌を除く
+     * 
+     * @param pattern 手牌のみで期待枚数を求めた聴牌パターン。
+     * @param visible 手牌以外で見えている牌の所持数配列。
+     * @return 期待枚数から見えている牌を除いた聴牌パターン。待ちが全て見えている (枯れている) 場合はnull。
+     */
+    public static TenpaiPattern excludeVisible(final TenpaiPattern pattern, final int[] visible) {
+        final Map<JanPai, Integer> expectation = CountCheckUtil.getExpectation(pattern.getExpectation(), visible);
+        if (JanPaiUtil.getJanPaiTotalCount(expectation) == 0) {
+            return null;
+        }
+        return new TenpaiPattern(pattern.getDiscard(), pattern.getCompletableList(), expectation);
+    }
+    
+    
+    
+    /**
+     * 解析結果から見えている牌を除く
+     * 
+     *  ※期待枚数から見えている牌を除き、待ちが全て見えている (枯れている) 捨て牌は聴牌パターン・待ちパターンから除く。
+     *  ※向聴パターンは有効牌の残り枚数で並べ直す。
+     * 
+     * @param visible 手牌以外で見えている牌の所持数配列。
+     * @return 見えている牌を除いた解析結果。見えている牌が無ければ自分自身。
+     */
+    public AnalysisResult excludeVisible(final int[] visible) {
+        if (CountCheckUtil.getTotalCount(visible) == 0) {
+            return this;
+        }
+        
+        final List<TenpaiPattern> tenpaiPatternList = new ArrayList<TenpaiPattern>(_tenpaiPatternList.size());
+        final Set<JanPai> discardSet = EnumSet.noneOf(JanPai.class);
+        for (final TenpaiPattern pattern : _tenpaiPatternList) {
+            final TenpaiPattern live = excludeVisible(pattern, visible);
+            if (live != null) {
+                tenpaiPatternList.add(live);
+                discardSet.add(live.getDiscard());
+            }
+        }
+        
+        final List<WaitPattern> waitPatternList = new ArrayList<WaitPattern>(_waitPatternList.size());
+        for (final WaitPattern pattern : _waitPatternList) {
+            if (discardSet.contains(pattern.getDiscard())) {
+                waitPatternList.add(pattern);
+            }
+        }
+        
+        final List<ShantenPattern> shantenPatternList = new ArrayList<ShantenPattern>(_shantenPatternList.size());
+        for (final ShantenPattern pattern : _shantenPatternList) {
+            shantenPatternList.add(new ShantenPattern(pattern.getDiscard(),
+                                                      pattern.getShanten(),
+                                                      pattern.getAcceptableList(),
+                                                      CountCheckUtil.getExpectation(pattern.getExpectation(), visible)));
+        }
+        Collections.sort(shantenPatternList);
+        
+        return new AnalysisResult(tenpaiPatternList, waitPatternList, shantenPatternList, _completed);
+    }
+    
+    /**
+     * 向聴パターンリストを取得
+     * 
+     * @return 向聴パターンリスト。
+     */
+    public List<ShantenPattern> getShantenPatternList() {
+        return _shantenPatternList;
+    }
+    
+    /**
+     * 聴牌パターンリストを取得
+     * 
+     * @return 聴牌パターンリスト。
+     */
+    public List<TenpaiPattern> getTenpaiPatternList() {
+        return _tenpaiPatternList;
+    }
+    
+    /**
+     * 待ちパターンリストを取得
+     * 
+     * @return 待ちパターンリスト (捨て牌・和了牌の順)。
+     */
+    public List<WaitPattern> getWaitPatternList() {
+        return _waitPatternList;
+    }
+    
+    /**
+     * 待ちパターンリストを取得
+     * 
+     * @param discard 捨て牌。
+     * @return 待ちパターンリスト (和了牌の順)。
+     */
+    public List<WaitPattern> getWaitPatternList(final JanPai discard) {
+        final List<WaitPattern> resultList = new ArrayList<WaitPattern>();
+        for (final WaitPattern pattern : _waitPatternList) {
+            if (pattern.getDiscard() == discard) {
+                resultList.add(pattern);
+            }
+        }
+        return resultList;
+    }
+    
+    /**
+     * 和了済みか
+     * 
+     * @return 判定結果。
+     */
+    public boolean isCompleted() {
+        return _completed;
+    }
+    
+    
+    
+    /**
+     * 聴牌パターンリスト
+     */
+    private final List<TenpaiPattern> _tenpaiPatternList;
+    
+    /**
+     * 待ちパターンリスト
+     */
+    private final List<WaitPattern> _waitPatternList;
+    
+    /**
+     * 向聴パターンリスト
+     */
+    private final List<ShantenPattern> _shantenPatternList;
+    
+    /**
+     * 和了済みか
+     */
+    private final boolean _completed;
+    
+}
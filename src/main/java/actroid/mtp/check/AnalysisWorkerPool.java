@@ -0,0 +1,212 @@
+/**
+ * AnalysisWorkerPool.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+
+/**
+ * 解析用ワーカープール
+ * 
+ *  ※CPUコア数と同数のスレッドを共有し、捨て牌候補毎の解析を並列に実行する。
+ *  ※ワーカー毎に作業用の手牌状態を1つ保持し、解析毎に再利用する。
+ *  ※UI スレッドと競合しないよう、ワーカーは通常より低い優先度で実行する。
+ *  ※先行解析用に、最低優先度のワーカー1本のみを持つ別のプール (getIdleInstance) を用意する。
+ *    通常の解析とは実行キューを共有しないため、先行解析が通常の解析の後ろに並ぶことはない。
+ */
+public final class AnalysisWorkerPool {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     * 
+     * @param name スレッド名の接頭辞。
+     * @param workerCount ワーカー数。
+     * @param priority ワーカーの優先度。
+     */
+    private AnalysisWorkerPool(final String name, final int workerCount, final int priority) {
+        _workerCount = workerCount;
+        _executor = Executors.newFixedThreadPool(workerCount, new WorkerThreadFactory(name, priority));
+    }
+    
+    
+    
+    /**
+     * インスタンスを取得
+     * 
+     * @return インスタンス。
+     */
+    public static AnalysisWorkerPool getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * 先行解析用のインスタンスを取得
+     * 
+     *  ※ワーカーは1本のみで、最低優先度で実行する。
+     * 
+     * @return 先行解析用のインスタンス。
+     */
+    public static AnalysisWorkerPool getIdleInstance() {
+        return IDLE_INSTANCE;
+    }
+    
+    /**
+     * 作業用の手牌状態を取得
+     * 
+     *  ※呼び出し元スレッド専用の状態を返す。内容は呼び出し側で初期化 (複写) すること。
+     * 
+     * @return 作業用の手牌状態。
+     */
+    public static HandState getWorkState() {
+        return WORK_STATE.get();
+    }
+    
+    
+    
+    /**
+     * ワーカー数を取得
+     * 
+     * @return ワーカー数。
+     */
+    public int getWorkerCount() {
+        return _workerCount;
+    }
+    
+    /**
+     * 全ての処理を実行し、投入順に結果を取得
+     * 
+     *  ※割り込まれた場合は未完了の処理を取り消す。
+     * 
+     * @param taskList 処理リスト。
+     * @return 結果リスト。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public <T> List<T> invokeAll(final List<? extends Callable<T>> taskList) throws InterruptedException {
+        if (taskList == null) {
+            throw new NullPointerException("Task list is null.");
+        }
+        
+        final List<Future<T>> futureList = _executor.invokeAll(taskList);
+        final List<T> resultList = new ArrayList<T>(futureList.size());
+        for (final Future<T> future : futureList) {
+            try {
+                resultList.add(future.get());
+            }
+            catch (final ExecutionException e) {
+                throw new IllegalStateException("Analysis task failed.", e.getCause());
+            }
+        }
+        return resultList;
+    }
+    
+    
+    
+    /**
+     * ワーカー数
+     */
+    private static final int WORKER_COUNT = Math.max(Runtime.getRuntime().availableProcessors(), 1);
+    
+    /**
+     * ワーカーの優先度 (Android では THREAD_PRIORITY_BACKGROUND に相当)
+     */
+    private static final int WORKER_PRIORITY = Thread.NORM_PRIORITY - 1;
+    
+    /**
+     * 先行解析用ワーカーの優先度 (Android では THREAD_PRIORITY_LOWEST に相当)
+     */
+    private static final int IDLE_WORKER_PRIORITY = Thread.MIN_PRIORITY;
+    
+    /**
+     * 作業用の手牌状態 (ワーカー毎)
+     */
+    private static final ThreadLocal<HandState> WORK_STATE = new ThreadLocal<HandState>() {
+        @Override
+        protected HandState initialValue() {
+            return new HandState();
+        }
+    };
+    
+    /**
+     * 自分自身のインスタンス (ワーカー数の初期化後に生成する)
+     */
+    private static final AnalysisWorkerPool INSTANCE = new AnalysisWorkerPool("AnalysisWorker-", WORKER_COUNT, WORKER_PRIORITY);
+    
+    /**
+     * 先行解析用のインスタンス
+     */
+    private static final AnalysisWorkerPool IDLE_INSTANCE = new AnalysisWorkerPool("IdleAnalysisWorker-", 1, IDLE_WORKER_PRIORITY);
+    
+    
+    
+    /**
+     * ワーカー数
+     */
+    private final int _workerCount;
+    
+    /**
+     * 実行サービス
+     */
+    private final ExecutorService _executor;
+    
+    
+    
+    /**
+     * ワーカースレッド生成処理
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param name スレッド名の接頭辞。
+         * @param priority 優先度。
+         */
+        public WorkerThreadFactory(final String name, final int priority) {
+            _name = name;
+            _priority = priority;
+        }
+        
+        /**
+         * スレッドを生成
+         * 
+         *  ※アプリケーションの終了を妨げないよう、デーモンスレッドとする。
+         *  ※生成時に指定した優先度 (バックグラウンド以下) とする。
+         */
+        public Thread newThread(final Runnable task) {
+            final Thread thread = new Thread(task, _name + _count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(_priority);
+            return thread;
+        }
+        
+        /**
+         * スレッド名の接頭辞
+         */
+        private final String _name;
+        
+        /**
+         * 優先度
+         */
+        private final int _priority;
+        
+        /**
+         * 生成数
+         */
+        private final AtomicInteger _count = new AtomicInteger();
+    }
+    
+}
@@ -0,0 +1,228 @@
+/**
+ * CanonicalHand.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import wiz.project.jan.JanPai;
+import wiz.project.jan.TenpaiPattern;
+
+
+
+/**
+ * 正規化した手牌
+ * 
+ *  ※正規形の手牌キーと、元の手牌から正規形への牌の置換を保持する。
+ *  ※解析結果は置換に沿って正規形・元の手牌の間で相互に変換できる。
+ */
+public final class CanonicalHand {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param key 正規形の手牌キー。
+     * @param toCanonical 元の手牌から正規形への置換 (インデックスは JanPai.ordinal())。
+     */
+    CanonicalHand(final HandKey key, final int[] toCanonical) {
+        _key = key;
+        _toCanonical = toCanonical.clone();
+        _toOriginal = new int[toCanonical.length];
+        for (int i = 0; i < toCanonical.length; i++) {
+            _toOriginal[toCanonical[i]] = i;
+        }
+    }
+    
+    
+    
+    /**
+     * 正規形の雀牌を取得
+     * 
+     * @param pai 元の手牌の雀牌。
+     * @return 正規形の雀牌。
+     */
+    public JanPai getCanonicalJanPai(final JanPai pai) {
+        return CountCheckUtil.getJanPai(_toCanonical[pai.ordinal()]);
+    }
+    
+    /**
+     * 正規形の手牌キーを取得
+     * 
+     * @return 正規形の手牌キー。
+     */
+    public HandKey getKey() {
+        return _key;
+    }
+    
+    /**
+     * 元の手牌の雀牌を取得
+     * 
+     * @param pai 正規形の雀牌。
+     * @return 元の手牌の雀牌。
+     */
+    public JanPai getOriginalJanPai(final JanPai pai) {
+        return CountCheckUtil.getJanPai(_toOriginal[pai.ordinal()]);
+    }
+    
+    /**
+     * 元の手牌の解析結果を正規形に変換
+     * 
+     * @param result 元の手牌の解析結果。
+     * @return 正規形の解析結果。
+     */
+    public AnalysisResult toCanonical(final AnalysisResult result) {
+        return convert(result, _toCanonical);
+    }
+    
+    /**
+     * 正規形の解析結果を元の手牌に変換
+     * 
+     * @param result 正規形の解析結果。
+     * @return 元の手牌の解析結果。
+     */
+    public AnalysisResult toOriginal(final AnalysisResult result) {
+        return convert(result, _toOriginal);
+    }
+    
+    
+    
+    /**
+     * 解析結果を置換
+     * 
+     * @param result 解析結果。
+     * @param table 置換表。
+     * @return 置換後の解析結果。
+     */
+    private static AnalysisResult convert(final AnalysisResult result, final int[] table) {
+        if (result == null) {
+            throw new NullPointerException("Analysis result is null.");
+        }
+        
+        final List<TenpaiPattern> tenpaiPatternList = new ArrayList<TenpaiPattern>();
+        for (final TenpaiPattern pattern : result.getTenpaiPatternList()) {
+            final JanPai discard = convert(pattern.getDiscard(), table);
+            final List<JanPai> completableList = convert(pattern.getCompletableList(), table);
+            final Map<JanPai, Integer> expectation = convert(pattern.getExpectation(), table);
+            tenpaiPatternList.add(new TenpaiPattern(discard, completableList, expectation));
+        }
+        Collections.sort(tenpaiPatternList, TENPAI_PATTERN_COMPARATOR);
+        
+        final List<WaitPattern> waitPatternList = new ArrayList<WaitPattern>();
+        for (final WaitPattern pattern : result.getWaitPatternList()) {
+            final List<Decomposition> decompositionList = new ArrayList<Decomposition>();
+            for (final Decomposition decomposition : pattern.getDecompositionList()) {
+                decompositionList.add(new Decomposition(decomposition.getForm(),
+                                                        convert(decomposition.getHead(), table),
+                                                        convert(decomposition.getShunTsuList(), table),
+                                                        convert(decomposition.getKouTsuList(), table),
+                                                        decomposition.getWaitType()));
+            }
+            waitPatternList.add(new WaitPattern(convert(pattern.getDiscard(), table), convert(pattern.getCompletable(), table), decompositionList));
+        }
+        Collections.sort(waitPatternList, WAIT_PATTERN_COMPARATOR);
+        
+        final List<ShantenPattern> shantenPatternList = new ArrayList<ShantenPattern>();
+        for (final ShantenPattern pattern : result.getShantenPatternList()) {
+            final JanPai discard = convert(pattern.getDiscard(), table);
+            final List<JanPai> acceptableList = convert(pattern.getAcceptableList(), table);
+            final Map<JanPai, Integer> expectation = convert(pattern.getExpectation(), table);
+            shantenPatternList.add(new ShantenPattern(discard, pattern.getShanten(), acceptableList, expectation));
+        }
+        Collections.sort(shantenPatternList);
+        
+        return new AnalysisResult(tenpaiPatternList, waitPatternList, shantenPatternList, result.isCompleted());
+    }
+    
+    /**
+     * 雀牌を置換
+     * 
+     * @param pai 雀牌。
+     * @param table 置換表。
+     * @return 置換後の雀牌。
+     */
+    private static JanPai convert(final JanPai pai, final int[] table) {
+        return CountCheckUtil.getJanPai(table[pai.ordinal()]);
+    }
+    
+    /**
+     * 雀牌リストを置換
+     * 
+     * @param source 雀牌リスト。
+     * @param table 置換表。
+     * @return 置換後の雀牌リスト (JanPai の順)。
+     */
+    private static List<JanPai> convert(final List<JanPai> source, final int[] table) {
+        final List<JanPai> resultList = new ArrayList<JanPai>(source.size());
+        for (final JanPai pai : source) {
+            resultList.add(convert(pai, table));
+        }
+        Collections.sort(resultList);
+        return resultList;
+    }
+    
+    /**
+     * 雀牌マップを置換
+     * 
+     * @param source 雀牌マップ。
+     * @param table 置換表。
+     * @return 置換後の雀牌マップ (JanPai の順)。
+     */
+    private static Map<JanPai, Integer> convert(final Map<JanPai, Integer> source, final int[] table) {
+        final Map<JanPai, Integer> result = new TreeMap<JanPai, Integer>();
+        for (final Map.Entry<JanPai, Integer> entry : source.entrySet()) {
+            result.put(convert(entry.getKey(), table), entry.getValue());
+        }
+        return result;
+    }
+    
+    
+    
+    /**
+     * 聴牌パターンの比較処理 (捨て牌の順)
+     */
+    private static final Comparator<TenpaiPattern> TENPAI_PATTERN_COMPARATOR = new Comparator<TenpaiPattern>() {
+        public int compare(final TenpaiPattern first, final TenpaiPattern second) {
+            return first.getDiscard().compareTo(second.getDiscard());
+        }
+    };
+    
+    /**
+     * 待ちパターンの比較処理 (捨て牌・和了牌の順)
+     */
+    private static final Comparator<WaitPattern> WAIT_PATTERN_COMPARATOR = new Comparator<WaitPattern>() {
+        public int compare(final WaitPattern first, final WaitPattern second) {
+            final int result = first.getDiscard().compareTo(second.getDiscard());
+            if (result != 0) {
+                return result;
+            }
+            return first.getCompletable().compareTo(second.getCompletable());
+        }
+    };
+    
+    
+    
+    /**
+     * 正規形の手牌キー
+     */
+    private final HandKey _key;
+    
+    /**
+     * 元の手牌から正規形への置換
+     */
+    private final int[] _toCanonical;
+    
+    /**
+     * 正規形から元の手牌への置換
+     */
+    private final int[] _toOriginal;
+    
+}
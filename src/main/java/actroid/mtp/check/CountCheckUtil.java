@@ -0,0 +1,483 @@
+/**
+ * CountCheckUtil.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 所持数配列による手牌判定ユーティリティ
+ * 
+ *  ※所持数配列は JanPai.ordinal() をインデックスとする長さ34の配列。
+ *  ※判定中は配列をその場で増減し、処理終了時には必ず元の状態に戻す。
+ *  ※判定処理はオブジェクトを生成しない。
+ *  ※数牌は種類毎に分解表 (ShuPaiTable) を参照し、字牌は所持数のみで判定する。
+ */
+public final class CountCheckUtil {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private CountCheckUtil() {
+    }
+    
+    
+    
+    /**
+     * 雀牌マップを所持数配列に変換
+     * 
+     * @param source 雀牌マップ。
+     * @return 所持数配列。
+     */
+    public static int[] convertJanPaiMap(final Map<JanPai, Integer> source) {
+        if (source == null) {
+            throw new NullPointerException("Source map is null.");
+        }
+        
+        final int[] count = new int[JAN_PAI_KIND];
+        for (final Map.Entry<JanPai, Integer> entry : source.entrySet()) {
+            final Integer value = entry.getValue();
+            if (value != null) {
+                count[entry.getKey().ordinal()] = value;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 雀牌マスクを雀牌リストに変換
+     * 
+     * @param mask 雀牌マスク (JanPai.ordinal() 番目のビットが各牌に対応)。
+     * @return 雀牌リスト。
+     */
+    public static List<JanPai> convertMask(final long mask) {
+        final List<JanPai> resultList = new ArrayList<JanPai>(Long.bitCount(mask));
+        for (int i = 0; i < JAN_PAI_KIND; i++) {
+            if ((mask & (1L << i)) != 0) {
+                resultList.add(JAN_PAI_ARRAY[i]);
+            }
+        }
+        return resultList;
+    }
+    
+    /**
+     * 期待枚数を取得
+     * 
+     * @param visible 見えている牌の所持数配列。
+     * @param completableList 待ち牌リスト。
+     * @return 期待枚数。
+     */
+    public static Map<JanPai, Integer> getExpectation(final int[] visible, final List<JanPai> completableList) {
+        final Map<JanPai, Integer> expectation = new TreeMap<JanPai, Integer>();
+        for (final JanPai pai : completableList) {
+            final int count = 4 - visible[pai.ordinal()];
+            expectation.put(pai, Math.max(count, 0));
+        }
+        return expectation;
+    }
+    
+    /**
+     * 期待枚数から見えている牌を除く
+     * 
+     * @param expectation 手牌のみで求めた期待枚数。
+     * @param visible 手牌以外で見えている牌の所持数配列。
+     * @return 見えている牌を除いた期待枚数。
+     */
+    public static Map<JanPai, Integer> getExpectation(final Map<JanPai, Integer> expectation, final int[] visible) {
+        final Map<JanPai, Integer> result = new TreeMap<JanPai, Integer>();
+        for (final Map.Entry<JanPai, Integer> entry : expectation.entrySet()) {
+            final int count = entry.getValue() - visible[entry.getKey().ordinal()];
+            result.put(entry.getKey(), Math.max(count, 0));
+        }
+        return result;
+    }
+    
+    /**
+     * インデックス配列からマスクを生成
+     * 
+     * @param indexList インデックス配列。
+     * @return マスク。
+     */
+    public static long createMask(final int[] indexList) {
+        long mask = 0L;
+        for (final int index : indexList) {
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+    
+    /**
+     * 雀牌を取得
+     * 
+     * @param index インデックス (JanPai.ordinal())。
+     * @return 雀牌。
+     */
+    public static JanPai getJanPai(final int index) {
+        return JAN_PAI_ARRAY[index];
+    }
+    
+    /**
+     * 和了牌マスクを取得
+     * 
+     *  ※既に4枚所持している牌は和了牌に含めない。
+     * 
+     * @param count 所持数配列。
+     * @return 和了牌マスク (JanPai.ordinal() 番目のビットが各牌に対応)。
+     */
+    public static long getCompletableMask(final int[] count) {
+        final int total = getTotalCount(count);
+        if (total % 3 != 1) {
+            return 0L;
+        }
+        
+        long mask = getCompletableMaskMenTsu(count);
+        if (total == 13) {
+            mask |= getCompletableMaskChiToi(count);
+            mask |= getCompletableMaskKokushi(count);
+        }
+        return mask;
+    }
+    
+    /**
+     * 総枚数を取得
+     * 
+     * @param count 所持数配列。
+     * @return 総枚数。
+     */
+    public static int getTotalCount(final int[] count) {
+        return getTotalCount(count, 0, JAN_PAI_KIND);
+    }
+    
+    /**
+     * 指定範囲の総枚数を取得
+     * 
+     * @param count 所持数配列。
+     * @param offset 開始インデックス。
+     * @param length 範囲の長さ。
+     * @return 総枚数。
+     */
+    public static int getTotalCount(final int[] count, final int offset, final int length) {
+        int total = 0;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            total += count[i];
+        }
+        return total;
+    }
+    
+    /**
+     * 和了形か
+     * 
+     * @param count 所持数配列。
+     * @return 判定結果。
+     */
+    public static boolean isComplete(final int[] count) {
+        final int total = getTotalCount(count);
+        if (total % 3 != 2) {
+            return false;
+        }
+        if (total == 14) {
+            if (isCompleteChiToi(count) || isCompleteKokushi(count)) {
+                return true;
+            }
+        }
+        return isCompleteMenTsu(count);
+    }
+    
+    
+    
+    /**
+     * 和了牌マスクを取得 (七対子)
+     * 
+     * @param count 所持数配列 (13枚)。
+     * @return 和了牌マスク。
+     */
+    static long getCompletableMaskChiToi(final int[] count) {
+        long single = 0L;
+        int singleCount = 0;
+        for (int i = 0; i < JAN_PAI_KIND; i++) {
+            switch (count[i]) {
+            case 0:
+            case 2:
+                break;
+            case 1:
+                single = 1L << i;
+                singleCount++;
+                break;
+            default:
+                return 0L;
+            }
+        }
+        return (singleCount == 1) ? single : 0L;
+    }
+    
+    /**
+     * 和了牌マスクを取得 (国士無双)
+     * 
+     * @param count 所持数配列 (13枚)。
+     * @return 和了牌マスク。
+     */
+    static long getCompletableMaskKokushi(final int[] count) {
+        long missing = 0L;
+        int missingCount = 0;
+        int yaoTotal = 0;
+        for (final int index : YAO_INDEX) {
+            final int value = count[index];
+            if (value == 0) {
+                missing = 1L << index;
+                missingCount++;
+            }
+            else if (value > 2) {
+                return 0L;
+            }
+            yaoTotal += value;
+        }
+        if (yaoTotal != 13) {
+            // 么九牌以外を含む
+            return 0L;
+        }
+        
+        switch (missingCount) {
+        case 0:
+            return YAO_MASK;
+        case 1:
+            return missing;
+        default:
+            return 0L;
+        }
+    }
+    
+    /**
+     * 和了牌マスクを取得 (4面子1雀頭)
+     * 
+     *  ※数牌は種類毎のキー (ShuPaiTable) で判定し、字牌は所持数配列で判定する。
+     *    差分更新する手牌状態 (HandState) も保持しているキーを渡してこの判定を用いる。
+     *  ※分解できない種類が1つだけの場合に限り、その種類の和了牌が全体の和了牌となる。
+     * 
+     * @param count 所持数配列。
+     * @param manKey 萬子のキー。
+     * @param pinKey 筒子のキー。
+     * @param souKey 索子のキー。
+     * @return 和了牌マスク。
+     */
+    static long getCompletableMaskMenTsu(final int[] count, final int manKey, final int pinKey, final int souKey) {
+        int headCount = 0;
+        int target = -1;
+        int targetKey = 0;
+        for (int type = 0; type < 4; type++) {
+            final int key = (type == 0) ? manKey : (type == 1) ? pinKey : souKey;
+            final int rest = getTotalCount(count, type * 9, (type < 3) ? 9 : 7) % 3;
+            final boolean complete = (type < 3) ? ShuPaiTable.isComplete(key) : isCompleteJi(count);
+            if (complete) {
+                if (rest == 2) {
+                    headCount++;
+                }
+                continue;
+            }
+            if (target >= 0) {
+                // 分解できない種類が複数ある
+                return 0L;
+            }
+            target = type;
+            targetKey = key;
+        }
+        if (target < 0) {
+            // 全種類が分解可能ならば雀頭が2つある (シャンポン待ち)
+            long mask = 0L;
+            for (int type = 0; type < 4; type++) {
+                if (getTotalCount(count, type * 9, (type < 3) ? 9 : 7) % 3 == 2) {
+                    final int key = (type == 0) ? manKey : (type == 1) ? pinKey : souKey;
+                    mask |= getCompletableMask(count, type, key);
+                }
+            }
+            return mask;
+        }
+        
+        // 和了時に雀頭が1つだけになるか
+        final int rest = getTotalCount(count, target * 9, (target < 3) ? 9 : 7) % 3;
+        final int expected = (rest == 1) ? 0 : 1;
+        if (headCount != expected) {
+            return 0L;
+        }
+        return getCompletableMask(count, target, targetKey);
+    }
+    
+    /**
+     * 和了牌マスクを取得 (4面子1雀頭)
+     * 
+     * @param count 所持数配列。
+     * @return 和了牌マスク。
+     */
+    private static long getCompletableMaskMenTsu(final int[] count) {
+        return getCompletableMaskMenTsu(count, ShuPaiTable.createKey(count, 0), ShuPaiTable.createKey(count, 9), ShuPaiTable.createKey(count, 18));
+    }
+    
+    /**
+     * 指定種類の和了牌マスクを取得
+     * 
+     * @param count 所持数配列。
+     * @param type 種類 (0:萬子、1:筒子、2:索子、3:字牌)。
+     * @param key 数牌のキー (字牌ならば参照しない)。
+     * @return 和了牌マスク。
+     */
+    private static long getCompletableMask(final int[] count, final int type, final int key) {
+        if (type < 3) {
+            return (long)ShuPaiTable.getCompletableMask(key) << (type * 9);
+        }
+        return getCompletableMaskJi(count);
+    }
+    
+    /**
+     * 和了牌マスクを取得 (字牌のみ)
+     * 
+     * @param count 所持数配列。
+     * @return 和了牌マスク。
+     */
+    static long getCompletableMaskJi(final int[] count) {
+        long mask = 0L;
+        for (int i = JI_INDEX; i < JAN_PAI_KIND; i++) {
+            if (count[i] >= 4) {
+                continue;
+            }
+            count[i]++;
+            if (isCompleteJi(count)) {
+                mask |= 1L << i;
+            }
+            count[i]--;
+        }
+        return mask;
+    }
+    
+    /**
+     * 和了形か (七対子)
+     * 
+     * @param count 所持数配列 (14枚)。
+     * @return 判定結果。
+     */
+    static boolean isCompleteChiToi(final int[] count) {
+        for (int i = 0; i < JAN_PAI_KIND; i++) {
+            if (count[i] != 0 && count[i] != 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 字牌が刻子 (+雀頭1つまで) に分解できるか
+     * 
+     * @param count 所持数配列。
+     * @return 判定結果。
+     */
+    static boolean isCompleteJi(final int[] count) {
+        int headCount = 0;
+        for (int i = JI_INDEX; i < JAN_PAI_KIND; i++) {
+            switch (count[i]) {
+            case 0:
+            case 3:
+                break;
+            case 2:
+                headCount++;
+                break;
+            default:
+                return false;
+            }
+        }
+        return headCount <= 1;
+    }
+    
+    /**
+     * 和了形か (国士無双)
+     * 
+     * @param count 所持数配列 (14枚)。
+     * @return 判定結果。
+     */
+    static boolean isCompleteKokushi(final int[] count) {
+        int yaoTotal = 0;
+        for (final int index : YAO_INDEX) {
+            if (count[index] == 0) {
+                return false;
+            }
+            yaoTotal += count[index];
+        }
+        return yaoTotal == 14;
+    }
+    
+    /**
+     * 和了形か (4面子1雀頭)
+     * 
+     * @param count 所持数配列。
+     * @return 判定結果。
+     */
+    private static boolean isCompleteMenTsu(final int[] count) {
+        int headCount = 0;
+        for (int type = 0; type < 3; type++) {
+            final int offset = type * 9;
+            if (!isCompleteShuPai(count, offset)) {
+                return false;
+            }
+            if (getTotalCount(count, offset, 9) % 3 == 2) {
+                headCount++;
+            }
+        }
+        if (!isCompleteJi(count)) {
+            return false;
+        }
+        if (getTotalCount(count, JI_INDEX, 7) % 3 == 2) {
+            headCount++;
+        }
+        return headCount == 1;
+    }
+    
+    /**
+     * 数牌が面子 (+雀頭) に分解できるか
+     * 
+     * @param count 所持数配列。
+     * @param offset 対象とする種類の開始インデックス。
+     * @return 判定結果。
+     */
+    private static boolean isCompleteShuPai(final int[] count, final int offset) {
+        return ShuPaiTable.isComplete(ShuPaiTable.createKey(count, offset));
+    }
+    
+    
+    
+    /**
+     * 雀牌の種類数
+     */
+    public static final int JAN_PAI_KIND = 34;
+    
+    /**
+     * 字牌の開始インデックス
+     */
+    public static final int JI_INDEX = 27;
+    
+    
+    
+    /**
+     * 雀牌配列
+     */
+    private static final JanPai[] JAN_PAI_ARRAY = JanPai.values();
+    
+    /**
+     * 么九牌のインデックス
+     */
+    private static final int[] YAO_INDEX = { 0, 8, 9, 17, 18, 26, 27, 28, 29, 30, 31, 32, 33 };
+    
+    /**
+     * 么九牌マスク
+     */
+    private static final long YAO_MASK = createMask(YAO_INDEX);
+    
+}
@@ -0,0 +1,208 @@
+/**
+ * Decomposition.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 和了形の分解 (面前手牌のみ)
+ * 
+ *  ※雀頭・順子・刻子への分け方と、和了牌がどの形で入ったか (待ちの形) の組。
+ *  ※七対子・国士無双は面子に分解せず、種別のみを持つ。雀頭には和了牌 (国士無双は対子の牌) を持つ。
+ */
+public final class Decomposition implements Serializable {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param form 和了形の種別。
+     * @param head 雀頭。
+     * @param shunTsuList 順子リスト (先頭牌)。
+     * @param kouTsuList 刻子リスト。
+     * @param waitType 待ちの形。
+     */
+    public Decomposition(final Form form, final JanPai head, final List<JanPai> shunTsuList, final List<JanPai> kouTsuList, final WaitType waitType) {
+        if (form == null) {
+            throw new NullPointerException("Form is null.");
+        }
+        if (head == null) {
+            throw new NullPointerException("Head is null.");
+        }
+        if (shunTsuList == null) {
+            throw new NullPointerException("Shun tsu list is null.");
+        }
+        if (kouTsuList == null) {
+            throw new NullPointerException("Kou tsu list is null.");
+        }
+        if (waitType == null) {
+            throw new NullPointerException("Wait type is null.");
+        }
+        _form = form;
+        _head = head;
+        _shunTsuList = Collections.unmodifiableList(new ArrayList<JanPai>(shunTsuList));
+        _kouTsuList = Collections.unmodifiableList(new ArrayList<JanPai>(kouTsuList));
+        _waitType = waitType;
+    }
+    
+    
+    
+    /**
+     * オブジェクトと比較
+     * 
+     * @param target 比較対象オブジェクト。
+     * @return 比較結果。
+     */
+    @Override
+    public boolean equals(final Object target) {
+        if (target == this) {
+            return true;
+        }
+        if (!(target instanceof Decomposition)) {
+            return false;
+        }
+        final Decomposition decomposition = (Decomposition)target;
+        return _form == decomposition._form &&
+               _head == decomposition._head &&
+               _waitType == decomposition._waitType &&
+               _shunTsuList.equals(decomposition._shunTsuList) &&
+               _kouTsuList.equals(decomposition._kouTsuList);
+    }
+    
+    /**
+     * 和了形の種別を取得
+     * 
+     * @return 和了形の種別。
+     */
+    public Form getForm() {
+        return _form;
+    }
+    
+    /**
+     * 雀頭を取得
+     * 
+     * @return 雀頭。
+     */
+    public JanPai getHead() {
+        return _head;
+    }
+    
+    /**
+     * 刻子リストを取得
+     * 
+     * @return 刻子リスト。
+     */
+    public List<JanPai> getKouTsuList() {
+        return _kouTsuList;
+    }
+    
+    /**
+     * 順子リストを取得
+     * 
+     * @return 順子リスト (先頭牌)。
+     */
+    public List<JanPai> getShunTsuList() {
+        return _shunTsuList;
+    }
+    
+    /**
+     * 待ちの形を取得
+     * 
+     * @return 待ちの形。
+     */
+    public WaitType getWaitType() {
+        return _waitType;
+    }
+    
+    /**
+     * ハッシュコードを取得
+     * 
+     * @return ハッシュコード。
+     */
+    @Override
+    public int hashCode() {
+        int result = (_form.ordinal() * 31 + _head.ordinal()) * 31 + _waitType.ordinal();
+        result = result * 31 + _shunTsuList.hashCode();
+        result = result * 31 + _kouTsuList.hashCode();
+        return result;
+    }
+    
+    /**
+     * 文字列に変換
+     * 
+     * @return 変換結果。
+     */
+    @Override
+    public String toString() {
+        return _form + " " + _head + " " + _shunTsuList + " " + _kouTsuList + " : " + _waitType;
+    }
+    
+    
+    
+    /**
+     * シリアルバージョンUID
+     */
+    private static final long serialVersionUID = 1L;
+    
+    
+    
+    /**
+     * 和了形の種別
+     */
+    private final Form _form;
+    
+    /**
+     * 雀頭
+     */
+    private final JanPai _head;
+    
+    /**
+     * 順子リスト (先頭牌)
+     */
+    private final List<JanPai> _shunTsuList;
+    
+    /**
+     * 刻子リスト
+     */
+    private final List<JanPai> _kouTsuList;
+    
+    /**
+     * 待ちの形
+     */
+    private final WaitType _waitType;
+    
+    
+    
+    /**
+     * 和了形の種別
+     */
+    public enum Form {
+        
+        /**
+         * 4面子1雀頭
+         */
+        MEN_TSU,
+        
+        /**
+         * 七対子
+         */
+        CHI_TOI,
+        
+        /**
+         * 国士無双
+         */
+        KOKUSHI;
+    }
+    
+}
@@ -0,0 +1,197 @@
+/**
+ * DecompositionUtil.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 和了形の分解ユーティリティ
+ * 
+ *  ※面前手牌の和了形を、雀頭・順子・刻子への全ての分け方に列挙し、和了牌の入り方毎に待ちの形を付ける。
+ *  ※聴牌判定 (マスク) では分解を求めないため、聴牌した捨て牌・和了牌の組についてのみ呼び出す。
+ */
+public final class DecompositionUtil {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private DecompositionUtil() {
+    }
+    
+    
+    
+    /**
+     * 分解リストを取得
+     * 
+     * @param count 和了牌を含む面前手牌の所持数配列 (3n+2 枚)。
+     * @param completable 和了牌のインデックス。
+     * @return 分解リスト。和了形でなければ空。
+     */
+    public static List<Decomposition> getDecompositionList(final int[] count, final int completable) {
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        if (count[completable] == 0) {
+            throw new IllegalArgumentException("Completable is not in hand - " + CountCheckUtil.getJanPai(completable));
+        }
+        
+        final List<Decomposition> resultList = new ArrayList<Decomposition>();
+        final int[] work = count.clone();
+        for (int head = 0; head < CountCheckUtil.JAN_PAI_KIND; head++) {
+            if (work[head] < 2) {
+                continue;
+            }
+            work[head] -= 2;
+            searchMenTsu(work, 0, head, new ArrayList<Integer>(), new ArrayList<Integer>(), completable, resultList);
+            work[head] += 2;
+        }
+        
+        // 七対子・国士無双は14枚 (副露無し) の場合のみ
+        if (CountCheckUtil.getTotalCount(count) != 14) {
+            return resultList;
+        }
+        final JanPai completablePai = CountCheckUtil.getJanPai(completable);
+        final List<JanPai> emptyList = new ArrayList<JanPai>();
+        if (CountCheckUtil.isCompleteChiToi(count)) {
+            resultList.add(new Decomposition(Decomposition.Form.CHI_TOI, completablePai, emptyList, emptyList, WaitType.TAN_KI));
+        }
+        if (CountCheckUtil.isCompleteKokushi(count)) {
+            int head = completable;
+            for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+                if (count[i] == 2) {
+                    head = i;
+                }
+            }
+            // 和了牌で対子になった場合は十三面待ち
+            final WaitType waitType = (head == completable) ? WaitType.KOKUSHI_13 : WaitType.TAN_KI;
+            resultList.add(new Decomposition(Decomposition.Form.KOKUSHI, CountCheckUtil.getJanPai(head), emptyList, emptyList, waitType));
+        }
+        return resultList;
+    }
+    
+    
+    
+    /**
+     * 待ちの形毎に分解を追加
+     * 
+     *  ※和了牌を含む面子 (雀頭) 毎に待ちの形を求め、同じ分け方・同じ待ちの形は1つにまとめる。
+     * 
+     * @param head 雀頭のインデックス。
+     * @param shunTsuList 順子リスト (先頭牌のインデックス)。
+     * @param kouTsuList 刻子リスト (インデックス)。
+     * @param completable 和了牌のインデックス。
+     * @param resultList 分解の追加先。
+     */
+    private static void addDecomposition(final int head,
+                                         final List<Integer> shunTsuList,
+                                         final List<Integer> kouTsuList,
+                                         final int completable,
+                                         final List<Decomposition> resultList) {
+        final List<WaitType> waitTypeList = new ArrayList<WaitType>();
+        if (head == completable) {
+            waitTypeList.add(WaitType.TAN_KI);
+        }
+        if (kouTsuList.contains(completable)) {
+            waitTypeList.add(WaitType.SHAN_PON);
+        }
+        for (final int first : shunTsuList) {
+            if (completable < first || first + 2 < completable) {
+                continue;
+            }
+            final int number = first % 9;
+            if (completable == first + 1) {
+                waitTypeList.add(WaitType.KAN_CHAN);
+            }
+            else if ((completable == first && number == 6) || (completable == first + 2 && number == 0)) {
+                waitTypeList.add(WaitType.PEN_CHAN);
+            }
+            else {
+                waitTypeList.add(WaitType.RYAN_MEN);
+            }
+        }
+        
+        final JanPai headPai = CountCheckUtil.getJanPai(head);
+        final List<JanPai> shunTsuPaiList = convertIndexList(shunTsuList);
+        final List<JanPai> kouTsuPaiList = convertIndexList(kouTsuList);
+        for (final WaitType waitType : waitTypeList) {
+            final Decomposition decomposition = new Decomposition(Decomposition.Form.MEN_TSU, headPai, shunTsuPaiList, kouTsuPaiList, waitType);
+            if (!resultList.contains(decomposition)) {
+                resultList.add(decomposition);
+            }
+        }
+    }
+    
+    /**
+     * インデックスリストを雀牌リストに変換
+     * 
+     * @param indexList インデックスリスト。
+     * @return 雀牌リスト。
+     */
+    private static List<JanPai> convertIndexList(final List<Integer> indexList) {
+        final List<JanPai> resultList = new ArrayList<JanPai>(indexList.size());
+        for (final int index : indexList) {
+            resultList.add(CountCheckUtil.getJanPai(index));
+        }
+        return resultList;
+    }
+    
+    /**
+     * 面子への分け方を探索
+     * 
+     *  ※残りの牌のうち最も小さい牌から、刻子・順子の順に取り出す (同じ分け方を重複して列挙しない)。
+     * 
+     * @param work 残りの所持数配列 (探索中に増減し、終了時には元に戻る)。
+     * @param from 探索開始インデックス。
+     * @param head 雀頭のインデックス。
+     * @param shunTsuList 順子リスト (探索中に増減する)。
+     * @param kouTsuList 刻子リスト (探索中に増減する)。
+     * @param completable 和了牌のインデックス。
+     * @param resultList 分解の追加先。
+     */
+    private static void searchMenTsu(final int[] work,
+                                     final int from,
+                                     final int head,
+                                     final List<Integer> shunTsuList,
+                                     final List<Integer> kouTsuList,
+                                     final int completable,
+                                     final List<Decomposition> resultList) {
+        int index = from;
+        while (index < CountCheckUtil.JAN_PAI_KIND && work[index] == 0) {
+            index++;
+        }
+        if (index == CountCheckUtil.JAN_PAI_KIND) {
+            addDecomposition(head, shunTsuList, kouTsuList, completable, resultList);
+            return;
+        }
+        
+        if (work[index] >= 3) {
+            work[index] -= 3;
+            kouTsuList.add(index);
+            searchMenTsu(work, index, head, shunTsuList, kouTsuList, completable, resultList);
+            kouTsuList.remove(kouTsuList.size() - 1);
+            work[index] += 3;
+        }
+        if (index < CountCheckUtil.JI_INDEX && index % 9 <= 6 && work[index + 1] > 0 && work[index + 2] > 0) {
+            work[index]--;
+            work[index + 1]--;
+            work[index + 2]--;
+            shunTsuList.add(index);
+            searchMenTsu(work, index, head, shunTsuList, kouTsuList, completable, resultList);
+            shunTsuList.remove(shunTsuList.size() - 1);
+            work[index]++;
+            work[index + 1]++;
+            work[index + 2]++;
+        }
+    }
+    
+}
@@ -0,0 +1,141 @@
+/**
+ * DrawProbability.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+
+/**
+ * 和了牌を自摸する確率 (厳密計算)
+ * 
+ *  ※見えていない牌 (全136枚から手牌・確定面子・見えている牌を除いた牌) から無作為に自摸する場合に、
+ *    指定回数以内に和了牌 (残り枚数の合計) を1枚以上引く確率を求める。
+ *    1 - C(見えていない牌 - 和了牌, 回数) / C(見えていない牌, 回数) とする。待ちの取り替え・他家の和了は考慮しない。
+ *  ※和了牌の残り枚数は見えていない牌全体 (他家の手牌・王牌を含む) での枚数のため、母数も山の枚数ではなく
+ *    見えていない牌の枚数とする。山の枚数は自摸回数のみに用いる (和了率の模擬試行と同じ扱い)。
+ *  ※(見えていない牌の枚数, 自摸回数) 毎に全ての和了牌の枚数の確率を1度に求めて保持し、以後は表引きのみとする。
+ */
+public final class DrawProbability {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private DrawProbability() {
+    }
+    
+    
+    
+    /**
+     * 和了牌を自摸する確率を取得
+     * 
+     * @param live 和了牌の残り枚数 (見えていない牌の枚数を上限とする)。
+     * @param unseen 見えていない牌の枚数。
+     * @param drawCount 自摸回数 (見えていない牌の枚数を上限とする)。
+     * @return 確率 (0.0 から 1.0)。
+     */
+    public static double get(final int live, final int unseen, final int drawCount) {
+        if (live < 0) {
+            throw new IllegalArgumentException("Invalid live count - " + live);
+        }
+        if (unseen < 0 || UNSEEN_LIMIT < unseen) {
+            throw new IllegalArgumentException("Invalid unseen count - " + unseen);
+        }
+        if (drawCount < 0) {
+            throw new IllegalArgumentException("Invalid draw count - " + drawCount);
+        }
+        return getTable(unseen, Math.min(drawCount, unseen))[Math.min(live, unseen)];
+    }
+    
+    /**
+     * 自家の自摸回数を取得
+     * 
+     *  ※次の自摸が自家の番であるとし、山を4人で順に引く場合の回数とする。
+     * 
+     * @param wallSize 山の枚数。
+     * @return 自摸回数。
+     */
+    public static int getDrawCount(final int wallSize) {
+        return (wallSize + 3) / 4;
+    }
+    
+    
+    
+    /**
+     * 確率表を取得
+     * 
+     * @param unseen 見えていない牌の枚数。
+     * @param drawCount 自摸回数。
+     * @return 和了牌の枚数をインデックスとする確率表。
+     */
+    private static double[] getTable(final int unseen, final int drawCount) {
+        final Integer key = unseen * (UNSEEN_LIMIT + 1) + drawCount;
+        synchronized (_TABLE_LOCK) {
+            final double[] cached = _TABLE_MAP.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        final double[] table = new double[unseen + 1];
+        for (int live = 0; live <= unseen; live++) {
+            // 和了牌を1枚も引かない確率を、1枚ずつの条件付き確率の積で求める
+            double miss = 1.0;
+            for (int i = 0; i < drawCount && miss > 0.0; i++) {
+                miss *= (double)Math.max(unseen - live - i, 0) / (unseen - i);
+            }
+            table[live] = 1.0 - miss;
+        }
+        
+        synchronized (_TABLE_LOCK) {
+            _TABLE_MAP.put(key, table);
+        }
+        return table;
+    }
+    
+    
+    
+    /**
+     * 全ての牌の枚数
+     */
+    public static final int JAN_PAI_TOTAL = 136;
+    
+    /**
+     * 見えていない牌の枚数の上限 (全136枚から自分の手牌14枚を除く)
+     */
+    public static final int UNSEEN_LIMIT = JAN_PAI_TOTAL - 14;
+    
+    /**
+     * 山の枚数の上限 (配牌直後。全136枚から王牌14枚と配牌52枚を除く)
+     */
+    public static final int WALL_LIMIT = 70;
+    
+    /**
+     * 確率表の上限件数
+     */
+    private static final int CAPACITY = 256;
+    
+    /**
+     * ロックオブジェクト
+     */
+    private static final Object _TABLE_LOCK = new Object();
+    
+    /**
+     * 確率表 ((見えていない牌の枚数, 自摸回数) 毎、参照順)
+     */
+    private static final Map<Integer, double[]> _TABLE_MAP = new LinkedHashMap<Integer, double[]>(CAPACITY * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, double[]> eldest) {
+            return size() > CAPACITY;
+        }
+        
+        private static final long serialVersionUID = 1L;
+    };
+    
+}
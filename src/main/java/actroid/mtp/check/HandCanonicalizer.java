@@ -0,0 +1,161 @@
+/**
+ * HandCanonicalizer.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import wiz.project.jan.JanPai;
+import wiz.project.jan.MenTsu;
+
+
+
+/**
+ * 手牌の正規化ユーティリティ
+ * 
+ *  ※待ち・向聴数・有効牌は、数牌の種類 (萬子・筒子・索子) の入れ替えや、字牌同士の入れ替えでは変わらない。
+ *  ※そこで数牌は種類毎の「所持数 + 確定面子」の並びが大きい順、字牌は「所持数 + 確定面子」が大きい順に並べ替え、
+ *    並べ替えた手牌 (正規形) を解析結果キャッシュのキーとする。
+ *  ※確定面子も同じ置換で並べ替えるため、見えている牌の枚数 (期待枚数) も正規形と元の手牌で一致する。
+ *  ※役 (三元牌・風牌など) は字牌の入れ替えで変わるため、得点計算には用いないこと。
+ */
+public final class HandCanonicalizer {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private HandCanonicalizer() {
+    }
+    
+    
+    
+    /**
+     * 手牌を正規化
+     * 
+     * @param count 面前手牌の所持数配列。
+     * @param fixedMenTsuList 確定面子リスト。
+     * @return 正規化した手牌。
+     */
+    public static CanonicalHand canonicalize(final int[] count, final List<MenTsu> fixedMenTsuList) {
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        if (fixedMenTsuList == null) {
+            throw new NullPointerException("Fixed men tsu list is null.");
+        }
+        
+        // 種類毎 (字牌は牌毎) の並べ替え基準を求める
+        final long[] shuPaiOrder = new long[3];
+        for (int type = 0; type < 3; type++) {
+            shuPaiOrder[type] = (long)ShuPaiTable.createKey(count, type * 9) << MEN_TSU_ORDER_BITS;
+        }
+        final long[] jiOrder = new long[JI_KIND];
+        for (int i = 0; i < JI_KIND; i++) {
+            jiOrder[i] = (long)count[CountCheckUtil.JI_INDEX + i] << MEN_TSU_ORDER_BITS;
+        }
+        final List<List<Integer>> shuPaiMenTsuCode = new ArrayList<List<Integer>>();
+        for (int type = 0; type < 3; type++) {
+            shuPaiMenTsuCode.add(new ArrayList<Integer>());
+        }
+        for (final MenTsu menTsu : fixedMenTsuList) {
+            final int head = getHeadIndex(menTsu);
+            final int code = menTsu.getMenTsuType().ordinal() + 1;
+            if (head < CountCheckUtil.JI_INDEX) {
+                shuPaiMenTsuCode.get(head / 9).add(((head % 9) << 3) | code);
+            }
+            else {
+                jiOrder[head - CountCheckUtil.JI_INDEX] += code;
+            }
+        }
+        for (int type = 0; type < 3; type++) {
+            // 数牌の確定面子は (数字, 種別) を整列して、面子の並び順に依存させない
+            final List<Integer> codeList = shuPaiMenTsuCode.get(type);
+            Collections.sort(codeList);
+            for (int i = 0; i < codeList.size(); i++) {
+                shuPaiOrder[type] |= (long)codeList.get(i) << (i * 7);
+            }
+        }
+        
+        final int[] toCanonical = new int[CountCheckUtil.JAN_PAI_KIND];
+        final int[] shuPaiRank = getRank(shuPaiOrder);
+        for (int type = 0; type < 3; type++) {
+            for (int number = 0; number < 9; number++) {
+                toCanonical[type * 9 + number] = shuPaiRank[type] * 9 + number;
+            }
+        }
+        final int[] jiRank = getRank(jiOrder);
+        for (int i = 0; i < JI_KIND; i++) {
+            toCanonical[CountCheckUtil.JI_INDEX + i] = CountCheckUtil.JI_INDEX + jiRank[i];
+        }
+        
+        // 正規形の手牌を生成
+        final int[] canonicalCount = new int[CountCheckUtil.JAN_PAI_KIND];
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            canonicalCount[toCanonical[i]] = count[i];
+        }
+        final List<MenTsu> canonicalMenTsuList = new ArrayList<MenTsu>(fixedMenTsuList.size());
+        for (final MenTsu menTsu : fixedMenTsuList) {
+            final List<JanPai> source = new ArrayList<JanPai>();
+            for (final JanPai pai : menTsu.getSource()) {
+                source.add(CountCheckUtil.getJanPai(toCanonical[pai.ordinal()]));
+            }
+            canonicalMenTsuList.add(new MenTsu(source, menTsu.getMenTsuType()));
+        }
+        return new CanonicalHand(HandKey.create(canonicalCount, canonicalMenTsuList), toCanonical);
+    }
+    
+    
+    
+    /**
+     * 面子の先頭牌のインデックスを取得
+     * 
+     * @param menTsu 面子。
+     * @return 先頭牌のインデックス。
+     */
+    private static int getHeadIndex(final MenTsu menTsu) {
+        int head = CountCheckUtil.JAN_PAI_KIND;
+        for (final JanPai pai : menTsu.getSource()) {
+            head = Math.min(head, pai.ordinal());
+        }
+        return head;
+    }
+    
+    /**
+     * 並べ替え基準の大きい順に順位を付ける
+     * 
+     *  ※同じ基準ならば元の順とする。
+     * 
+     * @param order 並べ替え基準。
+     * @return 順位 (0始まり)。
+     */
+    private static int[] getRank(final long[] order) {
+        final int[] rank = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            for (int j = 0; j < order.length; j++) {
+                if (order[j] > order[i] || (order[j] == order[i] && j < i)) {
+                    rank[i]++;
+                }
+            }
+        }
+        return rank;
+    }
+    
+    
+    
+    /**
+     * 字牌の種類数
+     */
+    private static final int JI_KIND = CountCheckUtil.JAN_PAI_KIND - CountCheckUtil.JI_INDEX;
+    
+    /**
+     * 並べ替え基準のうち確定面子が占めるビット数 (7ビット × 4面子)
+     */
+    private static final int MEN_TSU_ORDER_BITS = 28;
+    
+}
@@ -0,0 +1,172 @@
+/**
+ * HandKey.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.Arrays;
+import java.util.List;
+
+import wiz.project.jan.JanPai;
+import wiz.project.jan.MenTsu;
+
+
+
+/**
+ * 手牌キー
+ * 
+ *  ※面前手牌の所持数と確定面子を2つのlong値に符号化した、解析結果の検索キー。
+ *  ※数牌は種類毎に5進数9桁 (21ビット) を3種類分、字牌は5進数7桁 (17ビット) とする。
+ *  ※確定面子は (先頭牌 + 1, 面子種別) を9ビットに符号化し、並び順に依存しないよう整列して格納する。
+ */
+public final class HandKey {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     * 
+     * @param concealed 数牌の符号。
+     * @param rest 字牌と確定面子の符号。
+     */
+    private HandKey(final long concealed, final long rest) {
+        _concealed = concealed;
+        _rest = rest;
+    }
+    
+    
+    
+    /**
+     * 手牌キーを生成
+     * 
+     * @param count 面前手牌の所持数配列。
+     * @param fixedMenTsuList 確定面子リスト (4つまで)。
+     * @return 手牌キー。
+     */
+    public static HandKey create(final int[] count, final List<MenTsu> fixedMenTsuList) {
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        if (fixedMenTsuList == null) {
+            throw new NullPointerException("Fixed men tsu list is null.");
+        }
+        if (fixedMenTsuList.size() > MEN_TSU_LIMIT) {
+            throw new IllegalArgumentException("Too many fixed men tsu - " + fixedMenTsuList.size());
+        }
+        
+        long concealed = 0L;
+        for (int type = 0; type < 3; type++) {
+            concealed |= (long)ShuPaiTable.createKey(count, type * 9) << (type * SHU_PAI_BITS);
+        }
+        
+        int jiKey = 0;
+        for (int i = CountCheckUtil.JAN_PAI_KIND - 1; i >= CountCheckUtil.JI_INDEX; i--) {
+            jiKey = jiKey * 5 + count[i];
+        }
+        
+        final int[] menTsuCode = new int[fixedMenTsuList.size()];
+        for (int i = 0; i < menTsuCode.length; i++) {
+            menTsuCode[i] = getMenTsuCode(fixedMenTsuList.get(i));
+        }
+        Arrays.sort(menTsuCode);
+        
+        long rest = jiKey;
+        for (int i = 0; i < menTsuCode.length; i++) {
+            rest |= (long)menTsuCode[i] << (JI_BITS + i * MEN_TSU_BITS);
+        }
+        return new HandKey(concealed, rest);
+    }
+    
+    
+    
+    /**
+     * オブジェクトと比較
+     * 
+     * @param target 比較対象オブジェクト。
+     * @return 比較結果。
+     */
+    @Override
+    public boolean equals(final Object target) {
+        if (target == this) {
+            return true;
+        }
+        if (!(target instanceof HandKey)) {
+            return false;
+        }
+        final HandKey key = (HandKey)target;
+        return _concealed == key._concealed && _rest == key._rest;
+    }
+    
+    /**
+     * ハッシュコードを取得
+     * 
+     * @return ハッシュコード。
+     */
+    @Override
+    public int hashCode() {
+        final long mixed = _concealed * 31 + _rest;
+        return (int)(mixed ^ (mixed >>> 32));
+    }
+    
+    /**
+     * 文字列に変換
+     * 
+     * @return 変換結果。
+     */
+    @Override
+    public String toString() {
+        return Long.toHexString(_concealed) + ":" + Long.toHexString(_rest);
+    }
+    
+    
+    
+    /**
+     * 確定面子の符号を取得
+     * 
+     * @param menTsu 確定面子。
+     * @return 符号 (0は面子無しを表すため使用しない)。
+     */
+    private static int getMenTsuCode(final MenTsu menTsu) {
+        int head = CountCheckUtil.JAN_PAI_KIND;
+        for (final JanPai pai : menTsu.getSource()) {
+            head = Math.min(head, pai.ordinal());
+        }
+        return ((head + 1) << 3) | menTsu.getMenTsuType().ordinal();
+    }
+    
+    
+    
+    /**
+     * 数牌1種類分のビット数
+     */
+    private static final int SHU_PAI_BITS = 21;
+    
+    /**
+     * 字牌のビット数
+     */
+    private static final int JI_BITS = 17;
+    
+    /**
+     * 確定面子1つ分のビット数
+     */
+    private static final int MEN_TSU_BITS = 9;
+    
+    /**
+     * 確定面子の上限数
+     */
+    private static final int MEN_TSU_LIMIT = 4;
+    
+    
+    
+    /**
+     * 数牌の符号
+     */
+    private final long _concealed;
+    
+    /**
+     * 字牌と確定面子の符号
+     */
+    private final long _rest;
+    
+}
@@ -0,0 +1,372 @@
+/**
+ * HandNotation.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import wiz.project.jan.Hand;
+import wiz.project.jan.JanPai;
+import wiz.project.jan.MenTsu;
+import wiz.project.jan.MenTsuType;
+
+
+
+/**
+ * 手牌表記ユーティリティ
+ * 
+ *  ※数字の並びの後に種類 (m : 萬子、p : 筒子、s : 索子、z : 字牌) を付ける表記を扱う (例 : 123m456p789s11z)。
+ *  ※字牌は 1z から 7z を東・南・西・北・白・發・中とする。数牌の 0 は赤五として 5 と同じに扱う (0z は不正)。
+ *  ※種類の文字の後の空白は読み飛ばす (例 : 123m 456p)。
+ *  ※確定面子は面前手牌の後に括弧で囲んで付ける。[] は副露 (チー・ポン・明カン)、() は暗カンとする。
+ *    例 : 234m05p [567s] [777z] (1111m)
+ *  ※解析結果のキャッシュは HandKey を用いるが、一括解析・共有用の文字列表現は全てこの表記に統一する。
+ */
+public final class HandNotation {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private HandNotation() {
+    }
+    
+    
+    
+    /**
+     * 所持数配列を表記に変換
+     * 
+     * @param count 所持数配列。
+     * @return 表記。
+     */
+    public static String format(final int[] count) {
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        
+        final StringBuilder buf = new StringBuilder(BUFFER_SIZE);
+        append(buf, count);
+        return buf.toString();
+    }
+    
+    /**
+     * 所持数配列と確定面子を表記に変換
+     * 
+     * @param count 面前手牌の所持数配列。
+     * @param fixedMenTsuList 確定面子リスト。
+     * @return 表記。
+     */
+    public static String format(final int[] count, final List<MenTsu> fixedMenTsuList) {
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        if (fixedMenTsuList == null) {
+            throw new NullPointerException("Fixed men tsu list is null.");
+        }
+        
+        final StringBuilder buf = new StringBuilder(BUFFER_SIZE);
+        append(buf, count);
+        final int[] menTsuCount = new int[CountCheckUtil.JAN_PAI_KIND];
+        for (final MenTsu menTsu : fixedMenTsuList) {
+            for (final JanPai pai : menTsu.getSource()) {
+                menTsuCount[pai.ordinal()]++;
+            }
+            final boolean dark = (menTsu.getMenTsuType() == MenTsuType.KAN_DARK);
+            if (buf.length() > 0) {
+                buf.append(' ');
+            }
+            buf.append(dark ? '(' : '[');
+            append(buf, menTsuCount);
+            buf.append(dark ? ')' : ']');
+            
+            for (final JanPai pai : menTsu.getSource()) {
+                menTsuCount[pai.ordinal()] = 0;
+            }
+        }
+        return buf.toString();
+    }
+    
+    /**
+     * 手牌を表記に変換
+     * 
+     * @param hand 手牌。
+     * @return 表記。
+     */
+    public static String format(final Hand hand) {
+        if (hand == null) {
+            throw new NullPointerException("Hand is null.");
+        }
+        return format(CountCheckUtil.convertJanPaiMap(hand.getMenZenMap()), hand.getFixedMenTsuList());
+    }
+    
+    /**
+     * 雀牌を表記に変換
+     * 
+     * @param index 雀牌のインデックス。
+     * @return 表記 (例 : 1m)。
+     */
+    public static String format(final int index) {
+        if (index < 0 || CountCheckUtil.JAN_PAI_KIND <= index) {
+            throw new IllegalArgumentException("Invalid jan pai index - " + index);
+        }
+        return String.valueOf((char)('1' + index % 9)) + SUFFIX[index / 9];
+    }
+    
+    /**
+     * 表記を所持数配列に変換
+     * 
+     * @param source 表記。
+     * @return 所持数配列。
+     * @throws IllegalArgumentException 表記が不正、または同じ牌が5枚以上ある。
+     */
+    public static int[] parse(final CharSequence source) {
+        if (source == null) {
+            throw new NullPointerException("Source is null.");
+        }
+        
+        final int[] count = new int[CountCheckUtil.JAN_PAI_KIND];
+        parse(source, 0, source.length(), count, count);
+        return count;
+    }
+    
+    /**
+     * 表記を手牌に変換
+     * 
+     *  ※面前手牌は上限枚数以下であればよく、13枚または14枚に満たなくてもよい。
+     * 
+     * @param source 表記 (確定面子を含む)。
+     * @return 手牌。
+     * @throws IllegalArgumentException 表記が不正、同じ牌が5枚以上ある、または枚数が上限を超える。
+     */
+    public static Hand parseHand(final CharSequence source) {
+        if (source == null) {
+            throw new NullPointerException("Source is null.");
+        }
+        
+        final int[] count = new int[CountCheckUtil.JAN_PAI_KIND];
+        final int[] totalCount = new int[CountCheckUtil.JAN_PAI_KIND];
+        final int[] menTsuCount = new int[CountCheckUtil.JAN_PAI_KIND];
+        final List<MenTsu> fixedMenTsuList = new ArrayList<MenTsu>(MEN_TSU_LIMIT);
+        final int length = source.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char open = source.charAt(i);
+            if (open != '[' && open != '(') {
+                continue;
+            }
+            
+            // 括弧の前までを面前手牌、括弧の中を確定面子1つとして数える
+            final char close = (open == '[') ? ']' : ')';
+            int end = i + 1;
+            while (end < length && source.charAt(end) != close) {
+                end++;
+            }
+            if (end == length) {
+                throw new IllegalArgumentException("Missing '" + close + "' - " + source);
+            }
+            parse(source, start, i, count, totalCount);
+            parse(source, i + 1, end, menTsuCount, totalCount);
+            fixedMenTsuList.add(createMenTsu(menTsuCount, open == '(', source));
+            if (fixedMenTsuList.size() > MEN_TSU_LIMIT) {
+                throw new IllegalArgumentException("Too many fixed men tsu - " + source);
+            }
+            Arrays.fill(menTsuCount, 0);
+            start = end + 1;
+            i = end;
+        }
+        parse(source, start, length, count, totalCount);
+        
+        final int limit = HAND_LIMIT - fixedMenTsuList.size() * 3;
+        if (CountCheckUtil.getTotalCount(count) > limit) {
+            throw new IllegalArgumentException("Too many tiles (limit " + limit + ") - " + source);
+        }
+        return new Hand(toJanPaiList(count), fixedMenTsuList);
+    }
+    
+    
+    
+    /**
+     * 所持数配列の表記を追加
+     * 
+     * @param buf 追加先。
+     * @param count 所持数配列。
+     */
+    private static void append(final StringBuilder buf, final int[] count) {
+        for (int type = 0; type < SUFFIX.length; type++) {
+            final int offset = type * 9;
+            final int length = Math.min(9, CountCheckUtil.JAN_PAI_KIND - offset);
+            boolean found = false;
+            for (int i = 0; i < length; i++) {
+                for (int j = 0; j < count[offset + i]; j++) {
+                    buf.append((char)('1' + i));
+                    found = true;
+                }
+            }
+            if (found) {
+                buf.append(SUFFIX[type]);
+            }
+        }
+    }
+    
+    /**
+     * 確定面子を生成
+     * 
+     * @param count 面子の所持数配列。
+     * @param dark 暗カンか。
+     * @param source 表記 (エラーメッセージ用)。
+     * @return 確定面子。
+     * @throws IllegalArgumentException 面子として不正。
+     */
+    private static MenTsu createMenTsu(final int[] count, final boolean dark, final CharSequence source) {
+        int head = 0;
+        while (head < CountCheckUtil.JAN_PAI_KIND && count[head] == 0) {
+            head++;
+        }
+        final int total = CountCheckUtil.getTotalCount(count);
+        if (head < CountCheckUtil.JAN_PAI_KIND) {
+            final JanPai pai = CountCheckUtil.getJanPai(head);
+            if (count[head] == total) {
+                if (total == 4) {
+                    return new MenTsu(Arrays.asList(pai, pai, pai, pai), dark ? MenTsuType.KAN_DARK : MenTsuType.KAN_LIGHT);
+                }
+                if (total == 3 && !dark) {
+                    return new MenTsu(Arrays.asList(pai, pai, pai), MenTsuType.PON);
+                }
+            }
+            else if (total == 3 && !dark && head < CountCheckUtil.JI_INDEX && head % 9 <= 6 &&
+                     count[head] == 1 && count[head + 1] == 1 && count[head + 2] == 1) {
+                final JanPai next = pai.getNext();
+                return new MenTsu(Arrays.asList(pai, next, next.getNext()), MenTsuType.CHI);
+            }
+        }
+        throw new IllegalArgumentException("Invalid fixed men tsu - " + source);
+    }
+    
+    /**
+     * 表記の指定範囲を所持数配列に加算
+     * 
+     * @param source 表記。
+     * @param start 開始位置。
+     * @param end 終了位置 (この位置を含まない)。
+     * @param count 加算先の所持数配列。
+     * @param totalCount 5枚以上の判定に用いる所持数配列 (count と同じでもよい)。
+     * @throws IllegalArgumentException 表記が不正、または同じ牌が5枚以上ある。
+     */
+    private static void parse(final CharSequence source, final int start, final int end, final int[] count, final int[] totalCount) {
+        int numberStart = -1;
+        for (int i = start; i < end; i++) {
+            final char c = source.charAt(i);
+            if ('0' <= c && c <= '9') {
+                if (numberStart < 0) {
+                    numberStart = i;
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (numberStart >= 0) {
+                    throw new IllegalArgumentException("Missing suffix - " + source);
+                }
+                continue;
+            }
+            
+            final int type = getType(c);
+            if (type < 0) {
+                throw new IllegalArgumentException("Invalid character '" + c + "' - " + source);
+            }
+            if (numberStart < 0) {
+                throw new IllegalArgumentException("Suffix without number - " + source);
+            }
+            
+            // 種類の文字の直前までの数字を、その種類の牌として数える
+            for (int j = numberStart; j < i; j++) {
+                final char digit = source.charAt(j);
+                if (type == JI_TYPE && (digit == '0' || digit - '0' > JI_NUMBER_LIMIT)) {
+                    // 字牌に赤五は無い
+                    throw new IllegalArgumentException("Invalid honor number " + digit + "z - " + source);
+                }
+                final int number = (digit == '0') ? 5 : (digit - '0');
+                final int index = type * 9 + number - 1;
+                count[index]++;
+                if (totalCount != count) {
+                    totalCount[index]++;
+                }
+                if (totalCount[index] > 4) {
+                    throw new IllegalArgumentException("More than 4 tiles of " + format(index) + " - " + source);
+                }
+            }
+            numberStart = -1;
+        }
+        if (numberStart >= 0) {
+            throw new IllegalArgumentException("Missing suffix - " + source);
+        }
+    }
+    
+    /**
+     * 種類を取得
+     * 
+     * @param suffix 種類の文字。
+     * @return 種類 (萬子・筒子・索子・字牌の順に0から)。不正な文字ならば-1。
+     */
+    private static int getType(final char suffix) {
+        for (int type = 0; type < SUFFIX.length; type++) {
+            if (SUFFIX[type] == suffix) {
+                return type;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 所持数配列を雀牌リストに変換
+     * 
+     * @param count 所持数配列。
+     * @return 雀牌リスト。
+     */
+    private static List<JanPai> toJanPaiList(final int[] count) {
+        final List<JanPai> resultList = new ArrayList<JanPai>(CountCheckUtil.getTotalCount(count));
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            for (int j = 0; j < count[i]; j++) {
+                resultList.add(CountCheckUtil.getJanPai(i));
+            }
+        }
+        return resultList;
+    }
+    
+    
+    
+    /**
+     * 種類の文字
+     */
+    private static final char[] SUFFIX = { 'm', 'p', 's', 'z' };
+    
+    /**
+     * 字牌の種類
+     */
+    private static final int JI_TYPE = 3;
+    
+    /**
+     * 字牌の数字の上限
+     */
+    private static final int JI_NUMBER_LIMIT = CountCheckUtil.JAN_PAI_KIND - CountCheckUtil.JI_INDEX;
+    
+    /**
+     * 確定面子の上限数
+     */
+    private static final int MEN_TSU_LIMIT = 4;
+    
+    /**
+     * 手牌の上限枚数 (確定面子無し)
+     */
+    private static final int HAND_LIMIT = 14;
+    
+    /**
+     * 表記の初期バッファサイズ
+     */
+    private static final int BUFFER_SIZE = 32;
+    
+}
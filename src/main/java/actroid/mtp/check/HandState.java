@@ -0,0 +1,378 @@
+/**
+ * HandState.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+
+
+/**
+ * 差分更新可能な手牌状態
+ * 
+ *  ※所持数配列に加え、種類 (萬子・筒子・索子・字牌) 毎のキー・枚数・分解結果を保持する。
+ *  ※牌の増減や手牌の差し替えでは、変化した種類の分解結果のみを再計算する。
+ *  ※判定規則は CountCheckUtil・ShantenUtil と同じ。
+ *  ※スレッドセーフではない。複数スレッドで使う場合は複製すること。
+ */
+public final class HandState {
+    
+    /**
+     * コンストラクタ (空の手牌)
+     */
+    public HandState() {
+    }
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param count 所持数配列。
+     */
+    public HandState(final int[] count) {
+        update(count);
+    }
+    
+    /**
+     * コンストラクタ (複製)
+     * 
+     * @param source 複製元。
+     */
+    public HandState(final HandState source) {
+        copyFrom(source);
+    }
+    
+    
+    
+    /**
+     * 指定牌を1枚追加
+     * 
+     * @param index インデックス (JanPai.ordinal())。
+     */
+    public void add(final int index) {
+        final int type = getType(index);
+        _count[index]++;
+        _key[type] += ShuPaiTable.WEIGHT[index - type * 9];
+        _total[type]++;
+        markDirty(type);
+    }
+    
+    /**
+     * 状態を複写
+     * 
+     * @param source 複写元。
+     */
+    public void copyFrom(final HandState source) {
+        if (source == null) {
+            throw new NullPointerException("Source state is null.");
+        }
+        System.arraycopy(source._count, 0, _count, 0, CountCheckUtil.JAN_PAI_KIND);
+        System.arraycopy(source._key, 0, _key, 0, TYPE_COUNT);
+        System.arraycopy(source._total, 0, _total, 0, TYPE_COUNT);
+        System.arraycopy(source._complete, 0, _complete, 0, TYPE_COUNT);
+        System.arraycopy(source._shantenResult, 0, _shantenResult, 0, TYPE_COUNT);
+        _tableDirty = source._tableDirty;
+        _shantenDirty = source._shantenDirty;
+    }
+    
+    /**
+     * 和了牌マスクを取得
+     * 
+     *  ※既に4枚所持している牌は和了牌に含めない。
+     *  ※4面子1雀頭の判定は、保持している種類毎のキーを渡して CountCheckUtil と同じ処理で行う。
+     * 
+     * @return 和了牌マスク (JanPai.ordinal() 番目のビットが各牌に対応)。
+     */
+    public long getCompletableMask() {
+        final int total = getTotalCount();
+        if (total % 3 != 1) {
+            return 0L;
+        }
+        
+        long mask = CountCheckUtil.getCompletableMaskMenTsu(_count, _key[0], _key[1], _key[2]);
+        if (total == 13) {
+            mask |= CountCheckUtil.getCompletableMaskChiToi(_count);
+            mask |= CountCheckUtil.getCompletableMaskKokushi(_count);
+        }
+        return mask;
+    }
+    
+    /**
+     * 有効牌マスクを取得
+     * 
+     *  ※ツモによって向聴数が下がる牌の集合。既に4枚所持している牌は含めない。
+     *  ※ツモ牌の種類のみを再計算する。
+     * 
+     * @param fixedMenTsuCount 確定面子数。
+     * @return 有効牌マスク (JanPai.ordinal() 番目のビットが各牌に対応)。
+     */
+    public long getAcceptableMask(final int fixedMenTsuCount) {
+        final int shanten = getShanten(fixedMenTsuCount);
+        long mask = 0L;
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (_count[i] >= 4) {
+                continue;
+            }
+            add(i);
+            if (getShanten(fixedMenTsuCount) < shanten) {
+                mask |= 1L << i;
+            }
+            remove(i);
+        }
+        return mask;
+    }
+    
+    /**
+     * 指定牌の所持数を取得
+     * 
+     * @param index インデックス (JanPai.ordinal())。
+     * @return 所持数。
+     */
+    public int getCount(final int index) {
+        return _count[index];
+    }
+    
+    /**
+     * 向聴数を取得
+     * 
+     *  ※聴牌ならば0、和了形ならば-1を返す。
+     * 
+     * @param fixedMenTsuCount 確定面子数。
+     * @return 向聴数。
+     */
+    public int getShanten(final int fixedMenTsuCount) {
+        refreshShanten();
+        long result = _shantenResult[0];
+        for (int type = 1; type < TYPE_COUNT; type++) {
+            result = ShantenUtil.mergeResult(result, _shantenResult[type]);
+        }
+        
+        int shanten = ShantenUtil.getShantenMenTsu(result, fixedMenTsuCount);
+        if (fixedMenTsuCount == 0) {
+            shanten = Math.min(shanten, ShantenUtil.getShantenChiToi(_count));
+            shanten = Math.min(shanten, ShantenUtil.getShantenKokushi(_count));
+        }
+        return shanten;
+    }
+    
+    /**
+     * 総枚数を取得
+     * 
+     * @return 総枚数。
+     */
+    public int getTotalCount() {
+        int total = 0;
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            total += _total[type];
+        }
+        return total;
+    }
+    
+    /**
+     * 和了形か
+     * 
+     * @return 判定結果。
+     */
+    public boolean isComplete() {
+        final int total = getTotalCount();
+        if (total % 3 != 2) {
+            return false;
+        }
+        if (total == 14) {
+            if (CountCheckUtil.isCompleteChiToi(_count) || CountCheckUtil.isCompleteKokushi(_count)) {
+                return true;
+            }
+        }
+        
+        refreshTable();
+        int headCount = 0;
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if (!_complete[type]) {
+                return false;
+            }
+            if (_total[type] % 3 == 2) {
+                headCount++;
+            }
+        }
+        return headCount == 1;
+    }
+    
+    /**
+     * 再計算対象の種類の分解結果を再計算
+     * 
+     *  ※複製元となる状態を事前に再計算しておくと、複製先で同じ計算を繰り返さずに済む。
+     */
+    public void refresh() {
+        refreshTable();
+        refreshShanten();
+    }
+    
+    /**
+     * 指定牌を1枚削除
+     * 
+     * @param index インデックス (JanPai.ordinal())。
+     */
+    public void remove(final int index) {
+        if (_count[index] == 0) {
+            throw new IllegalStateException("Jan pai is not held - " + index);
+        }
+        
+        final int type = getType(index);
+        _count[index]--;
+        _key[type] -= ShuPaiTable.WEIGHT[index - type * 9];
+        _total[type]--;
+        markDirty(type);
+    }
+    
+    /**
+     * 所持数配列を差し替え
+     * 
+     *  ※前回の状態との差分を取り、所持数が変化した種類のみを再計算対象とする。
+     * 
+     * @param count 所持数配列。
+     * @return 変化した種類のビット列 (0:萬子、1:筒子、2:索子、3:字牌)。
+     */
+    public int update(final int[] count) {
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        
+        int changed = 0;
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            final int offset = type * 9;
+            final int size = getSize(type);
+            boolean same = true;
+            for (int i = offset; i < offset + size; i++) {
+                if (_count[i] != count[i]) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) {
+                continue;
+            }
+            
+            System.arraycopy(count, offset, _count, offset, size);
+            int key = 0;
+            for (int i = offset + size - 1; i >= offset; i--) {
+                key = key * 5 + count[i];
+            }
+            _key[type] = key;
+            _total[type] = CountCheckUtil.getTotalCount(count, offset, size);
+            markDirty(type);
+            changed |= 1 << type;
+        }
+        return changed;
+    }
+    
+    
+    
+    /**
+     * 再計算対象とする
+     * 
+     * @param type 種類。
+     */
+    private void markDirty(final int type) {
+        _tableDirty |= 1 << type;
+        _shantenDirty |= 1 << type;
+    }
+    
+    /**
+     * 分解可否を再計算
+     */
+    private void refreshTable() {
+        if (_tableDirty == 0) {
+            return;
+        }
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if ((_tableDirty & (1 << type)) == 0) {
+                continue;
+            }
+            _complete[type] = (type < 3) ? ShuPaiTable.isComplete(_key[type]) : CountCheckUtil.isCompleteJi(_count);
+        }
+        _tableDirty = 0;
+    }
+    
+    /**
+     * 向聴数計算用の種類毎の結果を再計算
+     */
+    private void refreshShanten() {
+        if (_shantenDirty == 0) {
+            return;
+        }
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if ((_shantenDirty & (1 << type)) != 0) {
+                _shantenResult[type] = ShantenUtil.getGroupResult(_count, type * 9, type < 3);
+            }
+        }
+        _shantenDirty = 0;
+    }
+    
+    
+    
+    /**
+     * 種類の大きさを取得
+     * 
+     * @param type 種類。
+     * @return 種類に含まれる牌の数。
+     */
+    private static int getSize(final int type) {
+        return (type < 3) ? 9 : 7;
+    }
+    
+    /**
+     * 種類を取得
+     * 
+     * @param index インデックス (JanPai.ordinal())。
+     * @return 種類 (0:萬子、1:筒子、2:索子、3:字牌)。
+     */
+    private static int getType(final int index) {
+        return index / 9;
+    }
+    
+    
+    
+    /**
+     * 種類数
+     */
+    private static final int TYPE_COUNT = 4;
+    
+    
+    
+    /**
+     * 所持数配列
+     */
+    private final int[] _count = new int[CountCheckUtil.JAN_PAI_KIND];
+    
+    /**
+     * 種類毎のキー
+     */
+    private final int[] _key = new int[TYPE_COUNT];
+    
+    /**
+     * 種類毎の枚数
+     */
+    private final int[] _total = new int[TYPE_COUNT];
+    
+    /**
+     * 種類毎の分解可否
+     */
+    private final boolean[] _complete = new boolean[TYPE_COUNT];
+    
+    /**
+     * 種類毎の向聴数計算用の結果
+     */
+    private final long[] _shantenResult = new long[TYPE_COUNT];
+    
+    /**
+     * 分解可否の再計算が必要な種類 (空の手牌も初回は計算する)
+     */
+    private int _tableDirty = (1 << TYPE_COUNT) - 1;
+    
+    /**
+     * 向聴数計算用の結果の再計算が必要な種類
+     */
+    private int _shantenDirty = (1 << TYPE_COUNT) - 1;
+    
+}
@@ -0,0 +1,201 @@
+/**
+ * Score.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import wiz.project.jan.Yaku;
+
+
+
+/**
+ * 和了時の得点
+ * 
+ *  ※役・翻数・符・点数 (和了者の収入合計) の組。役が無い場合は点数を0とする。
+ *  ※ドラ・立直などの状況役は含めない。
+ */
+public final class Score implements Comparable<Score>, Serializable {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param yakuList 役リスト (役満の場合は役満のみ)。
+     * @param han 翻数 (役満の場合は役の翻数の合計)。
+     * @param fu 符。
+     * @param point 点数。
+     */
+    public Score(final List<Yaku> yakuList, final int han, final int fu, final int point) {
+        if (yakuList == null) {
+            throw new NullPointerException("Yaku list is null.");
+        }
+        _yakuList = Collections.unmodifiableList(new ArrayList<Yaku>(yakuList));
+        _han = han;
+        _fu = fu;
+        _point = point;
+    }
+    
+    
+    
+    /**
+     * オブジェクトを比較
+     * 
+     *  ※点数・翻数・符の順に比較し、高い方を大きいとする (高点法)。
+     * 
+     * @param target 比較対象。
+     * @return 比較結果。
+     */
+    public int compareTo(final Score target) {
+        if (target == null) {
+            throw new NullPointerException("Target is null.");
+        }
+        if (_point != target._point) {
+            return (_point < target._point) ? -1 : 1;
+        }
+        if (_han != target._han) {
+            return (_han < target._han) ? -1 : 1;
+        }
+        if (_fu != target._fu) {
+            return (_fu < target._fu) ? -1 : 1;
+        }
+        return 0;
+    }
+    
+    /**
+     * オブジェクトと比較
+     * 
+     * @param target 比較対象オブジェクト。
+     * @return 比較結果。
+     */
+    @Override
+    public boolean equals(final Object target) {
+        if (target == this) {
+            return true;
+        }
+        if (!(target instanceof Score)) {
+            return false;
+        }
+        final Score score = (Score)target;
+        if (_han != score._han || _fu != score._fu || _point != score._point) {
+            return false;
+        }
+        return _yakuList.equals(score._yakuList);
+    }
+    
+    /**
+     * 符を取得
+     * 
+     * @return 符。
+     */
+    public int getFu() {
+        return _fu;
+    }
+    
+    /**
+     * 翻数を取得
+     * 
+     * @return 翻数。
+     */
+    public int getHan() {
+        return _han;
+    }
+    
+    /**
+     * 点数を取得
+     * 
+     * @return 点数 (和了者の収入合計)。役が無い場合は0。
+     */
+    public int getPoint() {
+        return _point;
+    }
+    
+    /**
+     * 役リストを取得
+     * 
+     * @return 役リスト。
+     */
+    public List<Yaku> getYakuList() {
+        return _yakuList;
+    }
+    
+    /**
+     * 役があるか
+     * 
+     * @return 判定結果。
+     */
+    public boolean hasYaku() {
+        return !_yakuList.isEmpty();
+    }
+    
+    /**
+     * ハッシュコードを取得
+     * 
+     * @return ハッシュコード。
+     */
+    @Override
+    public int hashCode() {
+        return ((_han * 31 + _fu) * 31 + _point) * 31 + _yakuList.hashCode();
+    }
+    
+    /**
+     * 役満か
+     * 
+     * @return 判定結果。
+     */
+    public boolean isYakuMan() {
+        return hasYaku() && _yakuList.get(0).isYakuMan();
+    }
+    
+    /**
+     * 文字列に変換
+     * 
+     * @return 変換結果。
+     */
+    @Override
+    public String toString() {
+        if (!hasYaku()) {
+            return "役無し";
+        }
+        if (isYakuMan()) {
+            return "役満 " + _point + "点";
+        }
+        return _han + "翻" + _fu + "符 " + _point + "点";
+    }
+    
+    
+    
+    /**
+     * シリアルバージョンUID
+     */
+    private static final long serialVersionUID = 1L;
+    
+    
+    
+    /**
+     * 役リスト
+     */
+    private final List<Yaku> _yakuList;
+    
+    /**
+     * 翻数
+     */
+    private final int _han;
+    
+    /**
+     * 符
+     */
+    private final int _fu;
+    
+    /**
+     * 点数
+     */
+    private final int _point;
+    
+}
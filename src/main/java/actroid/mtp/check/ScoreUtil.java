@@ -0,0 +1,751 @@
+/**
+ * ScoreUtil.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import wiz.project.jan.JanPai;
+import wiz.project.jan.MenTsu;
+import wiz.project.jan.MenTsuType;
+import wiz.project.jan.Wind;
+import wiz.project.jan.Yaku;
+
+
+
+/**
+ * 得点計算ユーティリティ
+ * 
+ *  ※聴牌判定時に求めた和了形の分解 (WaitPattern) から、和了牌毎の栄和・自摸の得点を求める。
+ *    手牌を再探索しないため、待ちの数・和了方法の数に比例した探索は発生しない。
+ *  ※分解が複数ある場合は最も高い得点を採用する (高点法)。
+ *  ※ドラ・立直などの状況役は含めない。
+ *  ※役 (字牌) は字牌の入れ替えで変わるため、正規化した手牌 (CanonicalHand) ではなく元の手牌で計算すること。
+ */
+public final class ScoreUtil {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private ScoreUtil() {
+    }
+    
+    
+    
+    /**
+     * 得点付きの待ちパターンを取得
+     * 
+     * @param pattern 待ちパターン。
+     * @param count 捨て牌を除いた面前手牌の所持数配列 (3n+1 枚)。
+     * @param fixedMenTsuList 確定面子リスト。
+     * @param fieldWind 場風。
+     * @param playerWind 自風。
+     * @return 栄和・自摸の得点を設定した待ちパターン。
+     */
+    public static WaitPattern getScoredWaitPattern(final WaitPattern pattern,
+                                                   final int[] count,
+                                                   final List<MenTsu> fixedMenTsuList,
+                                                   final Wind fieldWind,
+                                                   final Wind playerWind) {
+        if (pattern == null) {
+            throw new NullPointerException("Wait pattern is null.");
+        }
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        if (fixedMenTsuList == null) {
+            throw new NullPointerException("Fixed men tsu list is null.");
+        }
+        if (fieldWind == null || playerWind == null) {
+            throw new NullPointerException("Wind is null.");
+        }
+        
+        final int completable = pattern.getCompletable().ordinal();
+        final int[] completeCount = count.clone();
+        completeCount[completable]++;
+        
+        Score ron = null;
+        Score tsumo = null;
+        for (final Decomposition decomposition : pattern.getDecompositionList()) {
+            final Score ronScore = getScore(decomposition, completeCount, completable, fixedMenTsuList, true, fieldWind, playerWind);
+            final Score tsumoScore = getScore(decomposition, completeCount, completable, fixedMenTsuList, false, fieldWind, playerWind);
+            if (ron == null || ronScore.compareTo(ron) > 0) {
+                ron = ronScore;
+            }
+            if (tsumo == null || tsumoScore.compareTo(tsumo) > 0) {
+                tsumo = tsumoScore;
+            }
+        }
+        if (ron == null) {
+            // 分解が無い (和了形でない)
+            ron = NO_YAKU;
+            tsumo = NO_YAKU;
+        }
+        return new WaitPattern(pattern.getDiscard(), pattern.getCompletable(), pattern.getDecompositionList(), ron, tsumo);
+    }
+    
+    
+    
+    /**
+     * 得点を取得
+     * 
+     * @param decomposition 和了形の分解。
+     * @param count 和了牌を含む面前手牌の所持数配列。
+     * @param completable 和了牌のインデックス。
+     * @param fixedMenTsuList 確定面子リスト。
+     * @param ron 栄和か (falseならば自摸)。
+     * @param fieldWind 場風。
+     * @param playerWind 自風。
+     * @return 得点。
+     */
+    private static Score getScore(final Decomposition decomposition,
+                                  final int[] count,
+                                  final int completable,
+                                  final List<MenTsu> fixedMenTsuList,
+                                  final boolean ron,
+                                  final Wind fieldWind,
+                                  final Wind playerWind) {
+        boolean menZen = true;
+        for (final MenTsu menTsu : fixedMenTsuList) {
+            if (menTsu.getMenTsuType() != MenTsuType.KAN_DARK) {
+                menZen = false;
+            }
+        }
+        final int fieldWindIndex = CountCheckUtil.JI_INDEX + fieldWind.ordinal();
+        final int playerWindIndex = CountCheckUtil.JI_INDEX + playerWind.ordinal();
+        
+        // 全ての牌 (確定面子を含む) の所持数
+        final int[] all = count.clone();
+        for (final MenTsu menTsu : fixedMenTsuList) {
+            for (final JanPai pai : menTsu.getSource()) {
+                all[pai.ordinal()]++;
+            }
+        }
+        
+        final List<Yaku> yakuList = new ArrayList<Yaku>();
+        final List<Yaku> yakuManList = new ArrayList<Yaku>();
+        int fu;
+        switch (decomposition.getForm()) {
+        case KOKUSHI:
+            yakuManList.add((decomposition.getWaitType() == WaitType.KOKUSHI_13) ? Yaku.KOKUSHI_13 : Yaku.KOKUSHI);
+            fu = 0;
+            break;
+        case CHI_TOI:
+            yakuList.add(Yaku.CHI_TOI);
+            addColorYaku(all, yakuList, yakuManList);
+            if (isAllYao(all)) {
+                yakuList.add(Yaku.HON_ROU_TOU);
+            }
+            fu = CHI_TOI_FU;
+            break;
+        default:
+            final List<Block> blockList = createBlockList(decomposition, completable, fixedMenTsuList, ron);
+            addMenTsuYaku(decomposition, blockList, count, completable, menZen, fieldWindIndex, playerWindIndex, yakuList, yakuManList);
+            addColorYaku(all, yakuList, yakuManList);
+            if (!yakuList.contains(Yaku.PINFU)) {
+                fu = getFu(decomposition, blockList, menZen, ron, fieldWindIndex, playerWindIndex);
+            }
+            else {
+                fu = ron ? 30 : 20;
+            }
+            break;
+        }
+        if (menZen && !ron && yakuManList.isEmpty()) {
+            yakuList.add(0, Yaku.TSUMO);
+        }
+        
+        // 役満があれば通常役は数えない
+        final List<Yaku> resultList = yakuManList.isEmpty() ? yakuList : yakuManList;
+        if (resultList.isEmpty()) {
+            return NO_YAKU;
+        }
+        int han = 0;
+        for (final Yaku yaku : resultList) {
+            han += (!menZen && yaku.isCallDown()) ? (yaku.getFan() - 1) : yaku.getFan();
+        }
+        final boolean dealer = (playerWind == Wind.TON);
+        return new Score(resultList, han, fu, getPoint(han, fu, !yakuManList.isEmpty(), dealer, ron));
+    }
+    
+    
+    
+    /**
+     * 字一色・緑一色・清一色・混一色・断么九を追加
+     * 
+     * @param all 全ての牌の所持数配列。
+     * @param yakuList 役の追加先。
+     * @param yakuManList 役満の追加先。
+     */
+    private static void addColorYaku(final int[] all, final List<Yaku> yakuList, final List<Yaku> yakuManList) {
+        boolean hasJi = false;
+        boolean hasYao = false;
+        boolean green = true;
+        int suitMask = 0;
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (all[i] == 0) {
+                continue;
+            }
+            if (i >= CountCheckUtil.JI_INDEX) {
+                hasJi = true;
+                hasYao = true;
+            }
+            else {
+                suitMask |= 1 << (i / 9);
+                if (i % 9 == 0 || i % 9 == 8) {
+                    hasYao = true;
+                }
+            }
+            if (!isGreen(i)) {
+                green = false;
+            }
+        }
+        
+        if (suitMask == 0) {
+            yakuManList.add(Yaku.TSU_I_SOU);
+        }
+        if (green) {
+            yakuManList.add(Yaku.RYU_I_SOU);
+        }
+        if (Integer.bitCount(suitMask) == 1) {
+            yakuList.add(hasJi ? Yaku.HON_ITSU : Yaku.CHIN_ITSU);
+        }
+        if (!hasYao) {
+            yakuList.add(Yaku.TAN_YAO);
+        }
+    }
+    
+    /**
+     * 面子に関する役を追加
+     * 
+     * @param decomposition 和了形の分解。
+     * @param blockList 面子リスト (確定面子を含む)。
+     * @param count 和了牌を含む面前手牌の所持数配列。
+     * @param completable 和了牌のインデックス。
+     * @param menZen 門前か。
+     * @param fieldWindIndex 場風牌のインデックス。
+     * @param playerWindIndex 自風牌のインデックス。
+     * @param yakuList 役の追加先。
+     * @param yakuManList 役満の追加先。
+     */
+    private static void addMenTsuYaku(final Decomposition decomposition,
+                                      final List<Block> blockList,
+                                      final int[] count,
+                                      final int completable,
+                                      final boolean menZen,
+                                      final int fieldWindIndex,
+                                      final int playerWindIndex,
+                                      final List<Yaku> yakuList,
+                                      final List<Yaku> yakuManList) {
+        final int head = decomposition.getHead().ordinal();
+        final boolean[] shunTsu = new boolean[CountCheckUtil.JAN_PAI_KIND];
+        final boolean[] kouTsu = new boolean[CountCheckUtil.JAN_PAI_KIND];
+        int shunTsuCount = 0;
+        int darkKouTsuCount = 0;
+        int kanCount = 0;
+        int sanGenCount = 0;
+        int windCount = 0;
+        boolean allYao = isYao(head);
+        boolean allTerminalSet = true;
+        for (final Block block : blockList) {
+            if (block.isShunTsu()) {
+                shunTsu[block.getFirst()] = true;
+                shunTsuCount++;
+                final int number = block.getFirst() % 9;
+                allYao = false;
+                if (number != 0 && number != 6) {
+                    allTerminalSet = false;
+                }
+                continue;
+            }
+            kouTsu[block.getFirst()] = true;
+            if (!block.isOpen()) {
+                darkKouTsuCount++;
+            }
+            if (block.isKan()) {
+                kanCount++;
+            }
+            if (!isYao(block.getFirst())) {
+                allYao = false;
+                allTerminalSet = false;
+            }
+            if (block.getFirst() >= SAN_GEN_INDEX) {
+                sanGenCount++;
+                yakuList.add(Yaku.YAKU_HAI);
+            }
+            else if (block.getFirst() >= CountCheckUtil.JI_INDEX) {
+                windCount++;
+            }
+            if (block.getFirst() == fieldWindIndex) {
+                yakuList.add(Yaku.YAKU_HAI);
+            }
+            if (block.getFirst() == playerWindIndex) {
+                yakuList.add(Yaku.YAKU_HAI);
+            }
+        }
+        if (!isYao(head)) {
+            allTerminalSet = false;
+        }
+        
+        // 役満
+        if (darkKouTsuCount == 4) {
+            yakuManList.add((decomposition.getWaitType() == WaitType.TAN_KI) ? Yaku.SU_AN_KOU_TANKI : Yaku.SU_AN_KOU);
+        }
+        if (sanGenCount == 3) {
+            yakuManList.add(Yaku.DAI_SAN_GEN);
+        }
+        if (windCount == 4) {
+            yakuManList.add(Yaku.DAI_SU_SHI);
+        }
+        else if (windCount == 3 && head >= CountCheckUtil.JI_INDEX && head < SAN_GEN_INDEX) {
+            yakuManList.add(Yaku.SHOU_SU_SHI);
+        }
+        if (kanCount == 4) {
+            yakuManList.add(Yaku.SU_KAN_TSU);
+        }
+        if (allYao && isAllTerminal(blockList, head)) {
+            yakuManList.add(Yaku.CHIN_ROU_TOU);
+        }
+        if (menZen) {
+            final Yaku chuRen = getChuRen(count, completable);
+            if (chuRen != null) {
+                yakuManList.add(chuRen);
+            }
+        }
+        
+        // 1翻
+        if (menZen && shunTsuCount == 4 && decomposition.getWaitType() == WaitType.RYAN_MEN && !isYakuHaiHead(head, fieldWindIndex, playerWindIndex)) {
+            yakuList.add(0, Yaku.PINFU);
+        }
+        if (menZen) {
+            final int peiKouCount = getPeiKouCount(decomposition);
+            if (peiKouCount >= 2) {
+                yakuList.add(Yaku.RYAN_PEI_KOU);
+            }
+            else if (peiKouCount == 1) {
+                yakuList.add(Yaku.I_PEI_KOU);
+            }
+        }
+        
+        // 2翻以上
+        for (int number = 0; number < 9; number++) {
+            if (number <= 6 && shunTsu[number] && shunTsu[9 + number] && shunTsu[18 + number]) {
+                yakuList.add(Yaku.SAN_SHOKU_DOU_JUN);
+            }
+            if (kouTsu[number] && kouTsu[9 + number] && kouTsu[18 + number]) {
+                yakuList.add(Yaku.SHAN_SHOKU_DOU_KOU);
+            }
+        }
+        for (int type = 0; type < 3; type++) {
+            if (shunTsu[type * 9] && shunTsu[type * 9 + 3] && shunTsu[type * 9 + 6]) {
+                yakuList.add(Yaku.IKKI_TSU_KAN);
+            }
+        }
+        if (shunTsuCount > 0 && allTerminalSet) {
+            boolean hasJi = head >= CountCheckUtil.JI_INDEX;
+            for (final Block block : blockList) {
+                if (block.getFirst() >= CountCheckUtil.JI_INDEX) {
+                    hasJi = true;
+                }
+            }
+            yakuList.add(hasJi ? Yaku.CHAN_TA : Yaku.JUN_CHAN);
+        }
+        if (shunTsuCount == 0) {
+            yakuList.add(Yaku.TOI_TOI);
+        }
+        if (darkKouTsuCount == 3) {
+            yakuList.add(Yaku.SAN_AN_KOU);
+        }
+        if (allYao && !isAllTerminal(blockList, head)) {
+            yakuList.add(Yaku.HON_ROU_TOU);
+        }
+        if (kanCount == 3) {
+            yakuList.add(Yaku.SAN_KAN_TSU);
+        }
+        if (sanGenCount == 2 && head >= SAN_GEN_INDEX) {
+            yakuList.add(Yaku.SHOU_SAN_GEN);
+        }
+    }
+    
+    /**
+     * 面子リストを生成
+     * 
+     *  ※栄和で双碰待ちの刻子が完成した場合、その刻子は明刻とする。
+     * 
+     * @param decomposition 和了形の分解。
+     * @param completable 和了牌のインデックス。
+     * @param fixedMenTsuList 確定面子リスト。
+     * @param ron 栄和か。
+     * @return 面子リスト。
+     */
+    private static List<Block> createBlockList(final Decomposition decomposition, final int completable, final List<MenTsu> fixedMenTsuList, final boolean ron) {
+        final List<Block> blockList = new ArrayList<Block>();
+        for (final JanPai pai : decomposition.getShunTsuList()) {
+            blockList.add(new Block(pai.ordinal(), true, false, false));
+        }
+        final boolean ronKouTsu = ron && decomposition.getWaitType() == WaitType.SHAN_PON;
+        for (final JanPai pai : decomposition.getKouTsuList()) {
+            blockList.add(new Block(pai.ordinal(), false, false, ronKouTsu && pai.ordinal() == completable));
+        }
+        for (final MenTsu menTsu : fixedMenTsuList) {
+            int first = CountCheckUtil.JAN_PAI_KIND;
+            for (final JanPai pai : menTsu.getSource()) {
+                first = Math.min(first, pai.ordinal());
+            }
+            final boolean shunTsu = menTsu.getMenTsuType().isShunTsu();
+            final boolean kan = menTsu.getSize() == 4;
+            blockList.add(new Block(first, shunTsu, kan, menTsu.getMenTsuType() != MenTsuType.KAN_DARK));
+        }
+        return blockList;
+    }
+    
+    /**
+     * 九蓮宝燈の役を取得
+     * 
+     * @param count 和了牌を含む面前手牌の所持数配列 (副露があれば14枚にならない)。
+     * @param completable 和了牌のインデックス。
+     * @return 役。九蓮宝燈でなければnull。
+     */
+    private static Yaku getChuRen(final int[] count, final int completable) {
+        if (completable >= CountCheckUtil.JI_INDEX) {
+            return null;
+        }
+        final int offset = (completable / 9) * 9;
+        if (CountCheckUtil.getTotalCount(count, offset, 9) != 14) {
+            return null;
+        }
+        boolean nineSide = true;
+        for (int number = 0; number < 9; number++) {
+            final int required = CHU_REN_BASE[number];
+            final int value = count[offset + number];
+            if (value < required) {
+                return null;
+            }
+            final int before = (offset + number == completable) ? (value - 1) : value;
+            if (before != required) {
+                nineSide = false;
+            }
+        }
+        return nineSide ? Yaku.CHU_REN_09 : Yaku.CHU_REN;
+    }
+    
+    /**
+     * 符を取得 (平和以外)
+     * 
+     * @param decomposition 和了形の分解。
+     * @param blockList 面子リスト (確定面子を含む)。
+     * @param menZen 門前か。
+     * @param ron 栄和か。
+     * @param fieldWindIndex 場風牌のインデックス。
+     * @param playerWindIndex 自風牌のインデックス。
+     * @return 符 (10符単位に切り上げ)。
+     */
+    private static int getFu(final Decomposition decomposition,
+                             final List<Block> blockList,
+                             final boolean menZen,
+                             final boolean ron,
+                             final int fieldWindIndex,
+                             final int playerWindIndex) {
+        int fu = 20;
+        if (menZen && ron) {
+            fu += 10;
+        }
+        if (!ron) {
+            fu += 2;
+        }
+        switch (decomposition.getWaitType()) {
+        case KAN_CHAN:
+        case PEN_CHAN:
+        case TAN_KI:
+            fu += 2;
+            break;
+        default:
+            break;
+        }
+        
+        final int head = decomposition.getHead().ordinal();
+        if (head >= SAN_GEN_INDEX) {
+            fu += 2;
+        }
+        if (head == fieldWindIndex) {
+            fu += 2;
+        }
+        if (head == playerWindIndex) {
+            fu += 2;
+        }
+        for (final Block block : blockList) {
+            if (block.isShunTsu()) {
+                continue;
+            }
+            int blockFu = 2;
+            if (isYao(block.getFirst())) {
+                blockFu *= 2;
+            }
+            if (!block.isOpen()) {
+                blockFu *= 2;
+            }
+            if (block.isKan()) {
+                blockFu *= 4;
+            }
+            fu += blockFu;
+        }
+        
+        // 副露して符が付かない場合も30符とする
+        final int result = ((fu + 9) / 10) * 10;
+        return Math.max(result, 30);
+    }
+    
+    /**
+     * 一盃口の数を取得
+     * 
+     * @param decomposition 和了形の分解。
+     * @return 同じ順子の組の数。
+     */
+    private static int getPeiKouCount(final Decomposition decomposition) {
+        final int[] shunTsuCount = new int[CountCheckUtil.JAN_PAI_KIND];
+        for (final JanPai pai : decomposition.getShunTsuList()) {
+            shunTsuCount[pai.ordinal()]++;
+        }
+        int result = 0;
+        for (final int value : shunTsuCount) {
+            result += value / 2;
+        }
+        return result;
+    }
+    
+    /**
+     * 点数を取得
+     * 
+     * @param han 翻数。
+     * @param fu 符。
+     * @param yakuMan 役満か。
+     * @param dealer 親か。
+     * @param ron 栄和か。
+     * @return 点数 (和了者の収入合計)。
+     */
+    private static int getPoint(final int han, final int fu, final boolean yakuMan, final boolean dealer, final boolean ron) {
+        final int base;
+        if (yakuMan) {
+            base = 8000 * (han / 13);
+        }
+        else if (han >= 13) {
+            base = 8000;
+        }
+        else if (han >= 11) {
+            base = 6000;
+        }
+        else if (han >= 8) {
+            base = 4000;
+        }
+        else if (han >= 6) {
+            base = 3000;
+        }
+        else {
+            base = (han >= 5) ? 2000 : Math.min(fu << (han + 2), 2000);
+        }
+        
+        if (ron) {
+            return roundUp(base * (dealer ? 6 : 4));
+        }
+        if (dealer) {
+            return roundUp(base * 2) * 3;
+        }
+        return roundUp(base * 2) + roundUp(base) * 2;
+    }
+    
+    /**
+     * 全て么九牌か
+     * 
+     * @param all 全ての牌の所持数配列。
+     * @return 判定結果。
+     */
+    private static boolean isAllYao(final int[] all) {
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (all[i] != 0 && !isYao(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 全て老頭牌の刻子・雀頭か
+     * 
+     * @param blockList 面子リスト。
+     * @param head 雀頭のインデックス。
+     * @return 判定結果。
+     */
+    private static boolean isAllTerminal(final List<Block> blockList, final int head) {
+        if (head >= CountCheckUtil.JI_INDEX || !isYao(head)) {
+            return false;
+        }
+        for (final Block block : blockList) {
+            if (block.isShunTsu() || block.getFirst() >= CountCheckUtil.JI_INDEX || !isYao(block.getFirst())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 緑一色に使える牌か
+     * 
+     * @param index 雀牌のインデックス。
+     * @return 判定結果。
+     */
+    private static boolean isGreen(final int index) {
+        for (final int green : GREEN_INDEX) {
+            if (index == green) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 么九牌か
+     * 
+     * @param index 雀牌のインデックス。
+     * @return 判定結果。
+     */
+    private static boolean isYao(final int index) {
+        return index >= CountCheckUtil.JI_INDEX || index % 9 == 0 || index % 9 == 8;
+    }
+    
+    /**
+     * 役牌の雀頭か
+     * 
+     * @param head 雀頭のインデックス。
+     * @param fieldWindIndex 場風牌のインデックス。
+     * @param playerWindIndex 自風牌のインデックス。
+     * @return 判定結果。
+     */
+    private static boolean isYakuHaiHead(final int head, final int fieldWindIndex, final int playerWindIndex) {
+        return head >= SAN_GEN_INDEX || head == fieldWindIndex || head == playerWindIndex;
+    }
+    
+    /**
+     * 100点単位に切り上げ
+     * 
+     * @param point 点数。
+     * @return 切り上げた点数。
+     */
+    private static int roundUp(final int point) {
+        return ((point + 99) / 100) * 100;
+    }
+    
+    
+    
+    /**
+     * 役無し
+     */
+    private static final Score NO_YAKU = new Score(new ArrayList<Yaku>(), 0, 0, 0);
+    
+    /**
+     * 七対子の符
+     */
+    private static final int CHI_TOI_FU = 25;
+    
+    /**
+     * 三元牌の先頭インデックス
+     */
+    private static final int SAN_GEN_INDEX = JanPai.HAKU.ordinal();
+    
+    /**
+     * 緑一色に使える牌のインデックス (2索・3索・4索・6索・8索・發)
+     */
+    private static final int[] GREEN_INDEX = { 19, 20, 21, 23, 25, 32 };
+    
+    /**
+     * 九蓮宝燈の基本形 (1112345678999)
+     */
+    private static final int[] CHU_REN_BASE = { 3, 1, 1, 1, 1, 1, 1, 1, 3 };
+    
+    
+    
+    /**
+     * 面子 (得点計算用)
+     */
+    private static final class Block {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param first 先頭牌のインデックス。
+         * @param shunTsu 順子か。
+         * @param kan 槓子か。
+         * @param open 明刻 (副露・栄和で完成) か。
+         */
+        public Block(final int first, final boolean shunTsu, final boolean kan, final boolean open) {
+            _first = first;
+            _shunTsu = shunTsu;
+            _kan = kan;
+            _open = open;
+        }
+        
+        
+        
+        /**
+         * 先頭牌のインデックスを取得
+         * 
+         * @return 先頭牌のインデックス。
+         */
+        public int getFirst() {
+            return _first;
+        }
+        
+        /**
+         * 槓子か
+         * 
+         * @return 判定結果。
+         */
+        public boolean isKan() {
+            return _kan;
+        }
+        
+        /**
+         * 明刻か
+         * 
+         * @return 判定結果。
+         */
+        public boolean isOpen() {
+            return _open;
+        }
+        
+        /**
+         * 順子か
+         * 
+         * @return 判定結果。
+         */
+        public boolean isShunTsu() {
+            return _shunTsu;
+        }
+        
+        
+        
+        /**
+         * 先頭牌のインデックス
+         */
+        private final int _first;
+        
+        /**
+         * 順子か
+         */
+        private final boolean _shunTsu;
+        
+        /**
+         * 槓子か
+         */
+        private final boolean _kan;
+        
+        /**
+         * 明刻か
+         */
+        private final boolean _open;
+    }
+    
+}
@@ -0,0 +1,141 @@
+/**
+ * ShantenAnalyzer.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 向聴パターン解析
+ * 
+ *  ※捨て牌候補毎に向聴数と有効牌を求める。候補は解析用ワーカープールで並列に処理する。
+ */
+public final class ShantenAnalyzer {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private ShantenAnalyzer() {
+    }
+    
+    
+    
+    /**
+     * 向聴パターンリストを取得
+     * 
+     * @param state 面前手牌の状態 (3n+2 枚)。処理中に変更しないこと。
+     * @param visible 見えている牌の所持数配列。処理中に変更しないこと。
+     * @param fixedMenTsuCount 確定面子数。
+     * @return 向聴パターンリスト (向聴数の昇順、有効牌の残り枚数の降順)。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static List<ShantenPattern> getShantenPatternList(final HandState state, final int[] visible, final int fixedMenTsuCount) throws InterruptedException {
+        return getShantenPatternList(state, visible, fixedMenTsuCount, AnalysisWorkerPool.getInstance());
+    }
+    
+    /**
+     * 向聴パターンリストを取得
+     * 
+     * @param state 面前手牌の状態 (3n+2 枚)。処理中に変更しないこと。
+     * @param visible 見えている牌の所持数配列。処理中に変更しないこと。
+     * @param fixedMenTsuCount 確定面子数。
+     * @param pool 捨て牌候補を処理するワーカープール。
+     * @return 向聴パターンリスト (向聴数の昇順、有効牌の残り枚数の降順)。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static List<ShantenPattern> getShantenPatternList(final HandState state,
+                                                             final int[] visible,
+                                                             final int fixedMenTsuCount,
+                                                             final AnalysisWorkerPool pool) throws InterruptedException {
+        final List<ShantenPatternTask> taskList = new ArrayList<ShantenPatternTask>();
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (state.getCount(i) > 0) {
+                taskList.add(new ShantenPatternTask(state, visible, fixedMenTsuCount, i));
+            }
+        }
+        
+        final List<ShantenPattern> resultList = pool.invokeAll(taskList);
+        Collections.sort(resultList);
+        return resultList;
+    }
+    
+    
+    
+    /**
+     * 捨て牌候補1つ分の解析処理
+     */
+    private static final class ShantenPatternTask implements Callable<ShantenPattern> {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param state 面前手牌の状態。
+         * @param visible 見えている牌の所持数配列。
+         * @param fixedMenTsuCount 確定面子数。
+         * @param discard 捨て牌のインデックス。
+         */
+        public ShantenPatternTask(final HandState state, final int[] visible, final int fixedMenTsuCount, final int discard) {
+            _state = state;
+            _visible = visible;
+            _fixedMenTsuCount = fixedMenTsuCount;
+            _discard = discard;
+        }
+        
+        
+        
+        /**
+         * 処理を実行
+         * 
+         *  ※共有の手牌状態は参照のみとし、ワーカー毎の作業用状態に複写して判定する。
+         *  ※捨て牌・ツモ牌の種類のみを再計算し、他の種類の分解結果は使い回す。
+         * 
+         * @return 向聴パターン。
+         */
+        public ShantenPattern call() {
+            final HandState work = AnalysisWorkerPool.getWorkState();
+            work.copyFrom(_state);
+            work.remove(_discard);
+            
+            final int shanten = work.getShanten(_fixedMenTsuCount);
+            final long acceptable = work.getAcceptableMask(_fixedMenTsuCount);
+            final List<JanPai> acceptableList = CountCheckUtil.convertMask(acceptable);
+            final Map<JanPai, Integer> expectation = CountCheckUtil.getExpectation(_visible, acceptableList);
+            return new ShantenPattern(CountCheckUtil.getJanPai(_discard), shanten, acceptableList, expectation);
+        }
+        
+        
+        
+        /**
+         * 面前手牌の状態
+         */
+        private final HandState _state;
+        
+        /**
+         * 見えている牌の所持数配列
+         */
+        private final int[] _visible;
+        
+        /**
+         * 確定面子数
+         */
+        private final int _fixedMenTsuCount;
+        
+        /**
+         * 捨て牌のインデックス
+         */
+        private final int _discard;
+    }
+    
+}
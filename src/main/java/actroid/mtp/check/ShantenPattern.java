@@ -0,0 +1,200 @@
+/**
+ * ShantenPattern.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 向聴パターン
+ * 
+ *  ※捨て牌と、その牌を捨てた後の向聴数・有効牌 (受け入れ) の組。
+ *  ※向聴数の昇順、有効牌の残り枚数の降順、捨て牌の順に整列する。
+ */
+public final class ShantenPattern implements Comparable<ShantenPattern>, Serializable {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param discard 捨て牌。
+     * @param shanten 向聴数。
+     * @param acceptableList 有効牌リスト。
+     * @param expectation 有効牌毎の残り枚数。
+     */
+    public ShantenPattern(final JanPai discard, final int shanten, final List<JanPai> acceptableList, final Map<JanPai, Integer> expectation) {
+        if (discard == null) {
+            throw new NullPointerException("Discard is null.");
+        }
+        if (acceptableList == null) {
+            throw new NullPointerException("Acceptable list is null.");
+        }
+        if (expectation == null) {
+            throw new NullPointerException("Expectation is null.");
+        }
+        _discard = discard;
+        _shanten = shanten;
+        _acceptableList = Collections.unmodifiableList(new ArrayList<JanPai>(acceptableList));
+        _expectation = Collections.unmodifiableMap(new TreeMap<JanPai, Integer>(expectation));
+        
+        int total = 0;
+        for (final Integer count : expectation.values()) {
+            total += count;
+        }
+        _expectationTotal = total;
+    }
+    
+    
+    
+    /**
+     * オブジェクトを比較
+     * 
+     * @param target 比較対象。
+     * @return 比較結果。
+     */
+    public int compareTo(final ShantenPattern target) {
+        if (target == null) {
+            throw new NullPointerException("Target is null.");
+        }
+        if (_shanten != target._shanten) {
+            return (_shanten < target._shanten) ? -1 : 1;
+        }
+        if (_expectationTotal != target._expectationTotal) {
+            return (_expectationTotal > target._expectationTotal) ? -1 : 1;
+        }
+        return _discard.compareTo(target._discard);
+    }
+    
+    /**
+     * オブジェクトと比較
+     * 
+     * @param target 比較対象オブジェクト。
+     * @return 比較結果。
+     */
+    @Override
+    public boolean equals(final Object target) {
+        if (target == this) {
+            return true;
+        }
+        if (!(target instanceof ShantenPattern)) {
+            return false;
+        }
+        final ShantenPattern pattern = (ShantenPattern)target;
+        if (_discard != pattern._discard || _shanten != pattern._shanten) {
+            return false;
+        }
+        return _acceptableList.equals(pattern._acceptableList) && _expectation.equals(pattern._expectation);
+    }
+    
+    /**
+     * 有効牌リストを取得
+     * 
+     * @return 有効牌リスト。
+     */
+    public List<JanPai> getAcceptableList() {
+        return _acceptableList;
+    }
+    
+    /**
+     * 捨て牌を取得
+     * 
+     * @return 捨て牌。
+     */
+    public JanPai getDiscard() {
+        return _discard;
+    }
+    
+    /**
+     * 有効牌毎の残り枚数を取得
+     * 
+     * @return 有効牌毎の残り枚数。
+     */
+    public Map<JanPai, Integer> getExpectation() {
+        return _expectation;
+    }
+    
+    /**
+     * 有効牌の残り枚数の合計を取得
+     * 
+     * @return 有効牌の残り枚数の合計。
+     */
+    public int getExpectationTotal() {
+        return _expectationTotal;
+    }
+    
+    /**
+     * 向聴数を取得
+     * 
+     * @return 向聴数 (聴牌ならば0)。
+     */
+    public int getShanten() {
+        return _shanten;
+    }
+    
+    /**
+     * ハッシュコードを取得
+     * 
+     * @return ハッシュコード。
+     */
+    @Override
+    public int hashCode() {
+        return (_discard.ordinal() * 31 + _shanten) * 31 + _acceptableList.hashCode();
+    }
+    
+    /**
+     * 文字列に変換
+     * 
+     * @return 変換結果。
+     */
+    @Override
+    public String toString() {
+        return _discard + " : " + _shanten + " " + _expectation;
+    }
+    
+    
+    
+    /**
+     * シリアルバージョンUID
+     */
+    private static final long serialVersionUID = 2L;
+    
+    
+    
+    /**
+     * 捨て牌
+     */
+    private final JanPai _discard;
+    
+    /**
+     * 向聴数
+     */
+    private final int _shanten;
+    
+    /**
+     * 有効牌リスト
+     */
+    private final List<JanPai> _acceptableList;
+    
+    /**
+     * 有効牌毎の残り枚数
+     */
+    private final Map<JanPai, Integer> _expectation;
+    
+    /**
+     * 有効牌の残り枚数の合計
+     */
+    private final int _expectationTotal;
+    
+}
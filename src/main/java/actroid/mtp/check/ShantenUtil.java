@@ -0,0 +1,406 @@
+/**
+ * ShantenUtil.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+
+/**
+ * 向聴数計算ユーティリティ
+ * 
+ *  ※所持数配列 (CountCheckUtil と共通) を入力とし、通常形・七対子・国士無双の最小値を返す。
+ *  ※通常形は種類毎に「雀頭の有無 × 面子数」に対する最大搭子数を求め、種類間で合成する。
+ *  ※種類毎の結果はキー (5進数) 単位でキャッシュし、捨て牌候補間で使い回す。
+ */
+public final class ShantenUtil {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private ShantenUtil() {
+    }
+    
+    
+    
+    /**
+     * 有効牌マスクを取得
+     * 
+     *  ※ツモによって向聴数が下がる牌の集合。既に4枚所持している牌は含めない。
+     *  ※所持数配列はその場で増減し、処理終了時には元の状態に戻す。
+     * 
+     * @param count 面前手牌の所持数配列 (3n+1 枚)。
+     * @param fixedMenTsuCount 確定面子数。
+     * @return 有効牌マスク (JanPai.ordinal() 番目のビットが各牌に対応)。
+     */
+    public static long getAcceptableMask(final int[] count, final int fixedMenTsuCount) {
+        final int shanten = getShanten(count, fixedMenTsuCount);
+        long mask = 0L;
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (count[i] >= 4) {
+                continue;
+            }
+            count[i]++;
+            if (getShanten(count, fixedMenTsuCount) < shanten) {
+                mask |= 1L << i;
+            }
+            count[i]--;
+        }
+        return mask;
+    }
+    
+    /**
+     * 向聴数を取得
+     * 
+     *  ※聴牌ならば0、和了形ならば-1を返す。
+     * 
+     * @param count 面前手牌の所持数配列 (3n+1 または 3n+2 枚)。
+     * @param fixedMenTsuCount 確定面子数。
+     * @return 向聴数。
+     */
+    public static int getShanten(final int[] count, final int fixedMenTsuCount) {
+        int shanten = getShantenMenTsu(count, fixedMenTsuCount);
+        if (fixedMenTsuCount == 0) {
+            shanten = Math.min(shanten, getShantenChiToi(count));
+            shanten = Math.min(shanten, getShantenKokushi(count));
+        }
+        return shanten;
+    }
+    
+    /**
+     * 向聴数を取得 (七対子)
+     * 
+     * @param count 面前手牌の所持数配列。
+     * @return 向聴数。
+     */
+    public static int getShantenChiToi(final int[] count) {
+        int pairCount = 0;
+        int kindCount = 0;
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (count[i] >= 2) {
+                pairCount++;
+            }
+            if (count[i] >= 1) {
+                kindCount++;
+            }
+        }
+        return 6 - pairCount + Math.max(0, 7 - kindCount);
+    }
+    
+    /**
+     * 向聴数を取得 (国士無双)
+     * 
+     * @param count 面前手牌の所持数配列。
+     * @return 向聴数。
+     */
+    public static int getShantenKokushi(final int[] count) {
+        int kindCount = 0;
+        boolean hasPair = false;
+        for (final int index : YAO_INDEX) {
+            if (count[index] >= 1) {
+                kindCount++;
+            }
+            if (count[index] >= 2) {
+                hasPair = true;
+            }
+        }
+        return 13 - kindCount - (hasPair ? 1 : 0);
+    }
+    
+    /**
+     * 向聴数を取得 (4面子1雀頭)
+     * 
+     * @param count 面前手牌の所持数配列。
+     * @param fixedMenTsuCount 確定面子数。
+     * @return 向聴数。
+     */
+    public static int getShantenMenTsu(final int[] count, final int fixedMenTsuCount) {
+        long total = getGroupResult(count, 0, true);
+        total = mergeResult(total, getGroupResult(count, 9, true));
+        total = mergeResult(total, getGroupResult(count, 18, true));
+        total = mergeResult(total, getGroupResult(count, CountCheckUtil.JI_INDEX, false));
+        return getShantenMenTsu(total, fixedMenTsuCount);
+    }
+    
+    
+    
+    /**
+     * 全種類の合成結果から向聴数を取得 (4面子1雀頭)
+     * 
+     * @param total 全種類の合成結果。
+     * @param fixedMenTsuCount 確定面子数。
+     * @return 向聴数。
+     */
+    static int getShantenMenTsu(final long total, final int fixedMenTsuCount) {
+        final int menTsuLimit = 4 - fixedMenTsuCount;
+        int shanten = 8;
+        for (int head = 0; head <= 1; head++) {
+            for (int menTsu = 0; menTsu <= menTsuLimit; menTsu++) {
+                final int taTsu = getTaTsuCount(total, head, menTsu);
+                if (taTsu < 0) {
+                    continue;
+                }
+                final int usable = Math.min(taTsu, menTsuLimit - menTsu);
+                final int value = 2 * menTsuLimit - 2 * menTsu - usable - head;
+                shanten = Math.min(shanten, value);
+            }
+        }
+        return shanten;
+    }
+    
+    /**
+     * 種類毎の結果を取得
+     * 
+     * @param count 所持数配列。
+     * @param offset 対象とする種類の開始インデックス。
+     * @param shuPai 数牌か。
+     * @return 種類毎の結果。
+     */
+    static long getGroupResult(final int[] count, final int offset, final boolean shuPai) {
+        final int size = shuPai ? 9 : 7;
+        int key = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            key = key * 5 + count[offset + i];
+        }
+        
+        final long cached = getCache(shuPai ? key : key + JI_KEY_OFFSET);
+        if (cached != 0L) {
+            return cached;
+        }
+        
+        final int[] work = new int[size];
+        System.arraycopy(count, offset, work, 0, size);
+        return search(work, shuPai, key);
+    }
+    
+    /**
+     * 搭子数を取得
+     * 
+     * @param result 種類毎の結果。
+     * @param head 雀頭数 (0 or 1)。
+     * @param menTsu 面子数。
+     * @return 最大搭子数。該当する分解が無ければ-1。
+     */
+    private static int getTaTsuCount(final long result, final int head, final int menTsu) {
+        if (menTsu > 4) {
+            return -1;
+        }
+        final int shift = (head * 5 + menTsu) * 4;
+        return (int)((result >>> shift) & 0xF) - 1;
+    }
+    
+    /**
+     * 2種類の結果を合成
+     * 
+     * @param first 種類毎の結果。
+     * @param second 種類毎の結果。
+     * @return 合成結果。
+     */
+    static long mergeResult(final long first, final long second) {
+        long result = 0L;
+        for (int head1 = 0; head1 <= 1; head1++) {
+            for (int menTsu1 = 0; menTsu1 <= 4; menTsu1++) {
+                final int taTsu1 = getTaTsuCount(first, head1, menTsu1);
+                if (taTsu1 < 0) {
+                    continue;
+                }
+                for (int head2 = 0; head2 <= 1 - head1; head2++) {
+                    for (int menTsu2 = 0; menTsu2 <= 4 - menTsu1; menTsu2++) {
+                        final int taTsu2 = getTaTsuCount(second, head2, menTsu2);
+                        if (taTsu2 < 0) {
+                            continue;
+                        }
+                        result = updateResult(result, head1 + head2, menTsu1 + menTsu2, taTsu1 + taTsu2);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * キャッシュを参照
+     * 
+     * @param key キー (字牌はオフセット加算済み)。
+     * @return 種類毎の結果。未登録ならば0。
+     */
+    private static long getCache(final int key) {
+        final long cached = RESULT_CACHE.get(getCacheSlot(key));
+        if ((cached >>> RESULT_BITS) == key + 1) {
+            return cached & RESULT_MASK;
+        }
+        return 0L;
+    }
+    
+    /**
+     * キャッシュの格納位置を取得
+     * 
+     * @param key キー (字牌はオフセット加算済み)。
+     * @return 格納位置。
+     */
+    private static int getCacheSlot(final int key) {
+        return ((key * 0x9E3779B9) >>> 16) & (CACHE_SIZE - 1);
+    }
+    
+    /**
+     * 面子・搭子・雀頭の取り除き方を全て探索
+     * 
+     *  ※結果は残りの牌 (キー) のみで決まるため、キー単位でキャッシュする。
+     * 
+     * @param work 作業用の所持数配列 (その場で増減し、戻る際に復元する)。
+     * @param shuPai 数牌か (順子・両面・嵌張を考慮するか)。
+     * @param key 作業用の所持数配列のキー。
+     * @return 種類毎の結果。
+     */
+    private static long search(final int[] work, final boolean shuPai, final int key) {
+        final int cacheKey = shuPai ? key : key + JI_KEY_OFFSET;
+        final long cached = getCache(cacheKey);
+        if (cached != 0L) {
+            return cached;
+        }
+        
+        int index = 0;
+        while (index < work.length && work[index] == 0) {
+            index++;
+        }
+        if (index == work.length) {
+            return EMPTY_RESULT;
+        }
+        
+        long result = 0L;
+        final int weight = ShuPaiTable.WEIGHT[index];
+        final boolean next1 = shuPai && index + 1 < work.length && work[index + 1] > 0;
+        final boolean next2 = shuPai && index + 2 < work.length && work[index + 2] > 0;
+        if (work[index] >= 3) {
+            work[index] -= 3;
+            result = shiftResult(result, search(work, shuPai, key - weight * 3), 0, 1, 0);
+            work[index] += 3;
+        }
+        if (next1 && next2) {
+            work[index]--;
+            work[index + 1]--;
+            work[index + 2]--;
+            result = shiftResult(result, search(work, shuPai, key - weight * 31), 0, 1, 0);
+            work[index]++;
+            work[index + 1]++;
+            work[index + 2]++;
+        }
+        if (work[index] >= 2) {
+            work[index] -= 2;
+            final long rest = search(work, shuPai, key - weight * 2);
+            result = shiftResult(result, rest, 1, 0, 0);
+            result = shiftResult(result, rest, 0, 0, 1);
+            work[index] += 2;
+        }
+        if (next1) {
+            work[index]--;
+            work[index + 1]--;
+            result = shiftResult(result, search(work, shuPai, key - weight * 6), 0, 0, 1);
+            work[index]++;
+            work[index + 1]++;
+        }
+        if (next2) {
+            work[index]--;
+            work[index + 2]--;
+            result = shiftResult(result, search(work, shuPai, key - weight * 26), 0, 0, 1);
+            work[index]++;
+            work[index + 2]++;
+        }
+        
+        // 孤立牌として扱う
+        work[index]--;
+        result = shiftResult(result, search(work, shuPai, key - weight), 0, 0, 0);
+        work[index]++;
+        
+        RESULT_CACHE.set(getCacheSlot(cacheKey), ((long)(cacheKey + 1) << RESULT_BITS) | result);
+        return result;
+    }
+    
+    /**
+     * 残りの牌の結果に、取り除いた分を加えて結果を更新
+     * 
+     * @param result 結果。
+     * @param rest 残りの牌の結果。
+     * @param head 取り除いた雀頭数。
+     * @param menTsu 取り除いた面子数。
+     * @param taTsu 取り除いた搭子数。
+     * @return 更新後の結果。
+     */
+    private static long shiftResult(final long result, final long rest, final int head, final int menTsu, final int taTsu) {
+        long shifted = result;
+        for (int restHead = 0; restHead + head <= 1; restHead++) {
+            for (int restMenTsu = 0; restMenTsu + menTsu <= 4; restMenTsu++) {
+                final int restTaTsu = getTaTsuCount(rest, restHead, restMenTsu);
+                if (restTaTsu >= 0) {
+                    shifted = updateResult(shifted, restHead + head, restMenTsu + menTsu, restTaTsu + taTsu);
+                }
+            }
+        }
+        return shifted;
+    }
+    
+    /**
+     * 結果を更新
+     * 
+     * @param result 結果。
+     * @param head 雀頭数。
+     * @param menTsu 面子数。
+     * @param taTsu 搭子数。
+     * @return 更新後の結果。
+     */
+    private static long updateResult(final long result, final int head, final int menTsu, final int taTsu) {
+        if (menTsu > 4) {
+            return result;
+        }
+        final int shift = (head * 5 + menTsu) * 4;
+        final long current = (result >>> shift) & 0xF;
+        final long value = Math.min(taTsu, 14) + 1;
+        if (value <= current) {
+            return result;
+        }
+        return (result & ~(0xFL << shift)) | (value << shift);
+    }
+    
+    
+    
+    /**
+     * 么九牌のインデックス
+     */
+    private static final int[] YAO_INDEX = { 0, 8, 9, 17, 18, 26, 27, 28, 29, 30, 31, 32, 33 };
+    
+    /**
+     * 空の結果 (雀頭0・面子0・搭子0のみ)
+     */
+    private static final long EMPTY_RESULT = 1L;
+    
+    /**
+     * 字牌キーのオフセット (数牌キーと重複させない)
+     */
+    private static final int JI_KEY_OFFSET = 1953125;
+    
+    /**
+     * 種類毎の結果のビット数 (雀頭2通り × 面子数5通り × 4ビット)
+     */
+    private static final int RESULT_BITS = 40;
+    
+    /**
+     * 種類毎の結果のマスク
+     */
+    private static final long RESULT_MASK = (1L << RESULT_BITS) - 1;
+    
+    /**
+     * キャッシュのサイズ
+     */
+    private static final int CACHE_SIZE = 1 << 15;
+    
+    /**
+     * 種類毎の結果のキャッシュ (キー + 1 と結果を1つの値に格納し、衝突時は上書き)
+     */
+    private static final AtomicLongArray RESULT_CACHE = new AtomicLongArray(CACHE_SIZE);
+    
+}
@@ -0,0 +1,294 @@
+/**
+ * ShuPaiTable.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+
+
+/**
+ * 数牌の分解表
+ * 
+ *  ※1種類の数牌の所持数 (1～9) を5進数9桁のキーに符号化し、
+ *    「面子 (+雀頭) に分解できるか」と「どの牌で分解可能になるか」を1回の参照で返す。
+ *  ※表は初回参照時に、面子と雀頭の組み合わせを全て列挙して生成する。
+ */
+final class ShuPaiTable {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private ShuPaiTable() {
+    }
+    
+    
+    
+    /**
+     * 所持数配列の一部からキーを生成
+     * 
+     * @param count 所持数配列。
+     * @param offset 対象とする種類の開始インデックス。
+     * @return キー。
+     */
+    public static int createKey(final int[] count, final int offset) {
+        int key = 0;
+        for (int i = 8; i >= 0; i--) {
+            key = key * 5 + count[offset + i];
+        }
+        return key;
+    }
+    
+    /**
+     * 指定数字の桁の重みを取得
+     * 
+     * @param number 数字 - 1 (0～8)。
+     * @return 桁の重み。
+     */
+    public static int getWeight(final int number) {
+        return WEIGHT[number];
+    }
+    
+    /**
+     * 和了牌マスクを取得
+     * 
+     * @param key キー。
+     * @return 和了牌マスク (数字 - 1 番目のビットが各牌に対応)。
+     */
+    public static int getCompletableMask(final int key) {
+        return lookup(key) >>> 1;
+    }
+    
+    /**
+     * 面子 (+雀頭) に分解できるか
+     * 
+     *  ※枚数を3で割った余りが0ならば面子のみ、2ならば雀頭を1つ含む分解を判定する。
+     * 
+     * @param key キー。
+     * @return 判定結果。
+     */
+    public static boolean isComplete(final int key) {
+        return (lookup(key) & FLAG_COMPLETE) != 0;
+    }
+    
+    
+    
+    /**
+     * 表を参照
+     * 
+     * @param key キー。
+     * @return 判定結果のビット列。該当無しならば0。
+     */
+    private static int lookup(final int key) {
+        final int[] keyTable = Holder.KEY_TABLE;
+        final int mask = keyTable.length - 1;
+        final int stored = key + 1;
+        int index = hash(key) & mask;
+        while (true) {
+            final int current = keyTable[index];
+            if (current == stored) {
+                return Holder.VALUE_TABLE[index];
+            }
+            if (current == 0) {
+                return 0;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    /**
+     * キーのハッシュ値を取得
+     * 
+     * @param key キー。
+     * @return ハッシュ値。
+     */
+    private static int hash(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    
+    
+    /**
+     * 判定結果のビット (分解可能)
+     */
+    private static final int FLAG_COMPLETE = 1;
+    
+    /**
+     * 桁の重み (キーの数字 - 1 番目の桁)
+     * 
+     *  ※HandState・ShantenUtil のキーも同じ重みで求める。
+     */
+    static final int[] WEIGHT = { 1, 5, 25, 125, 625, 3125, 15625, 78125, 390625 };
+    
+    
+    
+    /**
+     * 表の保持クラス (初回参照時に生成)
+     */
+    private static final class Holder {
+        
+        /**
+         * コンストラクタを自分自身に限定許可
+         */
+        private Holder() {
+        }
+        
+        
+        
+        /**
+         * 表の生成処理
+         */
+        private static final Builder BUILDER = new Builder();
+        
+        /**
+         * キー表 (キー + 1 を格納し、0は空き)
+         */
+        private static final int[] KEY_TABLE = BUILDER.getKeyTable();
+        
+        /**
+         * 値表
+         */
+        private static final int[] VALUE_TABLE = BUILDER.getValueTable();
+        
+    }
+    
+    /**
+     * 表の生成処理
+     */
+    private static final class Builder {
+        
+        /**
+         * コンストラクタ
+         */
+        public Builder() {
+            addMenTsu(new int[9], 0, 0);
+        }
+        
+        
+        
+        /**
+         * キー表を取得
+         * 
+         * @return キー表。
+         */
+        public int[] getKeyTable() {
+            return _keyTable;
+        }
+        
+        /**
+         * 値表を取得
+         * 
+         * @return 値表。
+         */
+        public int[] getValueTable() {
+            return _valueTable;
+        }
+        
+        
+        
+        /**
+         * 面子の組み合わせを列挙して登録
+         * 
+         * @param count 作業用の所持数配列。
+         * @param first 追加可能な面子の最小インデックス。
+         * @param menTsuCount 追加済みの面子数。
+         */
+        private void addMenTsu(final int[] count, final int first, final int menTsuCount) {
+            register(count);
+            for (int i = 0; i < 9; i++) {
+                if (count[i] + 2 <= 4) {
+                    count[i] += 2;
+                    register(count);
+                    count[i] -= 2;
+                }
+            }
+            if (menTsuCount == 4) {
+                return;
+            }
+            
+            // 0～8は刻子、9～15は順子
+            for (int menTsu = first; menTsu < 16; menTsu++) {
+                if (menTsu < 9) {
+                    if (count[menTsu] + 3 > 4) {
+                        continue;
+                    }
+                    count[menTsu] += 3;
+                    addMenTsu(count, menTsu, menTsuCount + 1);
+                    count[menTsu] -= 3;
+                }
+                else {
+                    final int head = menTsu - 9;
+                    if (count[head] >= 4 || count[head + 1] >= 4 || count[head + 2] >= 4) {
+                        continue;
+                    }
+                    count[head]++;
+                    count[head + 1]++;
+                    count[head + 2]++;
+                    addMenTsu(count, menTsu, menTsuCount + 1);
+                    count[head]--;
+                    count[head + 1]--;
+                    count[head + 2]--;
+                }
+            }
+        }
+        
+        /**
+         * 値を論理和で登録
+         * 
+         * @param key キー。
+         * @param value 値。
+         */
+        private void put(final int key, final int value) {
+            final int mask = _keyTable.length - 1;
+            final int stored = key + 1;
+            int index = hash(key) & mask;
+            while (_keyTable[index] != 0 && _keyTable[index] != stored) {
+                index = (index + 1) & mask;
+            }
+            _keyTable[index] = stored;
+            _valueTable[index] |= value;
+        }
+        
+        /**
+         * 分解可能な形と、そこから1枚抜いた形を登録
+         * 
+         * @param count 分解可能な所持数配列。
+         */
+        private void register(final int[] count) {
+            int key = 0;
+            for (int i = 8; i >= 0; i--) {
+                key = key * 5 + count[i];
+            }
+            put(key, FLAG_COMPLETE);
+            for (int i = 0; i < 9; i++) {
+                if (count[i] > 0) {
+                    put(key - WEIGHT[i], 1 << (i + 1));
+                }
+            }
+        }
+        
+        
+        
+        /**
+         * キー表
+         */
+        private final int[] _keyTable = new int[TABLE_SIZE];
+        
+        /**
+         * 値表
+         */
+        private final int[] _valueTable = new int[TABLE_SIZE];
+        
+    }
+    
+    
+    
+    /**
+     * 表のサイズ (登録数 約8.3万件に対して十分に疎な2のべき乗)
+     */
+    private static final int TABLE_SIZE = 1 << 18;
+    
+}
@@ -0,0 +1,270 @@
+/**
+ * TenpaiAnalyzer.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import wiz.project.jan.JanPai;
+import wiz.project.jan.TenpaiPattern;
+import wiz.project.jan.util.JanPaiUtil;
+
+
+
+/**
+ * 聴牌パターン解析
+ * 
+ *  ※捨て牌候補毎に待ち牌と期待枚数を求める。候補は解析用ワーカープールで並列に処理する。
+ *  ※結果は並列数に関わらず捨て牌の順 (JanPai の順) に並ぶ。
+ *  ※聴牌した捨て牌については、和了牌毎に和了形の全ての分解と待ちの形 (WaitPattern) も同じ処理で求める。
+ */
+public final class TenpaiAnalyzer {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private TenpaiAnalyzer() {
+    }
+    
+    
+    
+    /**
+     * 聴牌パターンリストを取得
+     * 
+     *  ※待ちが全て見えている (枯れている) 捨て牌は含めない。
+     * 
+     * @param state 面前手牌の状態 (3n+2 枚)。処理中に変更しないこと。
+     * @param visible 見えている牌の所持数配列。処理中に変更しないこと。
+     * @return 聴牌パターンリスト (捨て牌の順)。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static List<TenpaiPattern> getTenpaiPatternList(final HandState state, final int[] visible) throws InterruptedException {
+        return getTenpaiPatternList(state, visible, null);
+    }
+    
+    /**
+     * 聴牌パターンリストを取得
+     * 
+     *  ※待ちが全て見えている (枯れている) 捨て牌は含めない。
+     *  ※聴牌パターンは求まった時点で通知先にも渡す (全候補の完了を待たない)。
+     * 
+     * @param state 面前手牌の状態 (3n+2 枚)。処理中に変更しないこと。
+     * @param visible 見えている牌の所持数配列。処理中に変更しないこと。
+     * @param listener 通知先 (nullならば通知しない)。
+     * @return 聴牌パターンリスト (捨て牌の順)。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static List<TenpaiPattern> getTenpaiPatternList(final HandState state, final int[] visible, final TenpaiPatternListener listener) throws InterruptedException {
+        return getTenpaiPatternList(state, visible, listener, null);
+    }
+    
+    /**
+     * 聴牌パターンリストを取得
+     * 
+     *  ※待ちが全て見えている (枯れている) 捨て牌は含めない。
+     *  ※聴牌パターンは求まった時点で通知先にも渡す (全候補の完了を待たない)。
+     * 
+     * @param state 面前手牌の状態 (3n+2 枚)。処理中に変更しないこと。
+     * @param visible 見えている牌の所持数配列。処理中に変更しないこと。
+     * @param listener 通知先 (nullならば通知しない)。
+     * @param waitPatternList 待ちパターンの格納先 (捨て牌・和了牌の順に追加する。nullならば格納しない)。
+     * @return 聴牌パターンリスト (捨て牌の順)。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static List<TenpaiPattern> getTenpaiPatternList(final HandState state,
+                                                           final int[] visible,
+                                                           final TenpaiPatternListener listener,
+                                                           final List<WaitPattern> waitPatternList) throws InterruptedException {
+        return getTenpaiPatternList(state, visible, listener, waitPatternList, AnalysisWorkerPool.getInstance());
+    }
+    
+    /**
+     * 聴牌パターンリストを取得
+     * 
+     *  ※待ちが全て見えている (枯れている) 捨て牌は含めない。
+     *  ※聴牌パターンは求まった時点で通知先にも渡す (全候補の完了を待たない)。
+     * 
+     * @param state 面前手牌の状態 (3n+2 枚)。処理中に変更しないこと。
+     * @param visible 見えている牌の所持数配列。処理中に変更しないこと。
+     * @param listener 通知先 (nullならば通知しない)。
+     * @param waitPatternList 待ちパターンの格納先 (捨て牌・和了牌の順に追加する。nullならば格納しない)。
+     * @param pool 捨て牌候補を処理するワーカープール。
+     * @return 聴牌パターンリスト (捨て牌の順)。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static List<TenpaiPattern> getTenpaiPatternList(final HandState state,
+                                                           final int[] visible,
+                                                           final TenpaiPatternListener listener,
+                                                           final List<WaitPattern> waitPatternList,
+                                                           final AnalysisWorkerPool pool) throws InterruptedException {
+        final List<TenpaiPatternTask> taskList = new ArrayList<TenpaiPatternTask>();
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (state.getCount(i) > 0) {
+                taskList.add(new TenpaiPatternTask(state, visible, i, listener));
+            }
+        }
+        
+        // 投入順 (捨て牌の順) に結果が返る
+        final List<TenpaiPattern> resultList = new ArrayList<TenpaiPattern>();
+        for (final TaskResult result : pool.invokeAll(taskList)) {
+            if (result != null) {
+                resultList.add(result.getPattern());
+                if (waitPatternList != null) {
+                    waitPatternList.addAll(result.getWaitPatternList());
+                }
+            }
+        }
+        return resultList;
+    }
+    
+    
+    
+    /**
+     * 捨て牌候補1つ分の解析処理
+     */
+    private static final class TenpaiPatternTask implements Callable<TaskResult> {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param state 面前手牌の状態。
+         * @param visible 見えている牌の所持数配列。
+         * @param discard 捨て牌のインデックス。
+         * @param listener 通知先 (nullならば通知しない)。
+         */
+        public TenpaiPatternTask(final HandState state, final int[] visible, final int discard, final TenpaiPatternListener listener) {
+            _state = state;
+            _visible = visible;
+            _discard = discard;
+            _listener = listener;
+        }
+        
+        
+        
+        /**
+         * 処理を実行
+         * 
+         *  ※共有の手牌状態は参照のみとし、ワーカー毎の作業用状態に複写して判定する。
+         * 
+         * @return 聴牌パターンと待ちパターン。聴牌しない、または待ちが枯れている場合はnull。
+         */
+        public TaskResult call() {
+            final HandState work = AnalysisWorkerPool.getWorkState();
+            work.copyFrom(_state);
+            work.remove(_discard);
+            
+            final long completable = work.getCompletableMask();
+            if (completable == 0L) {
+                return null;
+            }
+            
+            final List<JanPai> completableList = CountCheckUtil.convertMask(completable);
+            final Map<JanPai, Integer> expectation = CountCheckUtil.getExpectation(_visible, completableList);
+            if (JanPaiUtil.getJanPaiTotalCount(expectation) == 0) {
+                return null;
+            }
+            
+            final JanPai discard = CountCheckUtil.getJanPai(_discard);
+            final TenpaiPattern pattern = new TenpaiPattern(discard, completableList, expectation);
+            
+            // 和了牌毎に和了形を分解し、待ちの形を求める
+            final int[] count = new int[CountCheckUtil.JAN_PAI_KIND];
+            for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+                count[i] = work.getCount(i);
+            }
+            final List<WaitPattern> waitPatternList = new ArrayList<WaitPattern>(completableList.size());
+            for (final JanPai pai : completableList) {
+                final int index = pai.ordinal();
+                count[index]++;
+                waitPatternList.add(new WaitPattern(discard, pai, DecompositionUtil.getDecompositionList(count, index)));
+                count[index]--;
+            }
+            
+            final List<WaitPattern> resultList = Collections.unmodifiableList(waitPatternList);
+            if (_listener != null) {
+                _listener.onTenpaiPattern(pattern, resultList);
+            }
+            return new TaskResult(pattern, resultList);
+        }
+        
+        
+        
+        /**
+         * 面前手牌の状態
+         */
+        private final HandState _state;
+        
+        /**
+         * 見えている牌の所持数配列
+         */
+        private final int[] _visible;
+        
+        /**
+         * 捨て牌のインデックス
+         */
+        private final int _discard;
+        
+        /**
+         * 通知先
+         */
+        private final TenpaiPatternListener _listener;
+    }
+    
+    /**
+     * 捨て牌候補1つ分の解析結果
+     */
+    private static final class TaskResult {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param pattern 聴牌パターン。
+         * @param waitPatternList 待ちパターンリスト。
+         */
+        public TaskResult(final TenpaiPattern pattern, final List<WaitPattern> waitPatternList) {
+            _pattern = pattern;
+            _waitPatternList = waitPatternList;
+        }
+        
+        
+        
+        /**
+         * 聴牌パターンを取得
+         * 
+         * @return 聴牌パターン。
+         */
+        public TenpaiPattern getPattern() {
+            return _pattern;
+        }
+        
+        /**
+         * 待ちパターンリストを取得
+         * 
+         * @return 待ちパターンリスト (和了牌の順)。
+         */
+        public List<WaitPattern> getWaitPatternList() {
+            return _waitPatternList;
+        }
+        
+        
+        
+        /**
+         * 聴牌パターン
+         */
+        private final TenpaiPattern _pattern;
+        
+        /**
+         * 待ちパターンリスト
+         */
+        private final List<WaitPattern> _waitPatternList;
+    }
+    
+}
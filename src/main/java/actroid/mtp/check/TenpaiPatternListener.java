@@ -0,0 +1,32 @@
+/**
+ * TenpaiPatternListener.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.List;
+
+import wiz.project.jan.TenpaiPattern;
+
+
+
+/**
+ * 聴牌パターン通知先
+ * 
+ *  ※聴牌パターンが1つ求まる毎に、解析用ワーカーのスレッドから呼び出される。
+ *  ※通知順は捨て牌の順とは限らない。
+ */
+public interface TenpaiPatternListener {
+    
+    /**
+     * 聴牌パターンが求まった時の処理
+     * 
+     * @param pattern 聴牌パターン。
+     * @param waitPatternList 待ちパターンリスト (和了牌の順)。
+     */
+    public void onTenpaiPattern(final TenpaiPattern pattern, final List<WaitPattern> waitPatternList);
+    
+}
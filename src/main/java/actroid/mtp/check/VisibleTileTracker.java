@@ -0,0 +1,171 @@
+/**
+ * VisibleTileTracker.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 見えている牌の管理
+ * 
+ *  ※自分の手牌以外で見えている牌 (河・ドラ表示牌・他家の副露) を種類毎に数える。
+ *  ※所持数は追加・削除の度に更新し、解析毎に数え直さない。
+ *  ※期待枚数 (4 - 手牌 - 見えている枚数) は、解析要求の生成時点の所持数を複写し、
+ *    手牌のみで求めた期待枚数から除いて求める (AnalysisResult.excludeVisible)。
+ */
+public final class VisibleTileTracker {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private VisibleTileTracker() {
+    }
+    
+    
+    
+    /**
+     * インスタンスを取得
+     * 
+     * @return インスタンス。
+     */
+    public static VisibleTileTracker getInstance() {
+        return INSTANCE;
+    }
+    
+    
+    
+    /**
+     * 指定牌を追加
+     * 
+     * @param pai 追加対象。
+     * @return 追加したか (既に4枚見えていればfalse)。
+     */
+    public boolean add(final JanPai pai) {
+        if (pai == null) {
+            throw new NullPointerException("Jan pai is null.");
+        }
+        
+        synchronized (_TRACKER_LOCK) {
+            final int index = pai.ordinal();
+            if (_count[index] >= PAI_LIMIT) {
+                return false;
+            }
+            _count[index]++;
+            _totalCount++;
+        }
+        return true;
+    }
+    
+    /**
+     * 全消去
+     */
+    public void clear() {
+        synchronized (_TRACKER_LOCK) {
+            if (_totalCount == 0) {
+                return;
+            }
+            for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+                _count[i] = 0;
+            }
+            _totalCount = 0;
+        }
+    }
+    
+    /**
+     * 見えている枚数の配列を取得
+     * 
+     * @return 見えている枚数の配列 (複製)。
+     */
+    public int[] getCountArray() {
+        synchronized (_TRACKER_LOCK) {
+            return _count.clone();
+        }
+    }
+    
+    /**
+     * 見えている枚数を取得
+     * 
+     * @param pai 検索対象。
+     * @return 見えている枚数。
+     */
+    public int getCount(final JanPai pai) {
+        if (pai == null) {
+            throw new NullPointerException("Jan pai is null.");
+        }
+        
+        synchronized (_TRACKER_LOCK) {
+            return _count[pai.ordinal()];
+        }
+    }
+    
+    /**
+     * 見えている枚数の合計を取得
+     * 
+     * @return 見えている枚数の合計。
+     */
+    public int getTotalCount() {
+        synchronized (_TRACKER_LOCK) {
+            return _totalCount;
+        }
+    }
+    
+    /**
+     * 指定牌を削除
+     * 
+     * @param pai 削除対象。
+     * @return 削除したか (見えていなければfalse)。
+     */
+    public boolean remove(final JanPai pai) {
+        if (pai == null) {
+            throw new NullPointerException("Jan pai is null.");
+        }
+        
+        synchronized (_TRACKER_LOCK) {
+            final int index = pai.ordinal();
+            if (_count[index] == 0) {
+                return false;
+            }
+            _count[index]--;
+            _totalCount--;
+        }
+        return true;
+    }
+    
+    
+    
+    /**
+     * 自分自身のインスタンス
+     */
+    private static final VisibleTileTracker INSTANCE = new VisibleTileTracker();
+    
+    /**
+     * 1種類あたりの枚数
+     */
+    private static final int PAI_LIMIT = 4;
+    
+    
+    
+    /**
+     * ロックオブジェクト
+     */
+    private final Object _TRACKER_LOCK = new Object();
+    
+    
+    
+    /**
+     * 見えている枚数の配列
+     */
+    private final int[] _count = new int[CountCheckUtil.JAN_PAI_KIND];
+    
+    /**
+     * 見えている枚数の合計
+     */
+    private int _totalCount = 0;
+    
+}
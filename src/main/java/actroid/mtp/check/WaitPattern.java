@@ -0,0 +1,191 @@
+/**
+ * WaitPattern.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 待ちパターン
+ * 
+ *  ※捨て牌・和了牌と、和了形の全ての分解 (待ちの形を含む) の組。
+ *  ※待ちの形が複数ある場合 (例 : 両面と単騎の複合) は、高点法などの判定に全ての分解を用いる。
+ *  ※得点は ScoreUtil で元の手牌 (場風・自風) に対して設定する。未設定の場合はnull。
+ */
+public final class WaitPattern implements Serializable {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param discard 捨て牌。
+     * @param completable 和了牌。
+     * @param decompositionList 分解リスト。
+     */
+    public WaitPattern(final JanPai discard, final JanPai completable, final List<Decomposition> decompositionList) {
+        this(discard, completable, decompositionList, null, null);
+    }
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param discard 捨て牌。
+     * @param completable 和了牌。
+     * @param decompositionList 分解リスト。
+     * @param ronScore 栄和の得点 (未設定ならnull)。
+     * @param tsumoScore 自摸の得点 (未設定ならnull)。
+     */
+    public WaitPattern(final JanPai discard,
+                       final JanPai completable,
+                       final List<Decomposition> decompositionList,
+                       final Score ronScore,
+                       final Score tsumoScore) {
+        if (discard == null) {
+            throw new NullPointerException("Discard is null.");
+        }
+        if (completable == null) {
+            throw new NullPointerException("Completable is null.");
+        }
+        if (decompositionList == null) {
+            throw new NullPointerException("Decomposition list is null.");
+        }
+        _discard = discard;
+        _completable = completable;
+        _decompositionList = Collections.unmodifiableList(new ArrayList<Decomposition>(decompositionList));
+        
+        final Set<WaitType> waitTypeSet = EnumSet.noneOf(WaitType.class);
+        for (final Decomposition decomposition : decompositionList) {
+            waitTypeSet.add(decomposition.getWaitType());
+        }
+        _waitTypeSet = Collections.unmodifiableSet(waitTypeSet);
+        _ronScore = ronScore;
+        _tsumoScore = tsumoScore;
+    }
+    
+    
+    
+    /**
+     * 和了牌を取得
+     * 
+     * @return 和了牌。
+     */
+    public JanPai getCompletable() {
+        return _completable;
+    }
+    
+    /**
+     * 分解リストを取得
+     * 
+     * @return 分解リスト。
+     */
+    public List<Decomposition> getDecompositionList() {
+        return _decompositionList;
+    }
+    
+    /**
+     * 捨て牌を取得
+     * 
+     * @return 捨て牌。
+     */
+    public JanPai getDiscard() {
+        return _discard;
+    }
+    
+    /**
+     * 栄和の得点を取得
+     * 
+     * @return 栄和の得点。未設定ならnull。
+     */
+    public Score getRonScore() {
+        return _ronScore;
+    }
+    
+    /**
+     * 自摸の得点を取得
+     * 
+     * @return 自摸の得点。未設定ならnull。
+     */
+    public Score getTsumoScore() {
+        return _tsumoScore;
+    }
+    
+    /**
+     * 待ちの形を取得
+     * 
+     * @return 待ちの形 (WaitType の順)。
+     */
+    public Set<WaitType> getWaitTypeSet() {
+        return _waitTypeSet;
+    }
+    
+    /**
+     * 待ちの形が複数あるか
+     * 
+     * @return 判定結果。
+     */
+    public boolean isAmbiguous() {
+        return _waitTypeSet.size() > 1;
+    }
+    
+    /**
+     * 文字列に変換
+     * 
+     * @return 変換結果。
+     */
+    @Override
+    public String toString() {
+        return _discard + " -> " + _completable + " " + _waitTypeSet;
+    }
+    
+    
+    
+    /**
+     * シリアルバージョンUID
+     */
+    private static final long serialVersionUID = 1L;
+    
+    
+    
+    /**
+     * 捨て牌
+     */
+    private final JanPai _discard;
+    
+    /**
+     * 和了牌
+     */
+    private final JanPai _completable;
+    
+    /**
+     * 分解リスト
+     */
+    private final List<Decomposition> _decompositionList;
+    
+    /**
+     * 待ちの形
+     */
+    private final Set<WaitType> _waitTypeSet;
+    
+    /**
+     * 栄和の得点
+     */
+    private final Score _ronScore;
+    
+    /**
+     * 自摸の得点
+     */
+    private final Score _tsumoScore;
+    
+}
@@ -0,0 +1,77 @@
+/**
+ * WaitType.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+
+
+/**
+ * 待ちの形
+ */
+public enum WaitType {
+    
+    /**
+     * 両面
+     */
+    RYAN_MEN("両面"),
+    
+    /**
+     * 嵌張
+     */
+    KAN_CHAN("嵌張"),
+    
+    /**
+     * 辺張
+     */
+    PEN_CHAN("辺張"),
+    
+    /**
+     * 双碰
+     */
+    SHAN_PON("双碰"),
+    
+    /**
+     * 単騎 (七対子・国士無双の単騎を含む)
+     */
+    TAN_KI("単騎"),
+    
+    /**
+     * 国士無双十三面
+     */
+    KOKUSHI_13("十三面");
+    
+    
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param name 表示名。
+     */
+    private WaitType(final String name) {
+        _name = name;
+    }
+    
+    
+    
+    /**
+     * 文字列に変換
+     * 
+     * @return 表示名。
+     */
+    @Override
+    public String toString() {
+        return _name;
+    }
+    
+    
+    
+    /**
+     * 表示名
+     */
+    private final String _name;
+    
+}
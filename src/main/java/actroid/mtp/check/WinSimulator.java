@@ -0,0 +1,512 @@
+/**
+ * WinSimulator.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.check;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import wiz.project.jan.JanPai;
+
+
+
+/**
+ * 和了率の模擬試行 (モンテカルロ法)
+ * 
+ *  ※聴牌する捨て牌毎に、見えていない牌から無作為に自摸を繰り返し、指定巡数以内に自摸和了する確率を推定する。
+ *  ※和了牌以外を自摸した場合は、その時点で見えていない枚数が最も多い待ちに取り替える (同数ならば自摸切り)。
+ *    ロン和了・他家の和了・流局前の打ち切りは考慮しない。
+ *  ※ワーカープールの全ワーカーで試行し、ワーカー毎に専用の乱数生成器を持つ。
+ *    捨て牌毎の試行を一定数ずつ交互に行い、制限時間に達するか取り消されるまで結果を積み上げる (取り消し・割り込みは1試行毎に確認する)。
+ *  ※試行中も途中結果を取得できる。進捗の通知は一定間隔毎にワーカーのスレッドから行う。
+ */
+public final class WinSimulator {
+    
+    /**
+     * コンストラクタ
+     * 
+     * @param count 面前手牌の所持数配列 (3n+2 枚)。
+     * @param visible 見えている牌の所持数配列 (手牌・確定面子を含む)。
+     * @param discardList 聴牌する捨て牌リスト。
+     * @param drawCount 自摸の回数。
+     */
+    public WinSimulator(final int[] count, final int[] visible, final List<JanPai> discardList, final int drawCount) {
+        if (count == null) {
+            throw new NullPointerException("Count array is null.");
+        }
+        if (visible == null) {
+            throw new NullPointerException("Visible count array is null.");
+        }
+        if (discardList == null) {
+            throw new NullPointerException("Discard list is null.");
+        }
+        if (drawCount <= 0) {
+            throw new IllegalArgumentException("Invalid draw count - " + drawCount);
+        }
+        
+        _count = count.clone();
+        _unseen = new int[CountCheckUtil.JAN_PAI_KIND];
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            _unseen[i] = Math.max(4 - visible[i], 0);
+        }
+        _wallSize = CountCheckUtil.getTotalCount(_unseen);
+        _drawCount = Math.min(drawCount, _wallSize);
+        
+        _discardList = Collections.unmodifiableList(new ArrayList<JanPai>(discardList));
+        _waitMask = new long[_discardList.size()];
+        for (int i = 0; i < _waitMask.length; i++) {
+            final int discard = _discardList.get(i).ordinal();
+            if (_count[discard] == 0) {
+                throw new IllegalArgumentException("Discard is not in hand - " + _discardList.get(i));
+            }
+            _count[discard]--;
+            _waitMask[i] = CountCheckUtil.getCompletableMask(_count);
+            _count[discard]++;
+        }
+        _trialCount = new AtomicLongArray(_waitMask.length);
+        _winCount = new AtomicLongArray(_waitMask.length);
+    }
+    
+    
+    
+    /**
+     * 試行を取り消す
+     */
+    public void cancel() {
+        _cancelled = true;
+    }
+    
+    /**
+     * 聴牌する捨て牌リストを取得
+     * 
+     * @return 聴牌する捨て牌リスト。
+     */
+    public List<JanPai> getDiscardList() {
+        return _discardList;
+    }
+    
+    /**
+     * 自摸の回数を取得
+     * 
+     * @return 自摸の回数 (山の枚数を超えない)。
+     */
+    public int getDrawCount() {
+        return _drawCount;
+    }
+    
+    /**
+     * 試行回数を取得
+     * 
+     * @param discard 捨て牌。
+     * @return 試行回数。聴牌しない捨て牌ならば0。
+     */
+    public long getTrialCount(final JanPai discard) {
+        final int index = _discardList.indexOf(discard);
+        return (index < 0) ? 0 : _trialCount.get(index);
+    }
+    
+    /**
+     * 和了率を取得
+     * 
+     * @param discard 捨て牌。
+     * @return 和了率 (0.0 から 1.0)。試行前ならば負の値。
+     */
+    public double getWinRate(final JanPai discard) {
+        final int index = _discardList.indexOf(discard);
+        if (index < 0) {
+            return -1.0;
+        }
+        // 加算と逆順 (和了数→試行回数) に読み、試行回数と食い違っても1.0を超えないようにする
+        final long win = _winCount.get(index);
+        final long trial = _trialCount.get(index);
+        return (trial == 0) ? -1.0 : (double)win / trial;
+    }
+    
+    /**
+     * 試行を実行
+     * 
+     *  ※制限時間に達するか、取り消されるか、割り込まれるまで戻らない。
+     * 
+     * @param budget 制限時間 (ミリ秒)。
+     * @param listener 進捗の通知先 (nullならば通知しない)。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public void run(final long budget, final Listener listener) throws InterruptedException {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Invalid time budget - " + budget);
+        }
+        if (_discardList.isEmpty() || _drawCount == 0) {
+            if (listener != null) {
+                listener.onFinished(this);
+            }
+            return;
+        }
+        
+        final long start = System.nanoTime();
+        final long deadline = start + budget * 1000000L;
+        final AtomicLong nextReport = new AtomicLong(start + PROGRESS_INTERVAL);
+        final AnalysisWorkerPool pool = AnalysisWorkerPool.getInstance();
+        final List<SimulationTask> taskList = new ArrayList<SimulationTask>(pool.getWorkerCount());
+        for (int i = 0; i < pool.getWorkerCount(); i++) {
+            taskList.add(new SimulationTask(start * SEED_STEP + i, deadline, nextReport, listener));
+        }
+        pool.invokeAll(taskList);
+        
+        if (listener != null && !_cancelled) {
+            listener.onFinished(this);
+        }
+    }
+    
+    
+    
+    /**
+     * 1回分の試行
+     * 
+     * @param index 捨て牌のインデックス。
+     * @param random 乱数生成器。
+     * @param wall 山 (見えていない牌のインデックス、並びは変更される)。
+     * @param hand 作業用の所持数配列。
+     * @param unseen 作業用の見えていない牌の所持数配列。
+     * @return 和了したか。
+     */
+    private boolean simulate(final int index, final XorShiftRandom random, final int[] wall, final int[] hand, final int[] unseen) {
+        System.arraycopy(_count, 0, hand, 0, CountCheckUtil.JAN_PAI_KIND);
+        System.arraycopy(_unseen, 0, unseen, 0, CountCheckUtil.JAN_PAI_KIND);
+        hand[_discardList.get(index).ordinal()]--;
+        
+        long mask = _waitMask[index];
+        for (int draw = 0; draw < _drawCount; draw++) {
+            // 山の先頭から部分的に並べ替え、自摸した分のみ乱数を消費する
+            final int j = draw + random.nextInt(_wallSize - draw);
+            final int pai = wall[j];
+            wall[j] = wall[draw];
+            wall[draw] = pai;
+            
+            if ((mask & (1L << pai)) != 0) {
+                return true;
+            }
+            unseen[pai]--;
+            hand[pai]++;
+            mask = changeWait(hand, unseen, mask, pai);
+        }
+        return false;
+    }
+    
+    /**
+     * 待ちを取り替える
+     * 
+     *  ※自摸した牌を含む手牌から1枚捨て、見えていない枚数が最も多い待ちとなる牌を選ぶ。
+     * 
+     * @param hand 所持数配列 (3n+2 枚、捨てた牌を除いて更新する)。
+     * @param unseen 見えていない牌の所持数配列。
+     * @param mask 現在の和了牌マスク。
+     * @param drawn 自摸した牌のインデックス。
+     * @return 取り替え後の和了牌マスク。
+     */
+    private static long changeWait(final int[] hand, final int[] unseen, final long mask, final int drawn) {
+        int bestDiscard = drawn;
+        long bestMask = mask;
+        int bestLive = getLiveCount(mask, unseen);
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (hand[i] == 0 || i == drawn) {
+                continue;
+            }
+            hand[i]--;
+            final long candidate = CountCheckUtil.getCompletableMask(hand);
+            hand[i]++;
+            if (candidate == 0) {
+                continue;
+            }
+            final int live = getLiveCount(candidate, unseen);
+            if (live > bestLive) {
+                bestDiscard = i;
+                bestMask = candidate;
+                bestLive = live;
+            }
+        }
+        hand[bestDiscard]--;
+        return bestMask;
+    }
+    
+    /**
+     * 見えていない和了牌の枚数を取得
+     * 
+     * @param mask 和了牌マスク。
+     * @param unseen 見えていない牌の所持数配列。
+     * @return 見えていない和了牌の枚数。
+     */
+    private static int getLiveCount(final long mask, final int[] unseen) {
+        int live = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            live += unseen[Long.numberOfTrailingZeros(rest)];
+        }
+        return live;
+    }
+    
+    /**
+     * 山を生成
+     * 
+     * @return 見えていない牌のインデックス配列。
+     */
+    private int[] createWall() {
+        final int[] wall = new int[_wallSize];
+        int position = 0;
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            for (int j = 0; j < _unseen[i]; j++) {
+                wall[position++] = i;
+            }
+        }
+        return wall;
+    }
+    
+    
+    
+    /**
+     * 1回の集計あたりの試行回数 (捨て牌毎)
+     */
+    private static final int BATCH_SIZE = 64;
+    
+    /**
+     * 進捗の通知間隔 (ナノ秒)
+     */
+    private static final long PROGRESS_INTERVAL = 200L * 1000000L;
+    
+    /**
+     * ワーカー毎の乱数の種の間隔
+     */
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    
+    
+    
+    /**
+     * 面前手牌の所持数配列
+     */
+    private final int[] _count;
+    
+    /**
+     * 見えていない牌の所持数配列
+     */
+    private final int[] _unseen;
+    
+    /**
+     * 山の枚数 (見えていない牌の総数)
+     */
+    private final int _wallSize;
+    
+    /**
+     * 自摸の回数
+     */
+    private final int _drawCount;
+    
+    /**
+     * 聴牌する捨て牌リスト
+     */
+    private final List<JanPai> _discardList;
+    
+    /**
+     * 捨て牌毎の和了牌マスク
+     */
+    private final long[] _waitMask;
+    
+    /**
+     * 捨て牌毎の試行回数
+     */
+    private final AtomicLongArray _trialCount;
+    
+    /**
+     * 捨て牌毎の和了数
+     */
+    private final AtomicLongArray _winCount;
+    
+    /**
+     * 取り消されたか
+     */
+    private volatile boolean _cancelled = false;
+    
+    
+    
+    /**
+     * 進捗の通知先
+     */
+    public interface Listener {
+        
+        /**
+         * 途中結果が更新された時の処理
+         * 
+         * @param simulator 通知元。
+         */
+        public void onProgress(final WinSimulator simulator);
+        
+        /**
+         * 制限時間に達した時の処理 (取り消された場合は呼ばれない)
+         * 
+         * @param simulator 通知元。
+         */
+        public void onFinished(final WinSimulator simulator);
+        
+    }
+    
+    
+    
+    /**
+     * ワーカー1つ分の試行処理
+     */
+    private final class SimulationTask implements Callable<Void> {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param seed 乱数の種。
+         * @param deadline 終了時刻 (System.nanoTime() 基準)。
+         * @param nextReport 次に進捗を通知する時刻 (ワーカー間で共有)。
+         * @param listener 進捗の通知先。
+         */
+        public SimulationTask(final long seed, final long deadline, final AtomicLong nextReport, final Listener listener) {
+            _seed = seed;
+            _deadline = deadline;
+            _nextReport = nextReport;
+            _listener = listener;
+        }
+        
+        
+        
+        /**
+         * 処理を実行
+         * 
+         * @return null。
+         */
+        public Void call() {
+            final XorShiftRandom random = new XorShiftRandom(_seed);
+            final int[] wall = createWall();
+            final int[] hand = new int[CountCheckUtil.JAN_PAI_KIND];
+            final int[] unseen = new int[CountCheckUtil.JAN_PAI_KIND];
+            final int size = _waitMask.length;
+            while (!isStopped()) {
+                final long now = System.nanoTime();
+                if (now - _deadline >= 0) {
+                    break;
+                }
+                for (int index = 0; index < size; index++) {
+                    // 取り消し後に共有のワーカーを占有し続けないよう、1試行毎に確認する
+                    int trial = 0;
+                    int win = 0;
+                    while (trial < BATCH_SIZE && !isStopped()) {
+                        if (simulate(index, random, wall, hand, unseen)) {
+                            win++;
+                        }
+                        trial++;
+                    }
+                    // 試行回数を先に加算し、和了数が試行回数を追い越さないようにする
+                    _trialCount.addAndGet(index, trial);
+                    _winCount.addAndGet(index, win);
+                    if (trial < BATCH_SIZE) {
+                        return null;
+                    }
+                }
+                report(now);
+            }
+            return null;
+        }
+        
+        
+        
+        /**
+         * 取り消されたか、割り込まれたか
+         * 
+         * @return 判定結果。
+         */
+        private boolean isStopped() {
+            return _cancelled || Thread.currentThread().isInterrupted();
+        }
+        
+        /**
+         * 通知時刻に達していれば進捗を通知
+         * 
+         *  ※通知はワーカーのうち1つのみが行う。
+         * 
+         * @param now 現在時刻。
+         */
+        private void report(final long now) {
+            if (_listener == null) {
+                return;
+            }
+            final long next = _nextReport.get();
+            if (now - next >= 0 && _nextReport.compareAndSet(next, now + PROGRESS_INTERVAL)) {
+                _listener.onProgress(WinSimulator.this);
+            }
+        }
+        
+        
+        
+        /**
+         * 乱数の種
+         */
+        private final long _seed;
+        
+        /**
+         * 終了時刻
+         */
+        private final long _deadline;
+        
+        /**
+         * 次に進捗を通知する時刻
+         */
+        private final AtomicLong _nextReport;
+        
+        /**
+         * 進捗の通知先
+         */
+        private final Listener _listener;
+    }
+    
+    /**
+     * 乱数生成器 (xorshift64*)
+     * 
+     *  ※ワーカー毎に生成し、同期を伴わない。java.util.Random より高速だが暗号用途には使えない。
+     */
+    private static final class XorShiftRandom {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param seed 乱数の種。
+         */
+        public XorShiftRandom(final long seed) {
+            _state = (seed == 0) ? SEED_STEP : seed;
+        }
+        
+        
+        
+        /**
+         * 0以上、指定値未満の乱数を取得
+         * 
+         * @param bound 上限 (この値を含まない)。
+         * @return 乱数。
+         */
+        public int nextInt(final int bound) {
+            long x = _state;
+            x ^= x >>> 12;
+            x ^= x << 25;
+            x ^= x >>> 27;
+            _state = x;
+            final long value = (x * 0x2545F4914F6CDD1DL) >>> 32;
+            return (int)((value * bound) >>> 32);
+        }
+        
+        
+        
+        /**
+         * 内部状態
+         */
+        private long _state;
+    }
+    
+}
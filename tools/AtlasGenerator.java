@@ -0,0 +1,136 @@
+/**
+ * AtlasGenerator.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+
+
+/**
+ * 牌画像アトラス生成 (ビルド時ツール)
+ * 
+ *  ※牌画像の種類 (通常・オープン・横方向・カン表示用積み牌) 毎に、34種の牌と牌裏を1枚の画像にまとめる。
+ *    実行時は種類毎に1度だけ読み込み、区画を切り出して使う (ImageResourceManager)。
+ *  ※区画は9列×4行とし、萬子・筒子・索子・字牌の順に1行ずつ並べる。字牌の行の末尾 (8列目) は牌裏とする。
+ *    牌の区画の位置は JanPai の定義順と一致させること。
+ *  ※元画像は種類毎に全て同じ大きさであること。
+ *  ※通常の元画像はレイアウトからも参照するため drawable に置き、それ以外の種類の元画像は
+ *    APK に含めないよう tools/tiles に置く。
+ *  ※Android アプリには含めず、JDK のみで実行する。元画像を変更した場合は再実行して生成物をコミットする。
+ * 
+ *    javac -encoding UTF-8 -d /tmp/atlas tools/AtlasGenerator.java
+ *    java -cp /tmp/atlas AtlasGenerator res/drawable-nodpi tools/tiles
+ */
+public final class AtlasGenerator {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private AtlasGenerator() {
+    }
+    
+    
+    
+    /**
+     * エントリポイント
+     * 
+     * @param args drawable のディレクトリ (通常の元画像を読み、生成物を出力する)、通常以外の元画像のディレクトリ。
+     * @throws IOException 画像の読み書きに失敗した。
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: AtlasGenerator <drawable directory> <tile source directory>");
+            System.exit(2);
+        }
+        
+        final File directory = new File(args[0]);
+        final File sourceDirectory = new File(args[1]);
+        for (final String suffix : SUFFIX_LIST) {
+            final File output = new File(directory, ATLAS_NAME + suffix + ".png");
+            final BufferedImage atlas = createAtlas(suffix.isEmpty() ? directory : sourceDirectory, suffix);
+            ImageIO.write(atlas, "png", output);
+            System.out.println(output + " : " + atlas.getWidth() + "x" + atlas.getHeight());
+        }
+    }
+    
+    
+    
+    /**
+     * アトラスを生成
+     * 
+     * @param directory 元画像のディレクトリ。
+     * @param suffix 画像の種類の接尾辞。
+     * @return アトラス。
+     * @throws IOException 元画像の読み込みに失敗した。
+     */
+    private static BufferedImage createAtlas(final File directory, final String suffix) throws IOException {
+        BufferedImage atlas = null;
+        Graphics2D graphics = null;
+        int cellWidth = 0;
+        int cellHeight = 0;
+        for (int i = 0; i < CELL_NAME_LIST.length; i++) {
+            final File source = new File(directory, CELL_NAME_LIST[i] + suffix + ".png");
+            final BufferedImage image = ImageIO.read(source);
+            if (image == null) {
+                throw new IOException("Unreadable image - " + source);
+            }
+            if (atlas == null) {
+                cellWidth = image.getWidth();
+                cellHeight = image.getHeight();
+                atlas = new BufferedImage(cellWidth * COLUMN_COUNT, cellHeight * ROW_COUNT, BufferedImage.TYPE_INT_ARGB);
+                graphics = atlas.createGraphics();
+                
+                // 半透明の画素を合成せず、元画像の値のまま写す
+                graphics.setComposite(AlphaComposite.Src);
+            }
+            else if (image.getWidth() != cellWidth || image.getHeight() != cellHeight) {
+                throw new IOException("Image size mismatch - " + source);
+            }
+            graphics.drawImage(image, (i % COLUMN_COUNT) * cellWidth, (i / COLUMN_COUNT) * cellHeight, null);
+        }
+        graphics.dispose();
+        return atlas;
+    }
+    
+    
+    
+    /**
+     * アトラスの名前
+     */
+    private static final String ATLAS_NAME = "atlas";
+    
+    /**
+     * 画像の種類の接尾辞 (通常・オープン・横方向・カン表示用積み牌)
+     */
+    private static final String[] SUFFIX_LIST = { "", "_open", "_yoko", "_kan" };
+    
+    /**
+     * 区画の列数
+     */
+    private static final int COLUMN_COUNT = 9;
+    
+    /**
+     * 区画の行数
+     */
+    private static final int ROW_COUNT = 4;
+    
+    /**
+     * 区画毎の元画像の名前 (区画の順)
+     */
+    private static final String[] CELL_NAME_LIST = {
+        "m1", "m2", "m3", "m4", "m5", "m6", "m7", "m8", "m9",
+        "p1", "p2", "p3", "p4", "p5", "p6", "p7", "p8", "p9",
+        "s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8", "s9",
+        "j1", "j2", "j3", "j4", "j5", "j6", "j7", "ura",
+    };
+    
+}
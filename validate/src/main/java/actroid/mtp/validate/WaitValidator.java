@@ -0,0 +1,752 @@
+/**
+ * WaitValidator.java
+ * 
+ * @Author
+ *   Yuki Kawata
+ */
+
+package actroid.mtp.validate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import actroid.mtp.check.AnalysisWorkerPool;
+import actroid.mtp.check.CountCheckUtil;
+import actroid.mtp.check.HandNotation;
+import wiz.project.jan.JanPai;
+import wiz.project.jan.util.HandCheckUtil;
+
+
+
+/**
+ * 待ち牌判定の全数検証 (コマンドライン)
+ * 
+ *  ※1種類の牌のみで構成される13枚の手牌を全て列挙し、加えて無作為に抽出した混合の手牌を用意する。
+ *    それぞれの待ち牌をライブラリ (HandCheckUtil) と所持数配列による判定 (CountCheckUtil) で求め、一致を確認する。
+ *  ※ライブラリは面子を貪欲に取り除くため、和了形を見逃す場合がある (例 : 1111222333447m の 7m 待ち)。
+ *    両者が食い違った場合は、全ての分解を試す単純な参照実装で判定し、参照実装と異なる側を誤りとする。
+ *  ※アプリ本体には含めず、解析処理 (actroid.mtp.check) のみを取り込む検証用モジュール (validate/pom.xml) でビルドする。
+ *      mvn -f validate/pom.xml package
+ *      java -jar validate/target/wait-validator.jar [-samples 件数] [-seed 乱数の種] [-threads スレッド数]
+ *  ※所持数配列による判定が参照実装と異なれば最初の数件を表示し、終了コード1で終了する。
+ *    ライブラリの誤りは件数と最初の数件を表示するのみとする。
+ *  ※手牌を一定数ずつ区切り、CPU コア数のスレッドで並列に検証する。
+ *    判定処理毎の所要時間を集計し、手牌数/秒 を報告する。
+ *  ※所持数配列の判定は4枚所持している牌を和了牌に含めないため、ライブラリの結果からも同じ牌を除いて比較する。
+ */
+public final class WaitValidator {
+    
+    /**
+     * コンストラクタを自分自身に限定許可
+     */
+    private WaitValidator() {
+    }
+    
+    
+    
+    /**
+     * エントリポイント
+     * 
+     * @param args 引数。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        int sampleCount = DEFAULT_SAMPLE_COUNT;
+        long seed = DEFAULT_SEED;
+        int threadCount = AnalysisWorkerPool.getInstance().getWorkerCount();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("-samples".equals(args[i]) && i + 1 < args.length) {
+                    sampleCount = Integer.parseInt(args[++i]);
+                }
+                else if ("-seed".equals(args[i]) && i + 1 < args.length) {
+                    seed = Long.parseLong(args[++i]);
+                }
+                else if ("-threads".equals(args[i]) && i + 1 < args.length) {
+                    threadCount = Integer.parseInt(args[++i]);
+                }
+                else {
+                    throw new IllegalArgumentException("Invalid argument - " + args[i]);
+                }
+            }
+            if (sampleCount < 0 || threadCount <= 0) {
+                throw new IllegalArgumentException("Invalid count.");
+            }
+        }
+        catch (final IllegalArgumentException e) {
+            System.err.println("Usage: WaitValidator [-samples count] [-seed seed] [-threads count]");
+            System.exit(1);
+            return;
+        }
+        
+        final Result result = validate(sampleCount, seed, threadCount);
+        for (final String mismatch : result.getLibraryMismatchList()) {
+            System.out.println("LIBRARY  " + mismatch);
+        }
+        for (final String mismatch : result.getMismatchList()) {
+            System.out.println("MISMATCH " + mismatch);
+        }
+        System.out.println(result);
+        if (result.getMismatchCount() > 0) {
+            System.exit(1);
+        }
+    }
+    
+    
+    
+    /**
+     * 検証を実行
+     * 
+     * @param sampleCount 混合の手牌の抽出数。
+     * @param seed 乱数の種。
+     * @param threadCount スレッド数。
+     * @return 検証結果。
+     * @throws InterruptedException 割り込まれた。
+     */
+    public static Result validate(final int sampleCount, final long seed, final int threadCount) throws InterruptedException {
+        final List<int[]> singleList = createSingleTypeList();
+        final List<Callable<Result>> taskList = new ArrayList<Callable<Result>>();
+        for (int offset = 0; offset < singleList.size(); offset += CHUNK_SIZE) {
+            final int end = Math.min(offset + CHUNK_SIZE, singleList.size());
+            taskList.add(new SingleTypeTask(singleList.subList(offset, end)));
+        }
+        for (int offset = 0; offset < sampleCount; offset += CHUNK_SIZE) {
+            final int count = Math.min(CHUNK_SIZE, sampleCount - offset);
+            taskList.add(new SampleTask(count, seed + offset));
+        }
+        
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, new ValidatorThreadFactory());
+        final long start = System.nanoTime();
+        final Result result = new Result();
+        try {
+            for (final Future<Result> future : executor.invokeAll(taskList)) {
+                result.merge(future.get());
+            }
+        }
+        catch (final ExecutionException e) {
+            throw new IllegalStateException("Validation failed.", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        result.setElapsed(System.nanoTime() - start);
+        return result;
+    }
+    
+    
+    
+    /**
+     * 1種類の牌のみで構成される13枚の手牌を全て生成
+     * 
+     *  ※萬子・筒子・索子・字牌のそれぞれについて生成する。
+     * 
+     * @return 所持数配列のリスト。
+     */
+    private static List<int[]> createSingleTypeList() {
+        final List<int[]> resultList = new ArrayList<int[]>();
+        for (int offset = 0; offset < CountCheckUtil.JAN_PAI_KIND; offset += 9) {
+            final int length = Math.min(9, CountCheckUtil.JAN_PAI_KIND - offset);
+            addSingleType(resultList, new int[CountCheckUtil.JAN_PAI_KIND], offset, offset + length, HAND_SIZE);
+        }
+        return resultList;
+    }
+    
+    /**
+     * 1種類の牌のみで構成される手牌を再帰的に生成
+     * 
+     * @param resultList 生成先。
+     * @param count 生成中の所持数配列。
+     * @param index 枚数を決める牌のインデックス。
+     * @param end 種類の終端インデックス。
+     * @param rest 残り枚数。
+     */
+    private static void addSingleType(final List<int[]> resultList, final int[] count, final int index, final int end, final int rest) {
+        if (rest == 0) {
+            resultList.add(count.clone());
+            return;
+        }
+        if (index == end || rest > (end - index) * 4) {
+            return;
+        }
+        for (int n = Math.min(4, rest); n >= 0; n--) {
+            count[index] = n;
+            addSingleType(resultList, count, index + 1, end, rest - n);
+        }
+        count[index] = 0;
+    }
+    
+    /**
+     * 手牌を無作為に生成
+     * 
+     * @param random 乱数。
+     * @param wall 牌山 (全136枚のインデックス、並びは変更される)。
+     * @return 所持数配列 (13枚)。
+     */
+    private static int[] createSample(final Random random, final int[] wall) {
+        final int[] count = new int[CountCheckUtil.JAN_PAI_KIND];
+        for (int i = 0; i < HAND_SIZE; i++) {
+            final int j = i + random.nextInt(wall.length - i);
+            final int index = wall[j];
+            wall[j] = wall[i];
+            wall[i] = index;
+            count[index]++;
+        }
+        return count;
+    }
+    
+    /**
+     * 牌山を生成
+     * 
+     * @return 全136枚のインデックス。
+     */
+    private static int[] createWall() {
+        final int[] wall = new int[CountCheckUtil.JAN_PAI_KIND * 4];
+        for (int i = 0; i < wall.length; i++) {
+            wall[i] = i / 4;
+        }
+        return wall;
+    }
+    
+    
+    
+    /**
+     * 参照実装の和了牌マスクを取得
+     * 
+     * @param count 所持数配列 (判定中のみ変更する)。
+     * @return 和了牌マスク (4枚所持している牌は含めない)。
+     */
+    private static long getReferenceMask(final int[] count) {
+        long mask = 0;
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (count[i] >= 4) {
+                continue;
+            }
+            count[i]++;
+            if (isCompleteReference(count)) {
+                mask |= 1L << i;
+            }
+            count[i]--;
+        }
+        return mask;
+    }
+    
+    /**
+     * 参照実装の和了判定
+     * 
+     *  ※雀頭の候補毎に、残りが面子のみに分解できるかを全ての組み合わせで試す。
+     * 
+     * @param count 所持数配列 (14枚、判定中のみ変更する)。
+     * @return 判定結果。
+     */
+    private static boolean isCompleteReference(final int[] count) {
+        int pairCount = 0;
+        boolean kokushi = true;
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (count[i] == 2) {
+                pairCount++;
+            }
+            final boolean yao = (i >= CountCheckUtil.JI_INDEX || i % 9 == 0 || i % 9 == 8);
+            if (yao ? count[i] == 0 : count[i] != 0) {
+                kokushi = false;
+            }
+        }
+        if (pairCount == 7 || kokushi) {
+            return true;
+        }
+        
+        for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+            if (count[i] < 2) {
+                continue;
+            }
+            count[i] -= 2;
+            final boolean complete = isMenTsuOnly(count, 0);
+            count[i] += 2;
+            if (complete) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 面子のみに分解できるか
+     * 
+     * @param count 所持数配列 (判定中のみ変更する)。
+     * @param start 探索開始インデックス。
+     * @return 判定結果。
+     */
+    private static boolean isMenTsuOnly(final int[] count, final int start) {
+        int index = start;
+        while (index < CountCheckUtil.JAN_PAI_KIND && count[index] == 0) {
+            index++;
+        }
+        if (index == CountCheckUtil.JAN_PAI_KIND) {
+            return true;
+        }
+        
+        if (count[index] >= 3) {
+            count[index] -= 3;
+            final boolean complete = isMenTsuOnly(count, index);
+            count[index] += 3;
+            if (complete) {
+                return true;
+            }
+        }
+        if (index < CountCheckUtil.JI_INDEX && index % 9 <= 6 && count[index + 1] > 0 && count[index + 2] > 0) {
+            count[index]--;
+            count[index + 1]--;
+            count[index + 2]--;
+            final boolean complete = isMenTsuOnly(count, index);
+            count[index]++;
+            count[index + 1]++;
+            count[index + 2]++;
+            if (complete) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    
+    
+    /**
+     * 手牌の枚数
+     */
+    private static final int HAND_SIZE = 13;
+    
+    /**
+     * 1タスクあたりの手牌数
+     */
+    private static final int CHUNK_SIZE = 1024;
+    
+    /**
+     * 混合の手牌の抽出数の既定値
+     */
+    private static final int DEFAULT_SAMPLE_COUNT = 1000000;
+    
+    /**
+     * 乱数の種の既定値
+     */
+    private static final long DEFAULT_SEED = 20120401L;
+    
+    /**
+     * 表示する不一致の最大数
+     */
+    private static final int MISMATCH_LIMIT = 20;
+    
+    
+    
+    /**
+     * 検証結果
+     */
+    public static final class Result {
+        
+        /**
+         * コンストラクタ
+         */
+        public Result() {
+        }
+        
+        
+        
+        /**
+         * 検証した手牌数を取得
+         * 
+         * @return 検証した手牌数。
+         */
+        public int getHandCount() {
+            return _handCount;
+        }
+        
+        /**
+         * 不一致の手牌数を取得
+         * 
+         * @return 不一致の手牌数。
+         */
+        public int getMismatchCount() {
+            return _mismatchCount;
+        }
+        
+        /**
+         * 不一致の内容リストを取得
+         * 
+         * @return 不一致の内容リスト (最大 MISMATCH_LIMIT 件)。
+         */
+        public List<String> getMismatchList() {
+            return _mismatchList;
+        }
+        
+        /**
+         * ライブラリの誤りの手牌数を取得
+         * 
+         * @return ライブラリの誤りの手牌数。
+         */
+        public int getLibraryMismatchCount() {
+            return _libraryMismatchCount;
+        }
+        
+        /**
+         * ライブラリの誤りの内容リストを取得
+         * 
+         * @return ライブラリの誤りの内容リスト (最大 MISMATCH_LIMIT 件)。
+         */
+        public List<String> getLibraryMismatchList() {
+            return _libraryMismatchList;
+        }
+        
+        /**
+         * 文字列に変換
+         * 
+         * @return 変換結果。
+         */
+        @Override
+        public String toString() {
+            final double elapsed = _elapsed / 1e9;
+            final StringBuilder buf = new StringBuilder();
+            buf.append(_handCount).append(" hands (single type ").append(_singleCount);
+            buf.append(", sampled ").append(_handCount - _singleCount).append("), ");
+            buf.append(_tenpaiCount).append(" tenpai, ").append(_mismatchCount).append(" mismatches, ");
+            buf.append(_libraryMismatchCount).append(" library errors\n");
+            buf.append("total   : ").append(String.format("%.2f s, %.0f hands/s", elapsed, _handCount / Math.max(elapsed, 1e-9))).append('\n');
+            buf.append("library : ").append(formatRate(_libraryNanos)).append('\n');
+            buf.append("count   : ").append(formatRate(_countNanos));
+            return buf.toString();
+        }
+        
+        
+        
+        /**
+         * 1手牌分の結果を追加
+         * 
+         * @param count 所持数配列。
+         * @param single 1種類の牌のみで構成される手牌か。
+         * @param libraryMask ライブラリの和了牌マスク。
+         * @param countMask 所持数配列による和了牌マスク。
+         * @param referenceMask 参照実装の和了牌マスク。
+         */
+        private void add(final int[] count, final boolean single, final long libraryMask, final long countMask, final long referenceMask) {
+            _handCount++;
+            if (single) {
+                _singleCount++;
+            }
+            if (countMask != 0) {
+                _tenpaiCount++;
+            }
+            if (libraryMask == countMask) {
+                return;
+            }
+            
+            final String detail = HandNotation.format(count) + " library=" + formatMask(libraryMask) +
+                                  " count=" + formatMask(countMask) + " reference=" + formatMask(referenceMask);
+            if (countMask != referenceMask) {
+                _mismatchCount++;
+                if (_mismatchList.size() < MISMATCH_LIMIT) {
+                    _mismatchList.add(detail);
+                }
+            }
+            if (libraryMask != referenceMask) {
+                _libraryMismatchCount++;
+                if (_libraryMismatchList.size() < MISMATCH_LIMIT) {
+                    _libraryMismatchList.add(detail);
+                }
+            }
+        }
+        
+        /**
+         * 所要時間を追加
+         * 
+         * @param libraryNanos ライブラリの所要時間 (ナノ秒)。
+         * @param countNanos 所持数配列による判定の所要時間 (ナノ秒)。
+         */
+        private void addNanos(final long libraryNanos, final long countNanos) {
+            _libraryNanos += libraryNanos;
+            _countNanos += countNanos;
+        }
+        
+        /**
+         * 判定処理1つ分の処理速度を文字列に変換
+         * 
+         *  ※並列実行したスレッドの所要時間の合計から、1スレッドあたりの速度を求める。
+         * 
+         * @param nanos 所要時間の合計 (ナノ秒)。
+         * @return 変換結果。
+         */
+        private String formatRate(final long nanos) {
+            final double elapsed = nanos / 1e9;
+            return String.format("%.2f s, %.0f hands/s per thread", elapsed, _handCount / Math.max(elapsed, 1e-9));
+        }
+        
+        /**
+         * 和了牌マスクを文字列に変換
+         * 
+         * @param mask 和了牌マスク。
+         * @return 変換結果。
+         */
+        private String formatMask(final long mask) {
+            final StringBuilder buf = new StringBuilder("[");
+            for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+                if ((mask & (1L << i)) != 0) {
+                    if (buf.length() > 1) {
+                        buf.append(',');
+                    }
+                    buf.append(HandNotation.format(i));
+                }
+            }
+            return buf.append(']').toString();
+        }
+        
+        /**
+         * 結果を統合
+         * 
+         * @param source 統合元。
+         */
+        private void merge(final Result source) {
+            _handCount += source._handCount;
+            _singleCount += source._singleCount;
+            _tenpaiCount += source._tenpaiCount;
+            _mismatchCount += source._mismatchCount;
+            _libraryMismatchCount += source._libraryMismatchCount;
+            _libraryNanos += source._libraryNanos;
+            _countNanos += source._countNanos;
+            for (final String mismatch : source._mismatchList) {
+                if (_mismatchList.size() >= MISMATCH_LIMIT) {
+                    break;
+                }
+                _mismatchList.add(mismatch);
+            }
+            for (final String mismatch : source._libraryMismatchList) {
+                if (_libraryMismatchList.size() >= MISMATCH_LIMIT) {
+                    break;
+                }
+                _libraryMismatchList.add(mismatch);
+            }
+        }
+        
+        /**
+         * 全体の所要時間を設定
+         * 
+         * @param elapsed 所要時間 (ナノ秒)。
+         */
+        private void setElapsed(final long elapsed) {
+            _elapsed = elapsed;
+        }
+        
+        
+        
+        /**
+         * 検証した手牌数
+         */
+        private int _handCount = 0;
+        
+        /**
+         * 1種類の牌のみで構成される手牌数
+         */
+        private int _singleCount = 0;
+        
+        /**
+         * 聴牌の手牌数
+         */
+        private int _tenpaiCount = 0;
+        
+        /**
+         * 不一致 (所持数配列による判定の誤り) の手牌数
+         */
+        private int _mismatchCount = 0;
+        
+        /**
+         * 不一致の内容リスト
+         */
+        private final List<String> _mismatchList = new ArrayList<String>();
+        
+        /**
+         * ライブラリの誤りの手牌数
+         */
+        private int _libraryMismatchCount = 0;
+        
+        /**
+         * ライブラリの誤りの内容リスト
+         */
+        private final List<String> _libraryMismatchList = new ArrayList<String>();
+        
+        /**
+         * ライブラリの所要時間 (ナノ秒)
+         */
+        private long _libraryNanos = 0;
+        
+        /**
+         * 所持数配列による判定の所要時間 (ナノ秒)
+         */
+        private long _countNanos = 0;
+        
+        /**
+         * 全体の所要時間 (ナノ秒)
+         */
+        private long _elapsed = 0;
+    }
+    
+    
+    
+    /**
+     * 検証タスクの基底
+     */
+    private abstract static class ValidateTask implements Callable<Result> {
+        
+        /**
+         * コンストラクタ
+         */
+        protected ValidateTask() {
+        }
+        
+        
+        
+        /**
+         * 1手牌分を検証
+         * 
+         * @param result 検証結果の追加先。
+         * @param count 所持数配列。
+         * @param single 1種類の牌のみで構成される手牌か。
+         */
+        protected final void check(final Result result, final int[] count, final boolean single) {
+            // ライブラリは所持数0の牌を含まないマップを要求する
+            final Map<JanPai, Integer> map = new EnumMap<JanPai, Integer>(JanPai.class);
+            for (int i = 0; i < CountCheckUtil.JAN_PAI_KIND; i++) {
+                if (count[i] > 0) {
+                    map.put(CountCheckUtil.getJanPai(i), count[i]);
+                }
+            }
+            
+            final long libraryStart = System.nanoTime();
+            final List<JanPai> libraryList = HandCheckUtil.getCompletableJanPaiList(map);
+            final long countStart = System.nanoTime();
+            final long countMask = CountCheckUtil.getCompletableMask(count);
+            final long end = System.nanoTime();
+            
+            long libraryMask = 0;
+            for (final JanPai pai : libraryList) {
+                if (count[pai.ordinal()] < 4) {
+                    libraryMask |= 1L << pai.ordinal();
+                }
+            }
+            // 食い違った場合のみ参照実装で判定する
+            final long referenceMask = (libraryMask == countMask) ? countMask : getReferenceMask(count);
+            result.add(count, single, libraryMask, countMask, referenceMask);
+            result.addNanos(countStart - libraryStart, end - countStart);
+        }
+    }
+    
+    /**
+     * 1種類の牌のみで構成される手牌の検証タスク
+     */
+    private static final class SingleTypeTask extends ValidateTask {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param countList 所持数配列のリスト。
+         */
+        public SingleTypeTask(final List<int[]> countList) {
+            _countList = countList;
+        }
+        
+        
+        
+        /**
+         * 処理を実行
+         * 
+         * @return 検証結果。
+         */
+        public Result call() {
+            final Result result = new Result();
+            for (final int[] count : _countList) {
+                check(result, count, true);
+            }
+            return result;
+        }
+        
+        
+        
+        /**
+         * 所持数配列のリスト
+         */
+        private final List<int[]> _countList;
+    }
+    
+    /**
+     * 混合の手牌の検証タスク
+     * 
+     *  ※タスク毎に乱数の種を固定し、スレッド数に関わらず同じ手牌を生成する。
+     */
+    private static final class SampleTask extends ValidateTask {
+        
+        /**
+         * コンストラクタ
+         * 
+         * @param sampleCount 抽出数。
+         * @param seed 乱数の種。
+         */
+        public SampleTask(final int sampleCount, final long seed) {
+            _sampleCount = sampleCount;
+            _seed = seed;
+        }
+        
+        
+        
+        /**
+         * 処理を実行
+         * 
+         * @return 検証結果。
+         */
+        public Result call() {
+            final Result result = new Result();
+            final Random random = new Random(_seed);
+            final int[] wall = createWall();
+            for (int i = 0; i < _sampleCount; i++) {
+                check(result, createSample(random, wall), false);
+            }
+            return result;
+        }
+        
+        
+        
+        /**
+         * 抽出数
+         */
+        private final int _sampleCount;
+        
+        /**
+         * 乱数の種
+         */
+        private final long _seed;
+    }
+    
+    /**
+     * 検証スレッド生成処理
+     */
+    private static final class ValidatorThreadFactory implements ThreadFactory {
+        
+        /**
+         * コンストラクタ
+         */
+        public ValidatorThreadFactory() {
+        }
+        
+        /**
+         * スレッドを生成
+         */
+        public Thread newThread(final Runnable task) {
+            final Thread thread = new Thread(task, "WaitValidator");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
+}